@@ -776,17 +776,19 @@ public class GraphQLCompletionContributor extends CompletionContributor {
                 final TypeDefinitionRegistry typeDefinitionRegistry = GraphQLSchemaProvider.getInstance(completionElement.getProject())
                     .getRegistryInfo(parameters.getOriginalFile()).getTypeDefinitionRegistry();
 
-                final List<GraphQLFragmentDefinition> knownFragmentDefinitions = GraphQLPsiSearchHelper
-                    .getInstance(completionElement.getProject()).getKnownFragmentDefinitions(parameters.getOriginalFile());
-                for (GraphQLFragmentDefinition fragmentDefinition : knownFragmentDefinitions) {
-                    final String name = fragmentDefinition.getName();
-                    if (name != null) {
+                final GraphQLType requiredTypeScope = typeScope;
+                final Set<String> addedNames = new HashSet<>();
+                // the names and type conditions come straight from the fragment index, so no fragment files are loaded
+                GraphQLPsiSearchHelper.getInstance(completionElement.getProject()).processKnownFragments(parameters.getOriginalFile(),
+                    (name, typeCondition) -> {
                         // suggest compatible fragments based on type conditions
-                        if (GraphQLSchemaUtil.isFragmentApplicableInTypeScope(typeDefinitionRegistry, fragmentDefinition, typeScope)) {
+                        if (!addedNames.contains(name) &&
+                            GraphQLSchemaUtil.isFragmentApplicableInTypeScope(typeDefinitionRegistry, typeCondition, requiredTypeScope)) {
+                            addedNames.add(name);
                             result.addElement(GraphQLCompletionUtil.createTypeNameLookupElement(name));
                         }
-                    }
-                }
+                        return true;
+                    });
             }
         };
         extend(CompletionType.BASIC, psiElement().afterLeaf(psiElement(GraphQLElementTypes.SPREAD)), provider);
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2019-present, Jim Kynde Meyer
+ * All rights reserved.
+ * <p>
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.intellij.lang.jsgraphql.ide.indexing;
+
+import com.intellij.json.psi.*;
+import com.intellij.lang.jsgraphql.ide.findUsages.GraphQLFindUsagesUtil;
+import com.intellij.lang.jsgraphql.psi.*;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.psi.*;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Indexes the names of top-level GraphQL definitions, i.e. types, type extensions, directives, fragments and named operations.
+ * <p>
+ * For GraphQL files the offset of the name identifier is stored, so a definition can be found without visiting the whole file.
+ * Definitions in injections and introspection result files are stored with {@link Entry#UNKNOWN_OFFSET} and have to be looked up by visiting the file.
+ */
+public class GraphQLDefinitionIndex extends FileBasedIndexExtension<String, List<GraphQLDefinitionIndex.Entry>> {
+
+    public static final ID<String, List<Entry>> NAME = ID.create("GraphQLDefinitionIndex");
+    public static final int VERSION = 1;
+
+    private final Set<FileType> includedFileTypes;
+
+    private final DataIndexer<String, List<Entry>, FileContent> myDataIndexer;
+
+    public enum DefinitionKind {
+        OBJECT_TYPE,
+        INTERFACE_TYPE,
+        INPUT_OBJECT_TYPE,
+        ENUM_TYPE,
+        UNION_TYPE,
+        SCALAR_TYPE,
+        TYPE_EXTENSION,
+        DIRECTIVE,
+        FRAGMENT,
+        OPERATION;
+
+        public static final Set<DefinitionKind> TYPES = Collections.unmodifiableSet(
+            EnumSet.of(OBJECT_TYPE, INTERFACE_TYPE, INPUT_OBJECT_TYPE, ENUM_TYPE, UNION_TYPE, SCALAR_TYPE));
+    }
+
+    public static final class Entry {
+        public static final int UNKNOWN_OFFSET = -1;
+
+        private final DefinitionKind myKind;
+        private final int myOffset;
+
+        public Entry(@NotNull DefinitionKind kind, int offset) {
+            myKind = kind;
+            myOffset = offset;
+        }
+
+        @NotNull
+        public DefinitionKind getKind() {
+            return myKind;
+        }
+
+        /**
+         * The start offset of the name identifier in the file, or {@link #UNKNOWN_OFFSET}
+         */
+        public int getOffset() {
+            return myOffset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Entry entry = (Entry) o;
+            return myOffset == entry.myOffset && myKind == entry.myKind;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * myKind.hashCode() + myOffset;
+        }
+
+        @Override
+        public String toString() {
+            return myKind + "@" + myOffset;
+        }
+    }
+
+    public GraphQLDefinitionIndex() {
+        myDataIndexer = inputData -> {
+
+            final Map<String, List<Entry>> definitions = new HashMap<>();
+
+            final PsiFile psiFile = inputData.getPsiFile();
+            if (psiFile instanceof GraphQLFile) {
+                // definitions are top level, so there's no need to visit deeper
+                for (PsiElement child = psiFile.getFirstChild(); child != null; child = child.getNextSibling()) {
+                    indexDefinition(child, definitions, true);
+                }
+            } else if (psiFile instanceof JsonFile) {
+                indexIntrospectionJson((JsonFile) psiFile, definitions);
+            } else {
+                for (GraphQLIndexUtil.Injection injection : GraphQLIndexUtil.getInjections(inputData)) {
+                    final PsiFile injectedFile = injection.getInjectedFile();
+                    for (PsiElement child = injectedFile.getFirstChild(); child != null; child = child.getNextSibling()) {
+                        // the offsets in the injected text don't match the host file
+                        indexDefinition(child, definitions, false);
+                    }
+                }
+            }
+
+            return definitions;
+        };
+        includedFileTypes = GraphQLFindUsagesUtil.getService().getIncludedFileTypes();
+    }
+
+    private static void indexDefinition(@NotNull PsiElement element, @NotNull Map<String, List<Entry>> definitions, boolean withOffset) {
+        DefinitionKind kind = getDefinitionKind(element);
+        GraphQLIdentifier nameIdentifier = kind != null ? getNameIdentifier(element) : null;
+        if (nameIdentifier == null) {
+            return;
+        }
+        int offset = withOffset ? nameIdentifier.getTextRange().getStartOffset() : Entry.UNKNOWN_OFFSET;
+        addEntry(definitions, nameIdentifier.getText(), new Entry(kind, offset));
+    }
+
+    /**
+     * @return the kind of a top-level definition, or null if the definition isn't indexed, e.g. an anonymous operation
+     */
+    @Nullable
+    public static DefinitionKind getDefinitionKind(@NotNull PsiElement definition) {
+        if (definition instanceof GraphQLObjectTypeDefinition) {
+            return DefinitionKind.OBJECT_TYPE;
+        } else if (definition instanceof GraphQLInterfaceTypeDefinition) {
+            return DefinitionKind.INTERFACE_TYPE;
+        } else if (definition instanceof GraphQLInputObjectTypeDefinition) {
+            return DefinitionKind.INPUT_OBJECT_TYPE;
+        } else if (definition instanceof GraphQLEnumTypeDefinition) {
+            return DefinitionKind.ENUM_TYPE;
+        } else if (definition instanceof GraphQLUnionTypeDefinition) {
+            return DefinitionKind.UNION_TYPE;
+        } else if (definition instanceof GraphQLScalarTypeDefinition) {
+            return DefinitionKind.SCALAR_TYPE;
+        } else if (definition instanceof GraphQLNamedTypeExtension) {
+            return DefinitionKind.TYPE_EXTENSION;
+        } else if (definition instanceof GraphQLDirectiveDefinition) {
+            return DefinitionKind.DIRECTIVE;
+        } else if (definition instanceof GraphQLFragmentDefinition) {
+            return DefinitionKind.FRAGMENT;
+        } else if (definition instanceof GraphQLTypedOperationDefinition) {
+            return DefinitionKind.OPERATION;
+        }
+        return null;
+    }
+
+    @Nullable
+    public static GraphQLIdentifier getNameIdentifier(@NotNull PsiElement definition) {
+        if (definition instanceof GraphQLNamedTypeDefinition) {
+            GraphQLTypeNameDefinition typeNameDefinition = ((GraphQLNamedTypeDefinition) definition).getTypeNameDefinition();
+            return typeNameDefinition != null ? typeNameDefinition.getNameIdentifier() : null;
+        } else if (definition instanceof GraphQLNamedTypeExtension) {
+            GraphQLTypeName typeName = ((GraphQLNamedTypeExtension) definition).getTypeName();
+            return typeName != null ? typeName.getNameIdentifier() : null;
+        } else if (definition instanceof GraphQLDirectiveDefinition) {
+            return ((GraphQLDirectiveDefinition) definition).getNameIdentifier();
+        } else if (definition instanceof GraphQLFragmentDefinition) {
+            return ((GraphQLFragmentDefinition) definition).getNameIdentifier();
+        } else if (definition instanceof GraphQLTypedOperationDefinition) {
+            return ((GraphQLTypedOperationDefinition) definition).getNameIdentifier();
+        }
+        return null;
+    }
+
+    /**
+     * Indexes the types and directives of an introspection result:
+     * https://graphql.github.io/graphql-spec/June2018/#sec-Schema-Introspection
+     */
+    private static void indexIntrospectionJson(@NotNull JsonFile jsonFile, @NotNull Map<String, List<Entry>> definitions) {
+        JsonObject schemaObject = GraphQLIndexUtil.findIntrospectionSchema(jsonFile);
+        if (schemaObject == null) {
+            return;
+        }
+
+        for (JsonObject type : GraphQLIndexUtil.getArrayObjects(schemaObject, "types")) {
+            String name = GraphQLIndexUtil.getStringProperty(type, "name");
+            DefinitionKind kind = getIntrospectionTypeKind(GraphQLIndexUtil.getStringProperty(type, "kind"));
+            if (name != null && kind != null) {
+                addEntry(definitions, name, new Entry(kind, Entry.UNKNOWN_OFFSET));
+            }
+        }
+        for (JsonObject directive : GraphQLIndexUtil.getArrayObjects(schemaObject, "directives")) {
+            String name = GraphQLIndexUtil.getStringProperty(directive, "name");
+            if (name != null) {
+                addEntry(definitions, name, new Entry(DefinitionKind.DIRECTIVE, Entry.UNKNOWN_OFFSET));
+            }
+        }
+    }
+
+    @Nullable
+    private static DefinitionKind getIntrospectionTypeKind(@Nullable String kind) {
+        if (kind == null) {
+            return null;
+        }
+        switch (kind) {
+            case "OBJECT":
+                return DefinitionKind.OBJECT_TYPE;
+            case "INTERFACE":
+                return DefinitionKind.INTERFACE_TYPE;
+            case "INPUT_OBJECT":
+                return DefinitionKind.INPUT_OBJECT_TYPE;
+            case "ENUM":
+                return DefinitionKind.ENUM_TYPE;
+            case "UNION":
+                return DefinitionKind.UNION_TYPE;
+            case "SCALAR":
+                return DefinitionKind.SCALAR_TYPE;
+            default:
+                return null;
+        }
+    }
+
+    private static void addEntry(@NotNull Map<String, List<Entry>> definitions, @NotNull String name, @NotNull Entry entry) {
+        definitions.computeIfAbsent(name, k -> new ArrayList<>(1)).add(entry);
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<Entry>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Entry>, FileContent> getIndexer() {
+        return myDataIndexer;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return new EnumeratorStringDescriptor();
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Entry>> getValueExternalizer() {
+        return new DataExternalizer<List<Entry>>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<Entry> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (Entry entry : value) {
+                    DataInputOutputUtil.writeINT(out, entry.getKind().ordinal());
+                    // shifted to keep the unknown offset non-negative
+                    DataInputOutputUtil.writeINT(out, entry.getOffset() + 1);
+                }
+            }
+
+            @Override
+            public List<Entry> read(@NotNull DataInput in) throws IOException {
+                DefinitionKind[] kinds = DefinitionKind.values();
+                int size = DataInputOutputUtil.readINT(in);
+                List<Entry> entries = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    DefinitionKind kind = kinds[DataInputOutputUtil.readINT(in)];
+                    entries.add(new Entry(kind, DataInputOutputUtil.readINT(in) - 1));
+                }
+                return entries;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return GraphQLIndexUtil.INDEX_BASE_VERSION + VERSION;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> includedFileTypes.contains(file.getFileType());
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @Override
+    public @NotNull Collection<FileType> getFileTypesWithSizeLimitNotApplicable() {
+        return GraphQLIndexUtil.FILE_TYPES_WITH_IGNORED_SIZE_LIMIT;
+    }
+}
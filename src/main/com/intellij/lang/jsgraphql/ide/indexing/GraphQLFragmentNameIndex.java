@@ -7,96 +7,144 @@
  */
 package com.intellij.lang.jsgraphql.ide.indexing;
 
-import com.intellij.lang.jsgraphql.GraphQLFileType;
-import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectionSearchHelper;
 import com.intellij.lang.jsgraphql.ide.findUsages.GraphQLFindUsagesUtil;
-import com.intellij.lang.jsgraphql.psi.GraphQLDefinition;
-import com.intellij.lang.jsgraphql.psi.GraphQLFragmentDefinition;
+import com.intellij.lang.jsgraphql.psi.*;
 import com.intellij.openapi.fileTypes.FileType;
-import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
 import com.intellij.util.indexing.*;
-import com.intellij.util.io.BooleanDataDescriptor;
 import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
 import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
 import com.intellij.util.io.KeyDescriptor;
-import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
-import java.util.Set;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
 
 /**
- * Index for processing files that contain one or more GraphQL fragment definitions
+ * Indexes the GraphQL fragment definitions by name, together with their type conditions and locations.
+ * <p>
+ * For fragments in GraphQL files the offset is the start of the fragment name,
+ * for injected fragments it's the start of the injection host in the containing file.
  */
-public class GraphQLFragmentNameIndex extends FileBasedIndexExtension<String, Boolean> {
-
-    public static final ID<String, Boolean> NAME = ID.create("GraphQLFragmentNameIndex");
+public class GraphQLFragmentNameIndex extends FileBasedIndexExtension<String, List<GraphQLFragmentNameIndex.FragmentEntry>> {
 
-    public static final String HAS_FRAGMENTS = "fragments";
-    public static final int VERSION = 1;
+    public static final ID<String, List<FragmentEntry>> NAME = ID.create("GraphQLFragmentNameIndex");
 
+    public static final int VERSION = 2;
 
-    private final @Nullable GraphQLInjectionSearchHelper graphQLInjectionSearchHelper;
 
     private final Set<FileType> includedFileTypes;
 
-    private final DataIndexer<String, Boolean, FileContent> myDataIndexer;
+    private final DataIndexer<String, List<FragmentEntry>, FileContent> myDataIndexer;
+
+    public static final class FragmentEntry {
+        private final int myOffset;
+        private final String myTypeCondition;
+        private final boolean myInjected;
+
+        public FragmentEntry(int offset, @NotNull String typeCondition, boolean injected) {
+            myOffset = offset;
+            myTypeCondition = typeCondition;
+            myInjected = injected;
+        }
+
+        /**
+         * The start offset of the fragment name, or of the injection host if the fragment is {@link #isInjected() injected}
+         */
+        public int getOffset() {
+            return myOffset;
+        }
+
+        /**
+         * The type name of the type condition, or an empty string if the fragment is incomplete
+         */
+        @NotNull
+        public String getTypeCondition() {
+            return myTypeCondition;
+        }
+
+        public boolean isInjected() {
+            return myInjected;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FragmentEntry entry = (FragmentEntry) o;
+            return myOffset == entry.myOffset && myInjected == entry.myInjected && myTypeCondition.equals(entry.myTypeCondition);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(myOffset, myTypeCondition, myInjected);
+        }
+
+        @Override
+        public String toString() {
+            return "on " + myTypeCondition + "@" + myOffset + (myInjected ? " (injected)" : "");
+        }
+    }
 
     public GraphQLFragmentNameIndex() {
         myDataIndexer = inputData -> {
 
-            final Ref<Boolean> hasFragments = Ref.create(false);
-
-            final Ref<PsiRecursiveElementVisitor> identifierVisitor = Ref.create();
-            identifierVisitor.set(new PsiRecursiveElementVisitor() {
-                @Override
-                public void visitElement(@NotNull PsiElement element) {
-                    if (hasFragments.get()) {
-                        // done
-                        return;
-                    }
-                    if (element instanceof GraphQLDefinition) {
-                        if (element instanceof GraphQLFragmentDefinition) {
-                            hasFragments.set(true);
-                        }
-                        return; // no need to visit deeper than definitions since fragments are top level
-                    } else if (element instanceof PsiLanguageInjectionHost && graphQLInjectionSearchHelper != null) {
-                        if (graphQLInjectionSearchHelper.isGraphQLLanguageInjectionTarget(element)) {
-                            final PsiFileFactory psiFileFactory = PsiFileFactory.getInstance(element.getProject());
-                            final String graphqlBuffer = StringUtils.strip(element.getText(), "` \t\n");
-                            final PsiFile graphqlInjectedPsiFile = psiFileFactory.createFileFromText("", GraphQLFileType.INSTANCE, graphqlBuffer, 0, false, false);
-                            graphqlInjectedPsiFile.accept(identifierVisitor.get());
-                            return;
-                        }
-                    }
-                    super.visitElement(element);
-                }
-            });
-
-            inputData.getPsiFile().accept(identifierVisitor.get());
+            final Map<String, List<FragmentEntry>> fragments = new HashMap<>();
 
-            if (hasFragments.get()) {
-                return Collections.singletonMap(HAS_FRAGMENTS, true);
-            } else {
-                return Collections.emptyMap();
+            final PsiFile psiFile = inputData.getPsiFile();
+            if (psiFile instanceof GraphQLFile) {
+                indexFragments(psiFile, null, fragments);
+            }
+            for (GraphQLIndexUtil.Injection injection : GraphQLIndexUtil.getInjections(inputData)) {
+                indexFragments(injection.getInjectedFile(), injection.getHost(), fragments);
             }
 
+            return fragments;
         };
         includedFileTypes = GraphQLFindUsagesUtil.getService().getIncludedFileTypes();
-        graphQLInjectionSearchHelper = GraphQLInjectionSearchHelper.getInstance();
+    }
+
+    private static void indexFragments(@NotNull PsiFile graphQLFile,
+                                       @Nullable PsiLanguageInjectionHost host,
+                                       @NotNull Map<String, List<FragmentEntry>> fragments) {
+        // fragments are top level, so there's no need to visit deeper than definitions
+        for (PsiElement child = graphQLFile.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof GraphQLFragmentDefinition) {
+                indexFragment((GraphQLFragmentDefinition) child, host, fragments);
+            }
+        }
+    }
+
+    private static void indexFragment(@NotNull GraphQLFragmentDefinition fragment,
+                                      @Nullable PsiLanguageInjectionHost host,
+                                      @NotNull Map<String, List<FragmentEntry>> fragments) {
+        final GraphQLIdentifier nameIdentifier = fragment.getNameIdentifier();
+        if (nameIdentifier == null) {
+            return;
+        }
+        final GraphQLTypeCondition typeCondition = fragment.getTypeCondition();
+        final GraphQLTypeName typeName = typeCondition != null ? typeCondition.getTypeName() : null;
+        final String typeConditionName = typeName != null ? StringUtil.notNullize(typeName.getName()) : "";
+        final int offset = host != null ? host.getTextRange().getStartOffset() : nameIdentifier.getTextRange().getStartOffset();
+        fragments.computeIfAbsent(nameIdentifier.getText(), k -> new ArrayList<>(1))
+            .add(new FragmentEntry(offset, typeConditionName, host != null));
     }
 
     @NotNull
     @Override
-    public ID<String, Boolean> getName() {
+    public ID<String, List<FragmentEntry>> getName() {
         return NAME;
     }
 
     @NotNull
     @Override
-    public DataIndexer<String, Boolean, FileContent> getIndexer() {
+    public DataIndexer<String, List<FragmentEntry>, FileContent> getIndexer() {
         return myDataIndexer;
     }
 
@@ -108,8 +156,30 @@ public class GraphQLFragmentNameIndex extends FileBasedIndexExtension<String, Bo
 
     @NotNull
     @Override
-    public DataExternalizer<Boolean> getValueExternalizer() {
-        return BooleanDataDescriptor.INSTANCE;
+    public DataExternalizer<List<FragmentEntry>> getValueExternalizer() {
+        return new DataExternalizer<List<FragmentEntry>>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<FragmentEntry> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (FragmentEntry entry : value) {
+                    DataInputOutputUtil.writeINT(out, entry.getOffset());
+                    IOUtil.writeUTF(out, entry.getTypeCondition());
+                    out.writeBoolean(entry.isInjected());
+                }
+            }
+
+            @Override
+            public List<FragmentEntry> read(@NotNull DataInput in) throws IOException {
+                final int size = DataInputOutputUtil.readINT(in);
+                final List<FragmentEntry> entries = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    final int offset = DataInputOutputUtil.readINT(in);
+                    final String typeCondition = IOUtil.readUTF(in);
+                    entries.add(new FragmentEntry(offset, typeCondition, in.readBoolean()));
+                }
+                return entries;
+            }
+        };
     }
 
     @Override
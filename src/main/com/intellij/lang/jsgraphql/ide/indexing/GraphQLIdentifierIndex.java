@@ -9,67 +9,117 @@ package com.intellij.lang.jsgraphql.ide.indexing;
 
 import com.google.common.collect.Maps;
 import com.intellij.json.psi.*;
-import com.intellij.lang.jsgraphql.GraphQLFileType;
-import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectionSearchHelper;
 import com.intellij.lang.jsgraphql.ide.findUsages.GraphQLFindUsagesUtil;
-import com.intellij.lang.jsgraphql.psi.GraphQLIdentifier;
+import com.intellij.lang.jsgraphql.psi.*;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.psi.*;
 import com.intellij.util.indexing.*;
 import com.intellij.util.io.DataExternalizer;
-import com.intellij.util.io.EnumDataDescriptor;
+import com.intellij.util.io.DataInputOutputUtil;
 import com.intellij.util.io.EnumeratorStringDescriptor;
 import com.intellij.util.io.KeyDescriptor;
-import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Set;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
 
 /**
  * Indexes GraphQL identifiers in GraphQL files, GraphQL injections, and JSON GraphQL introspection query result files.
+ * <p>
+ * The value is the set of kinds the identifier is used as in the file, so searches can skip files
+ * which only mention a name, e.g. as a field selection when looking for the field definition.
  */
-public class GraphQLIdentifierIndex extends FileBasedIndexExtension<String, GraphQLIdentifierIndex.IdentifierKind> {
-
-    public static final ID<String, IdentifierKind> NAME = ID.create("GraphQLIdentifierIndex");
-    public static final int VERSION = 3;
+public class GraphQLIdentifierIndex extends FileBasedIndexExtension<String, Set<GraphQLIdentifierIndex.IdentifierKind>> {
 
-    private final @Nullable GraphQLInjectionSearchHelper graphQLInjectionSearchHelper;
+    public static final ID<String, Set<IdentifierKind>> NAME = ID.create("GraphQLIdentifierIndex");
+    public static final int VERSION = 4;
 
     private final Set<FileType> includedFileTypes;
 
-    private final DataIndexer<String, IdentifierKind, FileContent> myDataIndexer;
+    private final DataIndexer<String, Set<IdentifierKind>, FileContent> myDataIndexer;
 
     public enum IdentifierKind {
 
-        IDENTIFIER_NAME,
-        // FIELD_NAME,
-        // FIELD_ALIAS_NAME,
-        // FIELD_DEFINITION_NAME,
-        // TYPE_NAME,
-        // TYPE_DEFINITION_NAME,
-        // FRAGMENT_SPREAD_NAME,
-        // FRAGMENT_DEFINITION_NAME,
-        // ARGUMENT_NAME,
-        // ENUM_VALUE_NAME,
-        // OBJECT_FIELD_NAME,
-        // DIRECTIVE_NAME,
-        // OPERATION_DEFINITION_NAME
+        TYPE_DEFINITION_NAME(true),
+        TYPE_NAME(false),
+        FIELD_DEFINITION_NAME(true),
+        FIELD_NAME(false),
+        FIELD_ALIAS_NAME(false),
+        INPUT_VALUE_DEFINITION_NAME(true),
+        ARGUMENT_NAME(false),
+        OBJECT_FIELD_NAME(false),
+        ENUM_VALUE_DEFINITION_NAME(true),
+        ENUM_VALUE_NAME(false),
+        DIRECTIVE_DEFINITION_NAME(true),
+        DIRECTIVE_NAME(false),
+        FRAGMENT_DEFINITION_NAME(true),
+        FRAGMENT_SPREAD_NAME(false),
+        OPERATION_DEFINITION_NAME(true),
+        OTHER_NAME(false);
+
+        public static final Set<IdentifierKind> ALL = Collections.unmodifiableSet(EnumSet.allOf(IdentifierKind.class));
+
+        private final boolean myDefinition;
+
+        IdentifierKind(boolean definition) {
+            myDefinition = definition;
+        }
+
+        /**
+         * @return true if the identifier declares a schema element or an executable definition, false if it refers to one
+         */
+        public boolean isDefinition() {
+            return myDefinition;
+        }
 
+        @NotNull
+        public static IdentifierKind of(@NotNull GraphQLIdentifier identifier) {
+            final PsiElement parent = identifier.getParent();
+            if (parent instanceof GraphQLTypeNameDefinition) {
+                return TYPE_DEFINITION_NAME;
+            } else if (parent instanceof GraphQLTypeName) {
+                return TYPE_NAME;
+            } else if (parent instanceof GraphQLFieldDefinition) {
+                return FIELD_DEFINITION_NAME;
+            } else if (parent instanceof GraphQLField) {
+                return FIELD_NAME;
+            } else if (parent instanceof GraphQLAlias) {
+                return FIELD_ALIAS_NAME;
+            } else if (parent instanceof GraphQLInputValueDefinition) {
+                return INPUT_VALUE_DEFINITION_NAME;
+            } else if (parent instanceof GraphQLArgument) {
+                return ARGUMENT_NAME;
+            } else if (parent instanceof GraphQLObjectField) {
+                return OBJECT_FIELD_NAME;
+            } else if (parent instanceof GraphQLEnumValue) {
+                return parent.getParent() instanceof GraphQLEnumValueDefinition ? ENUM_VALUE_DEFINITION_NAME : ENUM_VALUE_NAME;
+            } else if (parent instanceof GraphQLDirectiveDefinition) {
+                return DIRECTIVE_DEFINITION_NAME;
+            } else if (parent instanceof GraphQLDirective) {
+                return DIRECTIVE_NAME;
+            } else if (parent instanceof GraphQLFragmentDefinition) {
+                return FRAGMENT_DEFINITION_NAME;
+            } else if (parent instanceof GraphQLFragmentSpread) {
+                return FRAGMENT_SPREAD_NAME;
+            } else if (parent instanceof GraphQLTypedOperationDefinition) {
+                return OPERATION_DEFINITION_NAME;
+            }
+            return OTHER_NAME;
+        }
     }
 
     public GraphQLIdentifierIndex() {
         myDataIndexer = inputData -> {
 
-            final HashMap<String, IdentifierKind> identifiers = Maps.newHashMap();
+            final HashMap<String, Set<IdentifierKind>> identifiers = Maps.newHashMap();
 
             PsiRecursiveElementVisitor visitor = new PsiRecursiveElementVisitor() {
                 @Override
                 public void visitElement(@NotNull PsiElement element) {
                     if (element instanceof GraphQLIdentifier) {
-                        identifiers.put(element.getText(), IdentifierKind.IDENTIFIER_NAME);
+                        addKinds(identifiers, element.getText(), EnumSet.of(IdentifierKind.of((GraphQLIdentifier) element)));
                         return; // no need to visit deeper
                     } else if (element instanceof JsonElement) {
                         if (element instanceof JsonFile) {
@@ -84,29 +134,33 @@ public class GraphQLIdentifierIndex extends FileBasedIndexExtension<String, Grap
                             // https://graphql.github.io/graphql-spec/June2018/#sec-Schema-Introspection
                             if ("name".equals(jsonProperty.getName())) {
                                 if (jsonProperty.getValue() instanceof JsonStringLiteral) {
-                                    identifiers.put(((JsonStringLiteral) jsonProperty.getValue()).getValue(), IdentifierKind.IDENTIFIER_NAME);
+                                    // the name can be a definition or a reference of any kind, e.g. in "ofType" or "interfaces"
+                                    addKinds(identifiers, ((JsonStringLiteral) jsonProperty.getValue()).getValue(), IdentifierKind.ALL);
                                 }
                             }
                         }
-                    } else if (element instanceof PsiLanguageInjectionHost && graphQLInjectionSearchHelper != null) {
-                        if (graphQLInjectionSearchHelper.isGraphQLLanguageInjectionTarget(element)) {
-                            final PsiFileFactory psiFileFactory = PsiFileFactory.getInstance(element.getProject());
-                            final String graphqlBuffer = StringUtils.strip(element.getText(), "` \t\n");
-                            final PsiFile graphqlInjectedPsiFile = psiFileFactory.createFileFromText("", GraphQLFileType.INSTANCE, graphqlBuffer, 0, false, false);
-                            graphqlInjectedPsiFile.accept(this);
-                            return;
-                        }
                     }
                     super.visitElement(element);
                 }
             };
 
-            inputData.getPsiFile().accept(visitor);
+            final PsiFile psiFile = inputData.getPsiFile();
+            if (psiFile instanceof GraphQLFile || psiFile instanceof JsonFile) {
+                psiFile.accept(visitor);
+            }
+            for (GraphQLIndexUtil.Injection injection : GraphQLIndexUtil.getInjections(inputData)) {
+                injection.getInjectedFile().accept(visitor);
+            }
 
             return identifiers;
         };
         includedFileTypes = GraphQLFindUsagesUtil.getService().getIncludedFileTypes();
-        graphQLInjectionSearchHelper = GraphQLInjectionSearchHelper.getInstance();
+    }
+
+    private static void addKinds(@NotNull Map<String, Set<IdentifierKind>> identifiers,
+                                 @NotNull String name,
+                                 @NotNull Set<IdentifierKind> kinds) {
+        identifiers.computeIfAbsent(name, k -> EnumSet.noneOf(IdentifierKind.class)).addAll(kinds);
     }
 
     private boolean isIntrospectionJsonFile(JsonFile jsonFile) {
@@ -129,13 +183,13 @@ public class GraphQLIdentifierIndex extends FileBasedIndexExtension<String, Grap
 
     @NotNull
     @Override
-    public ID<String, IdentifierKind> getName() {
+    public ID<String, Set<IdentifierKind>> getName() {
         return NAME;
     }
 
     @NotNull
     @Override
-    public DataIndexer<String, IdentifierKind, FileContent> getIndexer() {
+    public DataIndexer<String, Set<IdentifierKind>, FileContent> getIndexer() {
         return myDataIndexer;
     }
 
@@ -147,8 +201,29 @@ public class GraphQLIdentifierIndex extends FileBasedIndexExtension<String, Grap
 
     @NotNull
     @Override
-    public DataExternalizer<IdentifierKind> getValueExternalizer() {
-        return new EnumDataDescriptor<>(IdentifierKind.class);
+    public DataExternalizer<Set<IdentifierKind>> getValueExternalizer() {
+        return new DataExternalizer<Set<IdentifierKind>>() {
+            @Override
+            public void save(@NotNull DataOutput out, Set<IdentifierKind> value) throws IOException {
+                int mask = 0;
+                for (IdentifierKind kind : value) {
+                    mask |= 1 << kind.ordinal();
+                }
+                DataInputOutputUtil.writeINT(out, mask);
+            }
+
+            @Override
+            public Set<IdentifierKind> read(@NotNull DataInput in) throws IOException {
+                final int mask = DataInputOutputUtil.readINT(in);
+                final Set<IdentifierKind> kinds = EnumSet.noneOf(IdentifierKind.class);
+                for (IdentifierKind kind : IdentifierKind.values()) {
+                    if ((mask & (1 << kind.ordinal())) != 0) {
+                        kinds.add(kind);
+                    }
+                }
+                return kinds;
+            }
+        };
     }
 
     @Override
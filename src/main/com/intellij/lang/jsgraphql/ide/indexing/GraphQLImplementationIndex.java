@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2019-present, Jim Kynde Meyer
+ * All rights reserved.
+ * <p>
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.intellij.lang.jsgraphql.ide.indexing;
+
+import com.intellij.json.psi.JsonFile;
+import com.intellij.json.psi.JsonObject;
+import com.intellij.lang.jsgraphql.ide.findUsages.GraphQLFindUsagesUtil;
+import com.intellij.lang.jsgraphql.psi.*;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Indexes the type hierarchy of GraphQL schemas: an interface name is mapped to the types and extensions which implement it,
+ * and a union name is mapped to its member types.
+ * <p>
+ * The offset of an implementation is the start of the implementing type name, the offset of a union member is the start
+ * of the member type reference. Injections and introspection result files are indexed with {@link Entry#UNKNOWN_OFFSET}.
+ */
+public class GraphQLImplementationIndex extends FileBasedIndexExtension<String, List<GraphQLImplementationIndex.Entry>> {
+
+    public static final ID<String, List<Entry>> NAME = ID.create("GraphQLImplementationIndex");
+    public static final int VERSION = 1;
+
+    private final Set<FileType> includedFileTypes;
+
+    private final DataIndexer<String, List<Entry>, FileContent> myDataIndexer;
+
+    public enum EntryKind {
+        IMPLEMENTATION,
+        UNION_MEMBER
+    }
+
+    public static final class Entry {
+        public static final int UNKNOWN_OFFSET = -1;
+
+        private final EntryKind myKind;
+        private final String myTypeName;
+        private final int myOffset;
+
+        public Entry(@NotNull EntryKind kind, @NotNull String typeName, int offset) {
+            myKind = kind;
+            myTypeName = typeName;
+            myOffset = offset;
+        }
+
+        @NotNull
+        public EntryKind getKind() {
+            return myKind;
+        }
+
+        /**
+         * The name of the implementing type or the union member type
+         */
+        @NotNull
+        public String getTypeName() {
+            return myTypeName;
+        }
+
+        public int getOffset() {
+            return myOffset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Entry entry = (Entry) o;
+            return myOffset == entry.myOffset && myKind == entry.myKind && myTypeName.equals(entry.myTypeName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(myKind, myTypeName, myOffset);
+        }
+
+        @Override
+        public String toString() {
+            return myKind + " " + myTypeName + "@" + myOffset;
+        }
+    }
+
+    public GraphQLImplementationIndex() {
+        myDataIndexer = inputData -> {
+
+            final Map<String, List<Entry>> entries = new HashMap<>();
+
+            final PsiFile psiFile = inputData.getPsiFile();
+            if (psiFile instanceof GraphQLFile) {
+                indexDefinitions(psiFile, entries, true);
+            } else if (psiFile instanceof JsonFile) {
+                indexIntrospectionJson((JsonFile) psiFile, entries);
+            } else {
+                for (GraphQLIndexUtil.Injection injection : GraphQLIndexUtil.getInjections(inputData)) {
+                    // the offsets in the injected text don't match the host file
+                    indexDefinitions(injection.getInjectedFile(), entries, false);
+                }
+            }
+
+            return entries;
+        };
+        includedFileTypes = GraphQLFindUsagesUtil.getService().getIncludedFileTypes();
+    }
+
+    private static void indexDefinitions(@NotNull PsiFile graphQLFile, @NotNull Map<String, List<Entry>> entries, boolean withOffset) {
+        // type definitions are top level, so there's no need to visit deeper
+        for (PsiElement child = graphQLFile.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!(child instanceof GraphQLNamedTypeDefinition || child instanceof GraphQLNamedTypeExtension)) {
+                continue;
+            }
+            final GraphQLIdentifier typeNameIdentifier = GraphQLDefinitionIndex.getNameIdentifier(child);
+            if (typeNameIdentifier == null) {
+                continue;
+            }
+
+            final GraphQLImplementsInterfaces implementsInterfaces = PsiTreeUtil.getChildOfType(child, GraphQLImplementsInterfaces.class);
+            if (implementsInterfaces != null) {
+                final int offset = withOffset ? typeNameIdentifier.getTextRange().getStartOffset() : Entry.UNKNOWN_OFFSET;
+                for (GraphQLTypeName interfaceName : implementsInterfaces.getTypeNameList()) {
+                    addEntry(entries, interfaceName.getText(), new Entry(EntryKind.IMPLEMENTATION, typeNameIdentifier.getText(), offset));
+                }
+            }
+
+            final GraphQLUnionMembership unionMembership = PsiTreeUtil.getChildOfType(child, GraphQLUnionMembership.class);
+            final GraphQLUnionMembers unionMembers = unionMembership != null ? unionMembership.getUnionMembers() : null;
+            if (unionMembers != null) {
+                for (GraphQLTypeName memberName : unionMembers.getTypeNameList()) {
+                    final int offset = withOffset ? memberName.getTextRange().getStartOffset() : Entry.UNKNOWN_OFFSET;
+                    addEntry(entries, typeNameIdentifier.getText(), new Entry(EntryKind.UNION_MEMBER, memberName.getText(), offset));
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes the "interfaces" and "possibleTypes" of the types in an introspection result
+     */
+    private static void indexIntrospectionJson(@NotNull JsonFile jsonFile, @NotNull Map<String, List<Entry>> entries) {
+        final JsonObject schemaObject = GraphQLIndexUtil.findIntrospectionSchema(jsonFile);
+        if (schemaObject == null) {
+            return;
+        }
+
+        for (JsonObject type : GraphQLIndexUtil.getArrayObjects(schemaObject, "types")) {
+            final String typeName = GraphQLIndexUtil.getStringProperty(type, "name");
+            if (typeName == null) {
+                continue;
+            }
+            for (JsonObject interfaceType : GraphQLIndexUtil.getArrayObjects(type, "interfaces")) {
+                final String interfaceName = GraphQLIndexUtil.getStringProperty(interfaceType, "name");
+                if (interfaceName != null) {
+                    addEntry(entries, interfaceName, new Entry(EntryKind.IMPLEMENTATION, typeName, Entry.UNKNOWN_OFFSET));
+                }
+            }
+            if ("UNION".equals(GraphQLIndexUtil.getStringProperty(type, "kind"))) {
+                for (JsonObject memberType : GraphQLIndexUtil.getArrayObjects(type, "possibleTypes")) {
+                    final String memberName = GraphQLIndexUtil.getStringProperty(memberType, "name");
+                    if (memberName != null) {
+                        addEntry(entries, typeName, new Entry(EntryKind.UNION_MEMBER, memberName, Entry.UNKNOWN_OFFSET));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addEntry(@NotNull Map<String, List<Entry>> entries, @NotNull String name, @NotNull Entry entry) {
+        entries.computeIfAbsent(name, k -> new ArrayList<>(1)).add(entry);
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<Entry>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Entry>, FileContent> getIndexer() {
+        return myDataIndexer;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return new EnumeratorStringDescriptor();
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Entry>> getValueExternalizer() {
+        return new DataExternalizer<List<Entry>>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<Entry> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (Entry entry : value) {
+                    DataInputOutputUtil.writeINT(out, entry.getKind().ordinal());
+                    IOUtil.writeUTF(out, entry.getTypeName());
+                    // shifted to keep the unknown offset non-negative
+                    DataInputOutputUtil.writeINT(out, entry.getOffset() + 1);
+                }
+            }
+
+            @Override
+            public List<Entry> read(@NotNull DataInput in) throws IOException {
+                final EntryKind[] kinds = EntryKind.values();
+                final int size = DataInputOutputUtil.readINT(in);
+                final List<Entry> entries = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    final EntryKind kind = kinds[DataInputOutputUtil.readINT(in)];
+                    final String typeName = IOUtil.readUTF(in);
+                    entries.add(new Entry(kind, typeName, DataInputOutputUtil.readINT(in) - 1));
+                }
+                return entries;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return GraphQLIndexUtil.INDEX_BASE_VERSION + VERSION;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> includedFileTypes.contains(file.getFileType());
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @Override
+    public @NotNull Collection<FileType> getFileTypesWithSizeLimitNotApplicable() {
+        return GraphQLIndexUtil.FILE_TYPES_WITH_IGNORED_SIZE_LIMIT;
+    }
+}
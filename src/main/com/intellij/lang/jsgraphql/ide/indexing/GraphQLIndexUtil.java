@@ -2,14 +2,126 @@ package com.intellij.lang.jsgraphql.ide.indexing;
 
 import com.google.common.collect.ImmutableList;
 import com.intellij.json.JsonFileType;
+import com.intellij.json.psi.*;
 import com.intellij.lang.jsgraphql.GraphQLFileType;
+import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectionSearchHelper;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
 import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.FileContent;
+import org.apache.commons.lang.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public final class GraphQLIndexUtil {
     public static final int INDEX_BASE_VERSION = 1;
 
     public static final Collection<FileType> FILE_TYPES_WITH_IGNORED_SIZE_LIMIT =
         ImmutableList.of(GraphQLFileType.INSTANCE, JsonFileType.INSTANCE);
+
+    private static final Key<List<Injection>> INJECTIONS_KEY = Key.create("graphql.index.injections");
+
+    /**
+     * A GraphQL injection found in an indexed file, the injected text is parsed into a non-physical GraphQL file.
+     * The offsets in the injected file don't match the host file.
+     */
+    public static final class Injection {
+        private final PsiLanguageInjectionHost myHost;
+        private final PsiFile myInjectedFile;
+
+        Injection(@NotNull PsiLanguageInjectionHost host, @NotNull PsiFile injectedFile) {
+            myHost = host;
+            myInjectedFile = injectedFile;
+        }
+
+        @NotNull
+        public PsiLanguageInjectionHost getHost() {
+            return myHost;
+        }
+
+        @NotNull
+        public PsiFile getInjectedFile() {
+            return myInjectedFile;
+        }
+    }
+
+    /**
+     * Locates the GraphQL injection hosts of an indexed file and parses each injection once.
+     * <p>
+     * The file content is the same for all indexes of a file, so the result is stored in its user data
+     * and reused by the other GraphQL indexes instead of walking the file and parsing the injections again.
+     */
+    @NotNull
+    public static List<Injection> getInjections(@NotNull FileContent inputData) {
+        List<Injection> injections = inputData.getUserData(INJECTIONS_KEY);
+        if (injections == null) {
+            // the indexes of a file are computed on the same thread, so there's no need to synchronize
+            injections = collectInjections(inputData.getPsiFile());
+            inputData.putUserData(INJECTIONS_KEY, injections);
+        }
+        return injections;
+    }
+
+    @NotNull
+    private static List<Injection> collectInjections(@NotNull PsiFile psiFile) {
+        final GraphQLInjectionSearchHelper injectionSearchHelper = GraphQLInjectionSearchHelper.getInstance();
+        if (injectionSearchHelper == null || psiFile instanceof GraphQLFile || psiFile instanceof JsonFile) {
+            return Collections.emptyList();
+        }
+
+        final List<Injection> injections = new ArrayList<>();
+        final PsiFileFactory psiFileFactory = PsiFileFactory.getInstance(psiFile.getProject());
+        psiFile.accept(new PsiRecursiveElementVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (element instanceof PsiLanguageInjectionHost && injectionSearchHelper.isGraphQLLanguageInjectionTarget(element)) {
+                    final String graphqlBuffer = StringUtils.strip(element.getText(), "` \t\n");
+                    final PsiFile graphqlInjectedPsiFile = psiFileFactory.createFileFromText("", GraphQLFileType.INSTANCE, graphqlBuffer, 0, false, false);
+                    injections.add(new Injection((PsiLanguageInjectionHost) element, graphqlInjectedPsiFile));
+                    return;
+                }
+                super.visitElement(element);
+            }
+        });
+        return injections.isEmpty() ? Collections.emptyList() : injections;
+    }
+
+    /**
+     * @return the "__schema" object of an introspection result, with or without the "data" wrapper
+     */
+    @Nullable
+    static JsonObject findIntrospectionSchema(@NotNull JsonFile jsonFile) {
+        if (!(jsonFile.getTopLevelValue() instanceof JsonObject)) {
+            return null;
+        }
+        JsonObject root = (JsonObject) jsonFile.getTopLevelValue();
+        JsonProperty dataProperty = root.findProperty("data");
+        if (dataProperty != null && dataProperty.getValue() instanceof JsonObject) {
+            root = (JsonObject) dataProperty.getValue();
+        }
+        JsonProperty schemaProperty = root.findProperty("__schema");
+        return schemaProperty != null && schemaProperty.getValue() instanceof JsonObject ? (JsonObject) schemaProperty.getValue() : null;
+    }
+
+    @NotNull
+    static List<JsonObject> getArrayObjects(@NotNull JsonObject jsonObject, @NotNull String propertyName) {
+        JsonProperty property = jsonObject.findProperty(propertyName);
+        if (property == null || !(property.getValue() instanceof JsonArray)) {
+            return Collections.emptyList();
+        }
+        return ContainerUtil.filterIsInstance(((JsonArray) property.getValue()).getValueList(), JsonObject.class);
+    }
+
+    @Nullable
+    static String getStringProperty(@NotNull JsonObject jsonObject, @NotNull String propertyName) {
+        JsonProperty property = jsonObject.findProperty(propertyName);
+        return property != null && property.getValue() instanceof JsonStringLiteral ? ((JsonStringLiteral) property.getValue()).getValue() : null;
+    }
 }
@@ -8,13 +8,9 @@
 package com.intellij.lang.jsgraphql.ide.indexing.javascript;
 
 import com.intellij.lang.jsgraphql.GraphQLFileType;
-import com.intellij.lang.jsgraphql.ide.injection.javascript.GraphQLLanguageInjectionUtil;
 import com.intellij.lang.jsgraphql.ide.indexing.GraphQLIndexUtil;
 import com.intellij.lang.jsgraphql.ide.findUsages.GraphQLFindUsagesUtil;
 import com.intellij.openapi.fileTypes.FileType;
-import com.intellij.openapi.util.Ref;
-import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiRecursiveElementVisitor;
 import com.intellij.util.indexing.*;
 import com.intellij.util.io.EnumeratorStringDescriptor;
 import com.intellij.util.io.KeyDescriptor;
@@ -33,23 +29,11 @@ public class GraphQLInjectionIndex extends ScalarIndexExtension<String> {
     public static final String DATA_KEY = "true";
 
     private static final Map<String, Void> INJECTED_KEY = Collections.singletonMap(DATA_KEY, null);
-    public static final int VERSION = 3;
+    public static final int VERSION = 4;
 
-    private final DataIndexer<String, Void, FileContent> myDataIndexer = inputData -> {
-        final Ref<Boolean> isInjected = new Ref<>(Boolean.FALSE);
-        inputData.getPsiFile().accept(new PsiRecursiveElementVisitor() {
-            @Override
-            public void visitElement(@NotNull PsiElement element) {
-                if (GraphQLLanguageInjectionUtil.isGraphQLLanguageInjectionTarget(element)) {
-                    isInjected.set(Boolean.TRUE);
-                } else {
-                    // visit deeper until injection found
-                    super.visitElement(element);
-                }
-            }
-        });
-        return isInjected.get() == Boolean.FALSE ? Collections.emptyMap() : INJECTED_KEY;
-    };
+    // the injections are shared with the other GraphQL indexes of the file, so the file is walked only once
+    private final DataIndexer<String, Void, FileContent> myDataIndexer =
+        inputData -> GraphQLIndexUtil.getInjections(inputData).isEmpty() ? Collections.emptyMap() : INJECTED_KEY;
 
     private final Set<FileType> myIncludedFileTypes = GraphQLFindUsagesUtil.getService().getIncludedFileTypes();
 
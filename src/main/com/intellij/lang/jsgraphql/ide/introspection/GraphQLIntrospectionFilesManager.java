@@ -3,6 +3,8 @@ package com.intellij.lang.jsgraphql.ide.introspection;
 import com.intellij.lang.jsgraphql.GraphQLLanguage;
 import com.intellij.lang.jsgraphql.GraphQLSettings;
 import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.psi.GraphQLPsiUtil;
+import com.intellij.lang.jsgraphql.types.language.Document;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.project.Project;
@@ -11,6 +13,7 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiFileFactory;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.text.CharSequenceReader;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
@@ -24,6 +27,33 @@ public final class GraphQLIntrospectionFilesManager {
     private GraphQLIntrospectionFilesManager() {
     }
 
+    /**
+     * Reads the schema document of a JSON introspection file for the schema registry.
+     * <p>
+     * The JSON is streamed into the document, so it's not converted to SDL and parsed again,
+     * the SDL file is only created on demand by {@link #getOrCreateIntrospectionSDL} for the PSI based features.
+     */
+    public static @NotNull Document getOrCreateIntrospectionDocument(@NotNull PsiFile psiFile) {
+        return CachedValuesManager.getCachedValue(psiFile, GRAPHQL_INTROSPECTION_JSON_TO_DOCUMENT, () -> {
+            Project project = psiFile.getProject();
+            GraphQLSettings settings = GraphQLSettings.getSettings(project);
+
+            Document document = Document.newDocument().build();
+            try {
+                // the contents are already loaded for the PSI, so they're read without copying them into a string,
+                // the nodes refer to the JSON file like the ones of the SDL file do
+                document = new GraphQLIntrospectionResultToSchema(project, GraphQLPsiUtil.getFileName(psiFile)).createSchemaDefinition(
+                    new CharSequenceReader(psiFile.getViewProvider().getContents()), settings.isEnableIntrospectionDefaultValues());
+            } catch (ProcessCanceledException e) {
+                throw e;
+            } catch (Exception e) {
+                LOG.warn(e);
+            }
+
+            return CachedValueProvider.Result.create(document, psiFile, settings.getModificationTracker());
+        });
+    }
+
     public static @NotNull GraphQLFile getOrCreateIntrospectionSDL(@NotNull VirtualFile file, @NotNull PsiFile psiFile) {
         return CachedValuesManager.getCachedValue(psiFile, GRAPHQL_INTROSPECTION_JSON_TO_SDL, () -> {
             Project project = psiFile.getProject();
@@ -1,17 +1,27 @@
 package com.intellij.lang.jsgraphql.ide.introspection;
 
 import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.intellij.lang.jsgraphql.GraphQLBundle;
 import com.intellij.lang.jsgraphql.psi.GraphQLElementFactory;
 import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.schema.GraphQLKnownTypes;
 import com.intellij.lang.jsgraphql.types.language.*;
+import com.intellij.lang.jsgraphql.types.schema.idl.ScalarInfo;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -23,9 +33,19 @@ public class GraphQLIntrospectionResultToSchema {
     private static final Logger LOG = Logger.getInstance(GraphQLIntrospectionResultToSchema.class);
 
     private final Project myProject;
+    private final @Nullable SourceLocation mySourceLocation;
 
     public GraphQLIntrospectionResultToSchema(@NotNull Project project) {
+        this(project, null);
+    }
+
+    /**
+     * @param sourceName the path of the introspection file, set as the source name of the created nodes, so the schema errors
+     *                   and the schema definitions can be traced back to the file like the ones created from the SDL
+     */
+    public GraphQLIntrospectionResultToSchema(@NotNull Project project, @Nullable String sourceName) {
         myProject = project;
+        mySourceLocation = sourceName != null ? new SourceLocation(1, 1, sourceName) : null;
     }
 
     /**
@@ -39,39 +59,14 @@ public class GraphQLIntrospectionResultToSchema {
         assertTrue(introspectionResult.get("__schema") != null, () -> "__schema expected");
         Map<String, Object> schema = (Map<String, Object>) introspectionResult.get("__schema");
 
-        SchemaDefinition.Builder schemaDefinition = SchemaDefinition.newSchemaDefinition();
-
-        Map<String, Object> queryType = (Map<String, Object>) schema.get("queryType");
-        boolean nonDefaultQueryName = false;
-        if (queryType != null) {
-            TypeName query = TypeName.newTypeName().name((String) queryType.get("name")).build();
-            nonDefaultQueryName = !"Query".equals(query.getName());
-            schemaDefinition.operationTypeDefinition(
-                OperationTypeDefinition.newOperationTypeDefinition().name("query").typeName(query).build());
-        }
-
-        Map<String, Object> mutationType = (Map<String, Object>) schema.get("mutationType");
-        boolean nonDefaultMutationName = false;
-        if (mutationType != null) {
-            TypeName mutation = TypeName.newTypeName().name((String) mutationType.get("name")).build();
-            nonDefaultMutationName = !"Mutation".equals(mutation.getName());
-            schemaDefinition.operationTypeDefinition(
-                OperationTypeDefinition.newOperationTypeDefinition().name("mutation").typeName(mutation).build());
-        }
-
-        Map<String, Object> subscriptionType = (Map<String, Object>) schema.get("subscriptionType");
-        boolean nonDefaultSubscriptionName = false;
-        if (subscriptionType != null) {
-            TypeName subscription = TypeName.newTypeName().name(((String) subscriptionType.get("name"))).build();
-            nonDefaultSubscriptionName = !"Subscription".equals(subscription.getName());
-            schemaDefinition.operationTypeDefinition(
-                OperationTypeDefinition.newOperationTypeDefinition().name("subscription")
-                    .typeName(subscription).build());
-        }
-
         Document.Builder document = Document.newDocument();
-        if (nonDefaultQueryName || nonDefaultMutationName || nonDefaultSubscriptionName) {
-            document.definition(schemaDefinition.build());
+        SchemaDefinition schemaDefinition = createSchemaDefinition(
+            (Map<String, Object>) schema.get("queryType"),
+            (Map<String, Object>) schema.get("mutationType"),
+            (Map<String, Object>) schema.get("subscriptionType")
+        );
+        if (schemaDefinition != null) {
+            document.definition(schemaDefinition);
         }
 
         List<Map<String, Object>> types = (List<Map<String, Object>>) schema.get("types");
@@ -95,6 +90,163 @@ public class GraphQLIntrospectionResultToSchema {
         return document.build();
     }
 
+    /**
+     * Reads an introspection result, with or without the "data" wrapper, and returns the IDL Document of the schema.
+     * <p>
+     * Unlike {@link #createSchemaDefinition(Map)} the JSON is streamed, so only a single type is held as a map at a time.
+     * The introspection types, the specified scalars and the default directives are skipped, like when the schema is printed as SDL.
+     *
+     * @param reader               the introspection result JSON
+     * @param includeDefaultValues false to skip the default values of arguments and input fields, which are potentially non-spec compliant
+     * @return a IDL Document of the schema
+     */
+    @NotNull
+    public Document createSchemaDefinition(@NotNull Reader reader, boolean includeDefaultValues) throws IOException {
+        final TypeAdapter<Object> valueAdapter = new Gson().getAdapter(Object.class);
+        final JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+
+        final Document.Builder document = Document.newDocument();
+        final Map<String, Object> operationTypes = new HashMap<>();
+        boolean hasSchema = false;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+            if ("__schema".equals(name)) {
+                readSchema(jsonReader, valueAdapter, document, operationTypes, includeDefaultValues);
+                hasSchema = true;
+            } else if ("data".equals(name) && jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+                // a full query result
+                jsonReader.beginObject();
+                while (jsonReader.hasNext()) {
+                    if ("__schema".equals(jsonReader.nextName())) {
+                        readSchema(jsonReader, valueAdapter, document, operationTypes, includeDefaultValues);
+                        hasSchema = true;
+                    } else {
+                        jsonReader.skipValue();
+                    }
+                }
+                jsonReader.endObject();
+            } else if ("errors".equals(name)) {
+                final Object errors = valueAdapter.read(jsonReader);
+                if (errors instanceof List && !((List<?>) errors).isEmpty()) {
+                    throw new IllegalArgumentException(GraphQLBundle.message("graphql.introspection.errors", new Gson().toJson(errors)));
+                }
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+
+        if (!hasSchema) {
+            throw new IllegalArgumentException(GraphQLBundle.message("graphql.introspection.missing.schema"));
+        }
+
+        final SchemaDefinition schemaDefinition = createSchemaDefinition(
+            (Map<String, Object>) operationTypes.get("queryType"),
+            (Map<String, Object>) operationTypes.get("mutationType"),
+            (Map<String, Object>) operationTypes.get("subscriptionType")
+        );
+        if (schemaDefinition != null) {
+            document.definition(schemaDefinition);
+        }
+        return document.build();
+    }
+
+    private void readSchema(@NotNull JsonReader jsonReader,
+                            @NotNull TypeAdapter<Object> valueAdapter,
+                            @NotNull Document.Builder document,
+                            @NotNull Map<String, Object> operationTypes,
+                            boolean includeDefaultValues) throws IOException {
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+            switch (name) {
+                case "queryType":
+                case "mutationType":
+                case "subscriptionType":
+                    operationTypes.put(name, valueAdapter.read(jsonReader));
+                    break;
+                case "types":
+                case "directives":
+                    if (jsonReader.peek() != JsonToken.BEGIN_ARRAY) {
+                        jsonReader.skipValue();
+                        break;
+                    }
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        ProgressManager.checkCanceled();
+                        final Object value = valueAdapter.read(jsonReader);
+                        if (!(value instanceof Map)) continue;
+                        final Map<String, Object> definition = (Map<String, Object>) value;
+                        if (!includeDefaultValues) {
+                            removeDefaultValues(definition);
+                        }
+                        final String definitionName = (String) definition.get("name");
+                        if ("types".equals(name)) {
+                            if (definitionName == null || definitionName.startsWith("__") || ScalarInfo.isGraphqlSpecifiedScalar(definitionName)) {
+                                continue;
+                            }
+                            document.definition(createTypeDefinition(definition));
+                        } else if (definitionName != null && !GraphQLKnownTypes.DEFAULT_DIRECTIVES.contains(definitionName)) {
+                            document.definition(createDirectiveDefinition(definition));
+                        }
+                    }
+                    jsonReader.endArray();
+                    break;
+                default:
+                    jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+    }
+
+    private static void removeDefaultValues(@Nullable Object value) {
+        if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(GraphQLIntrospectionResultToSchema::removeDefaultValues);
+        } else if (value instanceof Map) {
+            ((Map<?, ?>) value).remove("defaultValue");
+            ((Map<?, ?>) value).values().forEach(GraphQLIntrospectionResultToSchema::removeDefaultValues);
+        }
+    }
+
+    /**
+     * @return the schema definition if any of the operation types has a non-default name, otherwise null
+     */
+    @Nullable
+    private SchemaDefinition createSchemaDefinition(@Nullable Map<String, Object> queryType,
+                                                    @Nullable Map<String, Object> mutationType,
+                                                    @Nullable Map<String, Object> subscriptionType) {
+        SchemaDefinition.Builder schemaDefinition = SchemaDefinition.newSchemaDefinition().sourceLocation(mySourceLocation);
+
+        boolean nonDefaultQueryName = false;
+        if (queryType != null) {
+            TypeName query = TypeName.newTypeName().name((String) queryType.get("name")).sourceLocation(mySourceLocation).build();
+            nonDefaultQueryName = !"Query".equals(query.getName());
+            schemaDefinition.operationTypeDefinition(
+                OperationTypeDefinition.newOperationTypeDefinition().name("query").typeName(query).sourceLocation(mySourceLocation).build());
+        }
+
+        boolean nonDefaultMutationName = false;
+        if (mutationType != null) {
+            TypeName mutation = TypeName.newTypeName().name((String) mutationType.get("name")).sourceLocation(mySourceLocation).build();
+            nonDefaultMutationName = !"Mutation".equals(mutation.getName());
+            schemaDefinition.operationTypeDefinition(
+                OperationTypeDefinition.newOperationTypeDefinition().name("mutation").typeName(mutation).sourceLocation(mySourceLocation).build());
+        }
+
+        boolean nonDefaultSubscriptionName = false;
+        if (subscriptionType != null) {
+            TypeName subscription = TypeName.newTypeName().name(((String) subscriptionType.get("name"))).sourceLocation(mySourceLocation).build();
+            nonDefaultSubscriptionName = !"Subscription".equals(subscription.getName());
+            schemaDefinition.operationTypeDefinition(
+                OperationTypeDefinition.newOperationTypeDefinition().name("subscription")
+                    .typeName(subscription).sourceLocation(mySourceLocation).build());
+        }
+
+        return nonDefaultQueryName || nonDefaultMutationName || nonDefaultSubscriptionName ? schemaDefinition.build() : null;
+    }
+
     @NotNull
     private TypeDefinition<?> createTypeDefinition(@NotNull Map<String, Object> type) {
         String kind = assertNotNull((String) type.get("kind"),
@@ -119,15 +271,19 @@ public class GraphQLIntrospectionResultToSchema {
     }
 
     @NotNull
-    private static TypeDefinition<?> createScalar(@NotNull Map<String, Object> input) {
+    private TypeDefinition<?> createScalar(@NotNull Map<String, Object> input) {
         String name = (String) input.get("name");
-        return ScalarTypeDefinition.newScalarTypeDefinition().name(name).description(getDescription(input)).build();
+        return ScalarTypeDefinition.newScalarTypeDefinition()
+            .name(name)
+            .description(getDescription(input))
+            .sourceLocation(mySourceLocation)
+            .build();
     }
 
 
     @SuppressWarnings("unchecked")
     @NotNull
-    static UnionTypeDefinition createUnion(@NotNull Map<String, Object> input) {
+    UnionTypeDefinition createUnion(@NotNull Map<String, Object> input) {
         assertTrue(Objects.equals(input.get("kind"), "UNION"), () -> "wrong input");
 
         final List<Map<String, Object>> possibleTypes = (List<Map<String, Object>>) input.get("possibleTypes");
@@ -135,7 +291,10 @@ public class GraphQLIntrospectionResultToSchema {
         if (possibleTypes != null) {
             for (Map<String, Object> possibleType : possibleTypes) {
                 if (possibleType == null) continue;
-                TypeName typeName = new TypeName((String) possibleType.get("name"));
+                TypeName typeName = TypeName.newTypeName()
+                    .name((String) possibleType.get("name"))
+                    .sourceLocation(mySourceLocation)
+                    .build();
                 memberTypes.add(typeName);
             }
         }
@@ -144,12 +303,13 @@ public class GraphQLIntrospectionResultToSchema {
             .name((String) input.get("name"))
             .description(getDescription(input))
             .memberTypes(memberTypes)
+            .sourceLocation(mySourceLocation)
             .build();
     }
 
     @SuppressWarnings("unchecked")
     @NotNull
-    static EnumTypeDefinition createEnum(@NotNull Map<String, Object> input) {
+    EnumTypeDefinition createEnum(@NotNull Map<String, Object> input) {
         assertTrue(Objects.equals(input.get("kind"), "ENUM"), () -> "wrong input");
 
         final List<Map<String, Object>> enumValues = (List<Map<String, Object>>) input.get("enumValues");
@@ -162,6 +322,7 @@ public class GraphQLIntrospectionResultToSchema {
                     .name((String) enumValue.get("name"))
                     .description(getDescription(enumValue))
                     .directives(createDeprecatedDirective(enumValue))
+                    .sourceLocation(mySourceLocation)
                     .build();
 
                 enumValueDefinitions.add(enumValueDefinition);
@@ -172,6 +333,7 @@ public class GraphQLIntrospectionResultToSchema {
             .name((String) input.get("name"))
             .description(getDescription(input))
             .enumValueDefinitions(enumValueDefinitions)
+            .sourceLocation(mySourceLocation)
             .build();
     }
 
@@ -186,6 +348,7 @@ public class GraphQLIntrospectionResultToSchema {
             .name((String) input.get("name"))
             .description(getDescription(input))
             .definitions(createFields(fields))
+            .sourceLocation(mySourceLocation)
             .build();
 
     }
@@ -200,6 +363,7 @@ public class GraphQLIntrospectionResultToSchema {
             .name((String) input.get("name"))
             .description(getDescription(input))
             .inputValueDefinitions(createInputValueDefinitions(fields))
+            .sourceLocation(mySourceLocation)
             .build();
     }
 
@@ -210,11 +374,12 @@ public class GraphQLIntrospectionResultToSchema {
 
         ObjectTypeDefinition.Builder builder = ObjectTypeDefinition.newObjectTypeDefinition()
             .name((String) input.get("name"))
-            .description(getDescription(input));
+            .description(getDescription(input))
+            .sourceLocation(mySourceLocation);
         if (input.containsKey("interfaces")) {
             builder.implementz(
                 ((List<Map<String, Object>>) input.get("interfaces")).stream()
-                    .map(GraphQLIntrospectionResultToSchema::createTypeReference)
+                    .map(this::createTypeReference)
                     .collect(Collectors.toList())
             );
         }
@@ -241,6 +406,7 @@ public class GraphQLIntrospectionResultToSchema {
                 .type(createTypeReference((Map<String, Object>) field.get("type")))
                 .inputValueDefinitions(inputValueDefinitions)
                 .directives(createDeprecatedDirective(field))
+                .sourceLocation(mySourceLocation)
                 .build();
             result.add(fieldDefinition);
         }
@@ -248,14 +414,22 @@ public class GraphQLIntrospectionResultToSchema {
     }
 
     @NotNull
-    private static List<Directive> createDeprecatedDirective(@NotNull Map<String, Object> field) {
+    private List<Directive> createDeprecatedDirective(@NotNull Map<String, Object> field) {
         if ((Boolean) field.get("isDeprecated")) {
             String reason = (String) field.get("deprecationReason");
             if (reason == null) {
                 reason = "No longer supported"; // default according to spec
             }
-            Argument reasonArg = new Argument("reason", new StringValue(reason));
-            return Collections.singletonList(new Directive("deprecated", Collections.singletonList(reasonArg)));
+            Argument reasonArg = Argument.newArgument()
+                .name("reason")
+                .value(StringValue.newStringValue().value(reason).sourceLocation(mySourceLocation).build())
+                .sourceLocation(mySourceLocation)
+                .build();
+            return Collections.singletonList(Directive.newDirective()
+                .name("deprecated")
+                .arguments(Collections.singletonList(reasonArg))
+                .sourceLocation(mySourceLocation)
+                .build());
         }
         return Collections.emptyList();
     }
@@ -277,6 +451,7 @@ public class GraphQLIntrospectionResultToSchema {
                 .type(argType)
                 .description(getDescription(arg))
                 .defaultValue(defaultValue)
+                .sourceLocation(mySourceLocation)
                 .build();
             result.add(inputValueDefinition);
         }
@@ -284,7 +459,7 @@ public class GraphQLIntrospectionResultToSchema {
     }
 
     @Nullable
-    private static Type createTypeReference(@Nullable Map<String, Object> type) {
+    private Type createTypeReference(@Nullable Map<String, Object> type) {
         if (type == null) return null;
 
         String kind = (String) type.get("kind");
@@ -295,21 +470,23 @@ public class GraphQLIntrospectionResultToSchema {
             case "ENUM":
             case "INPUT_OBJECT":
             case "SCALAR":
-                return TypeName.newTypeName().name((String) type.get("name")).build();
+                return TypeName.newTypeName().name((String) type.get("name")).sourceLocation(mySourceLocation).build();
             case "NON_NULL":
                 Type ofType = createTypeReference((Map<String, Object>) type.get("ofType"));
                 if (ofType == null) return null;
-                return NonNullType.newNonNullType().type(ofType).build();
+                return NonNullType.newNonNullType().type(ofType).sourceLocation(mySourceLocation).build();
             case "LIST":
                 return ListType.newListType()
-                    .type(createTypeReference((Map<String, Object>) type.get("ofType"))).build();
+                    .type(createTypeReference((Map<String, Object>) type.get("ofType")))
+                    .sourceLocation(mySourceLocation)
+                    .build();
             default:
                 return assertShouldNeverHappen("Unknown kind %s", kind);
         }
     }
 
     @Nullable
-    private static Description getDescription(@Nullable Map<String, Object> descriptionAware) {
+    private Description getDescription(@Nullable Map<String, Object> descriptionAware) {
         if (descriptionAware == null) return null;
 
         final Object rawDescription = descriptionAware.get("description");
@@ -321,7 +498,7 @@ public class GraphQLIntrospectionResultToSchema {
                     // ensures the description stands on separate lines from the triple quotes
                     description = "\n" + description.trim() + "\n";
                 }
-                return new Description(description, new SourceLocation(1, 1), multiLine);
+                return new Description(description, mySourceLocation != null ? mySourceLocation : new SourceLocation(1, 1), multiLine);
             }
         }
         return null;
@@ -338,6 +515,7 @@ public class GraphQLIntrospectionResultToSchema {
             .directiveLocations(createDirectiveLocations((List<String>) definition.get("locations")))
             .inputValueDefinitions(inputValueDefinitions)
             .repeatable(isRepeatable(definition))
+            .sourceLocation(mySourceLocation)
             .build();
     }
 
@@ -347,10 +525,12 @@ public class GraphQLIntrospectionResultToSchema {
     }
 
     @NotNull
-    private static List<DirectiveLocation> createDirectiveLocations(@NotNull List<String> locations) {
+    private List<DirectiveLocation> createDirectiveLocations(@NotNull List<String> locations) {
         return ContainerUtil.mapNotNull(
             locations,
-            location -> location != null ? DirectiveLocation.newDirectiveLocation().name(location).build() : null);
+            location -> location != null
+                ? DirectiveLocation.newDirectiveLocation().name(location).sourceLocation(mySourceLocation).build()
+                : null);
     }
 
     @Nullable
@@ -7,6 +7,7 @@
  */
 package com.intellij.lang.jsgraphql.ide.introspection;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.intellij.ide.actions.CreateFileAction;
@@ -35,6 +36,7 @@ import com.intellij.openapi.Disposable;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
@@ -46,6 +48,7 @@ import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.util.ThrowableComputable;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.registry.Registry;
 import com.intellij.openapi.util.text.StringUtil;
@@ -60,15 +63,19 @@ import com.intellij.util.Consumer;
 import com.intellij.util.ExceptionUtil;
 import com.intellij.util.ObjectUtils;
 import com.intellij.util.concurrency.annotations.RequiresWriteLock;
+import com.intellij.util.io.DigestUtil;
 import com.intellij.util.messages.MessageBusConnection;
 import com.intellij.util.net.IdeHttpClientHelpers;
 import com.intellij.util.net.ssl.CertificateManager;
 import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.util.PublicSuffixMatcherLoader;
@@ -81,12 +88,17 @@ import org.jetbrains.annotations.Nullable;
 
 import javax.net.ssl.HostnameVerifier;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.cert.CertificateException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static com.intellij.lang.jsgraphql.ide.project.GraphQLUIProjectService.setHeadersFromOptions;
 
@@ -96,9 +108,16 @@ public class GraphQLIntrospectionService implements Disposable {
     private static final String DISABLE_EMPTY_ERRORS_WARNING_KEY = "graphql.empty.errors.warning.disabled";
     public static final String GRAPHQL_TRUST_ALL_HOSTS = "graphql.trust.all.hosts";
 
+    private static final String GRAPHQL_INTROSPECTION_PARALLELISM_KEY = "graphql.introspection.parallelism";
+
     private GraphQLIntrospectionTask latestIntrospection = null;
     private final Project myProject;
 
+    // the clients keep their connections alive, so the subsequent introspections of an endpoint reuse them
+    private final Map<String, CloseableHttpClient> myIntrospectionHttpClients = new ConcurrentHashMap<>();
+    private final Map<String, IntrospectionState> myIntrospectionStates = new ConcurrentHashMap<>();
+    private final Semaphore myIntrospectionPermits = new Semaphore(Math.max(1, Registry.intValue(GRAPHQL_INTROSPECTION_PARALLELISM_KEY, 4)));
+
     public static GraphQLIntrospectionService getInstance(@NotNull Project project) {
         return ServiceManager.getService(project, GraphQLIntrospectionService.class);
     }
@@ -107,7 +126,11 @@ public class GraphQLIntrospectionService implements Disposable {
         myProject = project;
 
         MessageBusConnection connection = project.getMessageBus().connect(this);
-        connection.subscribe(GraphQLConfigManager.TOPIC, () -> latestIntrospection = null);
+        connection.subscribe(GraphQLConfigManager.TOPIC, () -> {
+            latestIntrospection = null;
+            // the SSL configuration of the endpoints may have changed
+            closeIntrospectionHttpClients();
+        });
     }
 
     public void performIntrospectionQueryAndUpdateSchemaPathFile(Project project, GraphQLConfigEndpoint endpoint) {
@@ -241,6 +264,223 @@ public class GraphQLIntrospectionService implements Disposable {
         return builder.build();
     }
 
+    /**
+     * Gets the client used for the introspection of an endpoint, the client is reused until the configuration changes.
+     * <p>
+     * The clients created by {@link HttpClientBuilder} negotiate gzip and deflate compressed responses and pool their connections.
+     */
+    @NotNull
+    private CloseableHttpClient getIntrospectionHttpClient(@NotNull String url,
+                                                           @Nullable GraphQLConfigSecurity sslConfig,
+                                                           @NotNull VirtualFile introspectionSourceFile)
+        throws GeneralSecurityException, IOException {
+        String key = url + "|" + introspectionSourceFile.getPath() + "|" + PropertiesComponent.getInstance(myProject).isTrueValue(GRAPHQL_TRUST_ALL_HOSTS);
+        CloseableHttpClient httpClient = myIntrospectionHttpClients.get(key);
+        if (httpClient == null) {
+            CloseableHttpClient newHttpClient = createHttpClient(url, sslConfig);
+            httpClient = myIntrospectionHttpClients.putIfAbsent(key, newHttpClient);
+            if (httpClient == null) {
+                httpClient = newHttpClient;
+            } else {
+                closeHttpClient(newHttpClient);
+            }
+        }
+        return httpClient;
+    }
+
+    private void closeIntrospectionHttpClients() {
+        for (String key : myIntrospectionHttpClients.keySet()) {
+            CloseableHttpClient httpClient = myIntrospectionHttpClients.remove(key);
+            if (httpClient != null) {
+                closeHttpClient(httpClient);
+            }
+        }
+    }
+
+    private static void closeHttpClient(@NotNull CloseableHttpClient httpClient) {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOG.warn(e);
+        }
+    }
+
+    /**
+     * Executes an introspection request, which is conditional if the previous response of the endpoint had an ETag.
+     *
+     * @param eTag the ETag of the previous response, sent as "If-None-Match"
+     * @return the response, which has no body if the schema isn't modified since the previous response
+     */
+    @VisibleForTesting
+    @NotNull
+    public static IntrospectionResponse executeIntrospectionRequest(@NotNull CloseableHttpClient httpClient,
+                                                                    @NotNull HttpPost request,
+                                                                    @Nullable String eTag) throws IOException {
+        if (eTag != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        } else {
+            request.removeHeaders(HttpHeaders.IF_NONE_MATCH);
+        }
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                EntityUtils.consume(entity);
+                return new IntrospectionResponse(null, eTag);
+            }
+            Header eTagHeader = response.getFirstHeader(HttpHeaders.ETAG);
+            String body = entity != null ? ObjectUtils.coalesce(EntityUtils.toString(entity), "") : "";
+            return new IntrospectionResponse(body, eTagHeader != null ? eTagHeader.getValue() : null);
+        }
+    }
+
+    public static final class IntrospectionResponse {
+        private final String myBody;
+        private final String myETag;
+
+        IntrospectionResponse(@Nullable String body, @Nullable String eTag) {
+            myBody = body;
+            myETag = eTag;
+        }
+
+        /**
+         * @return the response JSON, or null if the schema isn't modified
+         */
+        @Nullable
+        public String getBody() {
+            return myBody;
+        }
+
+        @Nullable
+        public String getETag() {
+            return myETag;
+        }
+
+        public boolean isNotModified() {
+            return myBody == null;
+        }
+    }
+
+    /**
+     * The last introspection result written to a schema file, used to skip rewriting the file if the schema is unchanged
+     */
+    private static final class IntrospectionState {
+        private final String eTag;
+        private final String schemaHash;
+        private final String outputHash;
+
+        private IntrospectionState(@Nullable String eTag, @NotNull String schemaHash, @NotNull String outputHash) {
+            this.eTag = eTag;
+            this.schemaHash = schemaHash;
+            this.outputHash = outputHash;
+        }
+    }
+
+    @NotNull
+    private static String hash(@NotNull CharSequence text) {
+        return DigestUtil.sha256Hex(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nullable
+    private static VirtualFile findOutputFile(@NotNull VirtualFile introspectionSourceFile, @NotNull String schemaPath) {
+        VirtualFile parent = introspectionSourceFile.getParent();
+        return parent != null ? parent.findFileByRelativePath(FileUtil.toSystemIndependentName(schemaPath)) : null;
+    }
+
+    /**
+     * @return the state of the last introspection written to the schema file, or null if there's none or the file was changed since
+     */
+    @Nullable
+    private IntrospectionState getUnchangedOutputState(@NotNull String stateKey,
+                                                       @NotNull VirtualFile introspectionSourceFile,
+                                                       @NotNull String schemaPath) {
+        IntrospectionState state = myIntrospectionStates.get(stateKey);
+        if (state == null) {
+            return null;
+        }
+        return ReadAction.compute(() -> {
+            VirtualFile outputFile = findOutputFile(introspectionSourceFile, schemaPath);
+            com.intellij.openapi.editor.Document document = outputFile != null ? FileDocumentManager.getInstance().getDocument(outputFile) : null;
+            return document != null && hash(document.getImmutableCharSequence()).equals(state.outputHash) ? state : null;
+        });
+    }
+
+    private void rememberOutputState(@NotNull String stateKey,
+                                     @NotNull VirtualFile introspectionSourceFile,
+                                     @NotNull String schemaPath,
+                                     @NotNull String schemaHash,
+                                     @Nullable String eTag) {
+        VirtualFile outputFile = findOutputFile(introspectionSourceFile, schemaPath);
+        com.intellij.openapi.editor.Document document = outputFile != null ? FileDocumentManager.getInstance().getDocument(outputFile) : null;
+        if (document != null) {
+            myIntrospectionStates.put(stateKey, new IntrospectionState(eTag, schemaHash, hash(document.getImmutableCharSequence())));
+        } else {
+            myIntrospectionStates.remove(stateKey);
+        }
+    }
+
+    /**
+     * Writes the introspected schema to the schema file, unless the file still contains the same schema written by the previous
+     * introspection of the endpoint. The file is always rewritten after a local change, so the edits aren't hidden.
+     *
+     * @return false if the file already contains the schema
+     */
+    @VisibleForTesting
+    public boolean updateIntrospectionOutputFile(@NotNull String url,
+                                                 @NotNull String schemaText,
+                                                 @NotNull VirtualFile introspectionSourceFile,
+                                                 @NotNull String schemaPath,
+                                                 @Nullable String eTag) {
+        String stateKey = getIntrospectionStateKey(url, introspectionSourceFile, schemaPath);
+        IntrospectionState previousState = getUnchangedOutputState(stateKey, introspectionSourceFile, schemaPath);
+        String schemaHash = hash(schemaText);
+        if (previousState != null && previousState.schemaHash.equals(schemaHash)) {
+            myIntrospectionStates.put(stateKey, new IntrospectionState(eTag, schemaHash, previousState.outputHash));
+            return false;
+        }
+
+        createOrUpdateIntrospectionOutputFile(schemaText, getOutputFormat(schemaPath), introspectionSourceFile, schemaPath);
+        rememberOutputState(stateKey, introspectionSourceFile, schemaPath, schemaHash, eTag);
+        return true;
+    }
+
+    /**
+     * Runs an introspection request once one of the permits limiting the concurrent introspections is acquired.
+     */
+    @VisibleForTesting
+    public <T, E extends Exception> T runWithIntrospectionPermit(@NotNull ProgressIndicator indicator,
+                                                                  @NotNull ThrowableComputable<T, E> request)
+        throws E, InterruptedException {
+        while (!myIntrospectionPermits.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+            indicator.checkCanceled();
+        }
+        try {
+            return request.compute();
+        } finally {
+            myIntrospectionPermits.release();
+        }
+    }
+
+    @NotNull
+    private static String getIntrospectionStateKey(@NotNull String url,
+                                                   @NotNull VirtualFile introspectionSourceFile,
+                                                   @NotNull String schemaPath) {
+        return url + "|" + introspectionSourceFile.getPath() + "|" + schemaPath;
+    }
+
+    @NotNull
+    private static IntrospectionOutputFormat getOutputFormat(@NotNull String schemaPath) {
+        return schemaPath.endsWith(".json") ? IntrospectionOutputFormat.JSON : IntrospectionOutputFormat.SDL;
+    }
+
+    private void showSchemaUnchangedNotification(@NotNull String url) {
+        Notifications.Bus.notify(new Notification(
+            GraphQLNotificationUtil.NOTIFICATION_GROUP_ID,
+            GraphQLBundle.message("graphql.notification.introspection.error.title"),
+            GraphQLBundle.message("graphql.notification.introspection.unchanged", url),
+            NotificationType.INFORMATION
+        ), myProject);
+    }
+
     private @NotNull RequestConfig createRequestConfig(@NotNull String url) {
         RequestConfig.Builder builder = RequestConfig.custom()
             .setConnectTimeout(Registry.intValue("graphql.request.connect.timeout", 5000))
@@ -517,10 +757,11 @@ public class GraphQLIntrospectionService implements Disposable {
 
     @Override
     public void dispose() {
+        closeIntrospectionHttpClients();
     }
 
     private class IntrospectionQueryTask extends Task.Backgroundable {
-        private final HttpUriRequest request;
+        private final HttpPost request;
         private final String schemaPath;
         private final VirtualFile introspectionSourceFile;
         private final NotificationAction retry;
@@ -528,7 +769,7 @@ public class GraphQLIntrospectionService implements Disposable {
         private final GraphQLConfigVariableAwareEndpoint endpoint;
         private final String url;
 
-        public IntrospectionQueryTask(@NotNull HttpUriRequest request,
+        public IntrospectionQueryTask(@NotNull HttpPost request,
                                       @NotNull String schemaPath,
                                       @NotNull VirtualFile introspectionSourceFile,
                                       @NotNull NotificationAction retry,
@@ -548,15 +789,29 @@ public class GraphQLIntrospectionService implements Disposable {
         @Override
         public void run(@NotNull ProgressIndicator indicator) {
             indicator.setIndeterminate(true);
-            String responseJson;
+            final String stateKey = getIntrospectionStateKey(url, introspectionSourceFile, schemaPath);
+            final IntrospectionState previousState = getUnchangedOutputState(stateKey, introspectionSourceFile, schemaPath);
+
+            IntrospectionResponse response;
             GraphQLConfigSecurity sslConfig = getSecurityConfig(introspectionSourceFile);
-            try (final CloseableHttpClient httpClient = createHttpClient(url, sslConfig);
-                 final CloseableHttpResponse response = httpClient.execute(request)) {
-                responseJson = ObjectUtils.coalesce(EntityUtils.toString(response.getEntity()), "");
+            try {
+                CloseableHttpClient httpClient = getIntrospectionHttpClient(url, sslConfig, introspectionSourceFile);
+                String eTag = previousState != null ? previousState.eTag : null;
+                // limits the number of concurrent introspections, e.g. when several endpoints are introspected at once
+                response = runWithIntrospectionPermit(indicator, () -> executeIntrospectionRequest(httpClient, request, eTag));
             } catch (IOException | GeneralSecurityException e) {
                 GraphQLNotificationUtil.showGraphQLRequestErrorNotification(myProject, url, e, NotificationType.WARNING, retry);
                 return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (response.isNotModified()) {
+                showSchemaUnchangedNotification(url);
+                return;
             }
+            String responseJson = Objects.requireNonNull(response.getBody());
 
             Map<String, Object> introspection;
             try {
@@ -569,7 +824,7 @@ public class GraphQLIntrospectionService implements Disposable {
                 return;
             }
 
-            IntrospectionOutputFormat format = schemaPath.endsWith(".json") ? IntrospectionOutputFormat.JSON : IntrospectionOutputFormat.SDL;
+            IntrospectionOutputFormat format = getOutputFormat(schemaPath);
             String schemaText;
             try {
                 // always try to print the schema to validate it since that will be done in schema discovery of the JSON anyway
@@ -584,7 +839,9 @@ public class GraphQLIntrospectionService implements Disposable {
 
             ApplicationManager.getApplication().invokeLater(() -> {
                 try {
-                    createOrUpdateIntrospectionOutputFile(schemaText, format, introspectionSourceFile, schemaPath);
+                    if (!updateIntrospectionOutputFile(url, schemaText, introspectionSourceFile, schemaPath, response.getETag())) {
+                        showSchemaUnchangedNotification(url);
+                    }
                 } catch (ProcessCanceledException exception) {
                     throw exception;
                 } catch (Exception e) {
@@ -0,0 +1,216 @@
+package com.intellij.lang.jsgraphql.ide.project;
+
+import com.google.common.io.CountingInputStream;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.text.CharSequenceReader;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The response of a query executed from the editor, prepared for the query result editor.
+ * <p>
+ * The response body is read incrementally and pretty-printed with a streaming JSON writer in the background,
+ * so large responses aren't parsed into a JSON tree or PSI, and the EDT only has to load the resulting text.
+ */
+final class GraphQLQueryResponse {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final String INDENT = "  ";
+
+    private final String myText;
+    private final long mySize;
+    private final Integer myErrorCount;
+    private final long myDownloadMillis;
+    private final long myFormatMillis;
+
+    private GraphQLQueryResponse(@NotNull String text,
+                                 long size,
+                                 @Nullable Integer errorCount,
+                                 long downloadMillis,
+                                 long formatMillis) {
+        myText = text;
+        mySize = size;
+        myErrorCount = errorCount;
+        myDownloadMillis = downloadMillis;
+        myFormatMillis = formatMillis;
+    }
+
+    /**
+     * Reads the response body, the progress is checked for cancellation between the read chunks.
+     *
+     * @param prettyPrint whether to format the JSON response, the errors are counted either way
+     */
+    @NotNull
+    static GraphQLQueryResponse read(@Nullable HttpEntity entity, boolean prettyPrint) throws IOException {
+        long start = System.nanoTime();
+        StringBuilder text = new StringBuilder();
+        long size = 0;
+        if (entity != null) {
+            Charset charset = ContentType.getOrDefault(entity).getCharset();
+            try (CountingInputStream stream = new CountingInputStream(entity.getContent());
+                 Reader reader = new InputStreamReader(stream, charset != null ? charset : StandardCharsets.UTF_8)) {
+                char[] buffer = new char[BUFFER_SIZE];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    ProgressManager.checkCanceled();
+                    text.append(buffer, 0, read);
+                }
+                size = stream.getCount();
+            }
+        }
+        return format(text, size, prettyPrint, toMillis(System.nanoTime() - start));
+    }
+
+    @NotNull
+    static GraphQLQueryResponse fromText(@NotNull String text, boolean prettyPrint) {
+        return format(text, text.length(), prettyPrint, 0);
+    }
+
+    @NotNull
+    private static GraphQLQueryResponse format(@NotNull CharSequence text, long size, boolean prettyPrint, long downloadMillis) {
+        long start = System.nanoTime();
+        StringWriter formatted = new StringWriter(text.length() + text.length() / 2);
+        Integer errorCount;
+        try {
+            errorCount = copyJson(text, formatted);
+        } catch (IOException | IllegalStateException e) {
+            // not a JSON response, e.g. an error page of a proxy
+            errorCount = null;
+            prettyPrint = false;
+        }
+        String resultText = prettyPrint ? formatted.toString() : StringUtil.convertLineSeparators(text.toString());
+        return new GraphQLQueryResponse(resultText, size, errorCount, downloadMillis, toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Copies the JSON token by token and counts the elements of the top-level "errors" array on the way.
+     *
+     * @return the number of errors, or null if the response isn't a JSON object
+     */
+    @Nullable
+    private static Integer copyJson(@NotNull CharSequence text, @NotNull Writer output) throws IOException {
+        JsonReader reader = new JsonReader(new CharSequenceReader(text));
+        JsonWriter writer = new JsonWriter(output);
+        writer.setIndent(INDENT);
+        writer.setSerializeNulls(true);
+
+        boolean rootObject = false;
+        boolean errorsProperty = false;
+        int errorsDepth = -1;
+        int errorCount = 0;
+        int depth = 0;
+        do {
+            JsonToken token = reader.peek();
+            if (depth == errorsDepth && token != JsonToken.END_ARRAY) {
+                errorCount++;
+            }
+            switch (token) {
+                case BEGIN_ARRAY:
+                    ProgressManager.checkCanceled();
+                    reader.beginArray();
+                    writer.beginArray();
+                    if (errorsProperty) {
+                        errorsDepth = depth + 1;
+                    }
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    reader.endArray();
+                    writer.endArray();
+                    if (depth == errorsDepth) {
+                        errorsDepth = -1;
+                    }
+                    depth--;
+                    break;
+                case BEGIN_OBJECT:
+                    ProgressManager.checkCanceled();
+                    rootObject |= depth == 0;
+                    reader.beginObject();
+                    writer.beginObject();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    reader.endObject();
+                    writer.endObject();
+                    depth--;
+                    break;
+                case NAME:
+                    String name = reader.nextName();
+                    writer.name(name);
+                    errorsProperty = depth == 1 && "errors".equals(name);
+                    // the property value is the next token
+                    continue;
+                case STRING:
+                    writer.value(reader.nextString());
+                    break;
+                case NUMBER:
+                    // keeps the number literal as is, e.g. long ids and decimals
+                    writer.jsonValue(reader.nextString());
+                    break;
+                case BOOLEAN:
+                    writer.value(reader.nextBoolean());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    writer.nullValue();
+                    break;
+                case END_DOCUMENT:
+                    throw new EOFException("Unexpected end of the JSON response");
+            }
+            errorsProperty = false;
+        } while (depth > 0);
+
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new MalformedJsonException("Unexpected content after the JSON response");
+        }
+        writer.flush();
+        return rootObject ? errorCount : null;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * The text for the result editor, with "\n" line separators
+     */
+    @NotNull
+    String getText() {
+        return myText;
+    }
+
+    /**
+     * The size of the response body in bytes, after the transfer encoding is decoded
+     */
+    long getSize() {
+        return mySize;
+    }
+
+    /**
+     * The number of errors in the response, or null if the response isn't a JSON object
+     */
+    @Nullable
+    Integer getErrorCount() {
+        return myErrorCount;
+    }
+
+    long getDownloadMillis() {
+        return myDownloadMillis;
+    }
+
+    long getFormatMillis() {
+        return myFormatMillis;
+    }
+}
@@ -51,12 +51,9 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.ComboBox;
 import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.util.Key;
-import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.util.registry.Registry;
 import com.intellij.openapi.vcs.CodeSmellDetector;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiFileFactory;
-import com.intellij.psi.impl.source.codeStyle.CodeStyleManagerImpl;
 import com.intellij.testFramework.LightVirtualFile;
 import com.intellij.ui.*;
 import com.intellij.ui.components.JBLabel;
@@ -71,7 +68,6 @@ import org.apache.http.HttpRequest;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -80,6 +76,7 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class GraphQLUIProjectService implements Disposable, FileEditorManagerListener, GraphQLConfigurationListener {
@@ -105,8 +102,11 @@ public class GraphQLUIProjectService implements Disposable, FileEditorManagerLis
 
     public final static Key<Boolean> GRAPH_QL_EDITOR_QUERYING = Key.create("JSGraphQLEditorQuerying");
 
+    private static final String GRAPHQL_QUERY_RESULT_CHUNK_SIZE_KEY = "graphql.query.result.chunk.size";
+
     private static final int UPDATE_MS = 500;
     private final Alarm myUpdateUIAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, this);
+    private final AtomicInteger myQueryResultRevision = new AtomicInteger();
 
     @NotNull
     private final Project myProject;
@@ -343,7 +343,7 @@ public class GraphQLUIProjectService implements Disposable, FileEditorManagerLis
                 try {
                     final HttpPost request = GraphQLIntrospectionService.createRequest(endpoint, url, requestJson);
                     //noinspection DialogTitleCapitalization
-                    final Task.Backgroundable task = new Task.Backgroundable(myProject, "Executing GraphQL", false) {
+                    final Task.Backgroundable task = new Task.Backgroundable(myProject, "Executing GraphQL", true) {
                         @Override
                         public void run(@NotNull ProgressIndicator indicator) {
                             indicator.setIndeterminate(true);
@@ -367,31 +367,33 @@ public class GraphQLUIProjectService implements Disposable, FileEditorManagerLis
             try (final CloseableHttpClient httpClient = introspectionService.createHttpClient(url, sslConfig)) {
                 editor.putUserData(GRAPH_QL_EDITOR_QUERYING, true);
 
-                String responseJson;
-                Header contentType;
+                GraphQLQueryResponse queryResponse;
                 StopWatch sw = new StopWatch();
                 sw.start();
                 try (final CloseableHttpResponse response = httpClient.execute(request)) {
-                    responseJson = StringUtil.notNullize(EntityUtils.toString(response.getEntity()));
-                    contentType = response.getFirstHeader("Content-Type");
-                } finally {
                     sw.stop();
+                    final Header contentType = response.getFirstHeader("Content-Type");
+                    final boolean reformatJson = contentType != null && contentType.getValue() != null && contentType.getValue().startsWith("application/json");
+                    queryResponse = GraphQLQueryResponse.read(response.getEntity(), reformatJson);
                 }
 
-                final boolean reformatJson = contentType != null && contentType.getValue() != null && contentType.getValue().startsWith("application/json");
-                final Integer errorCount = getErrorCount(responseJson);
+                final Integer errorCount = queryResponse.getErrorCount();
                 ApplicationManager.getApplication().invokeLater(() -> {
                     TextEditor queryResultEditor = GraphQLToolWindow.getQueryResultEditor(myProject);
                     if (queryResultEditor == null) {
                         return;
                     }
 
-                    updateQueryResultEditor(responseJson, queryResultEditor, reformatJson);
+                    updateQueryResultEditor(queryResponse.getText(), queryResultEditor);
                     final StringBuilder queryResultText = new StringBuilder(virtualFile.getName()).
                         append(": ").
                         append(sw.getTime()).
                         append(" ms execution time, ").
-                        append(bytesToDisplayString(responseJson.length())).
+                        append(queryResponse.getDownloadMillis()).
+                        append(" ms download, ").
+                        append(queryResponse.getFormatMillis()).
+                        append(" ms formatting, ").
+                        append(bytesToDisplayString(queryResponse.getSize())).
                         append(" response");
 
                     if (errorCount != null && errorCount > 0) {
@@ -435,31 +437,55 @@ public class GraphQLUIProjectService implements Disposable, FileEditorManagerLis
     }
 
     public void showQueryResult(@NotNull String jsonResponse) {
-        ApplicationManager.getApplication().invokeLater(() -> {
-            TextEditor textEditor = GraphQLToolWindow.getQueryResultEditor(myProject);
-            if (textEditor == null) return;
-
-            updateQueryResultEditor(jsonResponse, textEditor, true);
-            GraphQLToolWindow.showQueryResultEditor(myProject);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            final String text = GraphQLQueryResponse.fromText(jsonResponse, true).getText();
+            ApplicationManager.getApplication().invokeLater(() -> {
+                TextEditor textEditor = GraphQLToolWindow.getQueryResultEditor(myProject);
+                if (textEditor == null) return;
+
+                updateQueryResultEditor(text, textEditor);
+                GraphQLToolWindow.showQueryResultEditor(myProject);
+            }, myProject.getDisposed());
         });
     }
 
-    private void updateQueryResultEditor(final String responseJson, TextEditor textEditor, boolean reformatJson) {
-        ApplicationManager.getApplication().runWriteAction(() -> {
-            String documentJson = StringUtil.convertLineSeparators(responseJson);
-            if (reformatJson) {
-                final PsiFileFactory psiFileFactory = PsiFileFactory.getInstance(myProject);
-                final PsiFile jsonPsiFile = psiFileFactory.createFileFromText("", JsonFileType.INSTANCE, documentJson);
-                CodeStyleManagerImpl.getInstance(myProject).reformat(jsonPsiFile);
-                final Document document = jsonPsiFile.getViewProvider().getDocument();
-                if (document != null) {
-                    documentJson = document.getText();
-                }
+    /**
+     * Replaces the query result with the formatted response text.
+     * <p>
+     * Large results are appended in chunks of whole lines, with an EDT event per chunk,
+     * so the IDE stays responsive while the editor loads the result.
+     * A chunk of an outdated result is skipped once the next result arrives.
+     */
+    private void updateQueryResultEditor(@NotNull String text, @NotNull TextEditor textEditor) {
+        final int revision = myQueryResultRevision.incrementAndGet();
+        final Document document = textEditor.getEditor().getDocument();
+        final int chunkSize = Math.max(1, Registry.intValue(GRAPHQL_QUERY_RESULT_CHUNK_SIZE_KEY, 1_000_000));
+        final int end = getQueryResultChunkEnd(text, 0, chunkSize);
+        ApplicationManager.getApplication().runWriteAction(() -> document.setText(text.substring(0, end)));
+        if (end < text.length()) {
+            appendQueryResultChunk(document, text, end, chunkSize, revision);
+        }
+    }
+
+    private void appendQueryResultChunk(@NotNull Document document, @NotNull String text, int start, int chunkSize, int revision) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (revision != myQueryResultRevision.get()) return;
+
+            final int end = getQueryResultChunkEnd(text, start, chunkSize);
+            ApplicationManager.getApplication().runWriteAction(
+                () -> document.insertString(document.getTextLength(), text.substring(start, end)));
+            if (end < text.length()) {
+                appendQueryResultChunk(document, text, end, chunkSize, revision);
             }
+        }, myProject.getDisposed());
+    }
 
-            final Document document = textEditor.getEditor().getDocument();
-            document.setText(documentJson);
-        });
+    private static int getQueryResultChunkEnd(@NotNull String text, int start, int chunkSize) {
+        if (text.length() - start <= chunkSize) {
+            return text.length();
+        }
+        final int lineEnd = text.lastIndexOf('\n', start + chunkSize);
+        return lineEnd > start ? lineEnd + 1 : start + chunkSize;
     }
 
     @NotNull
@@ -482,21 +508,6 @@ public class GraphQLUIProjectService implements Disposable, FileEditorManagerLis
             .create();
     }
 
-    private Integer getErrorCount(String responseJson) {
-        try {
-            final Map res = new Gson().fromJson(responseJson, Map.class);
-            if (res != null) {
-                final Object errors = res.get("errors");
-                if (errors instanceof Collection) {
-                    return ((Collection) errors).size();
-                }
-                return 0;
-            }
-        } catch (JsonSyntaxException ignored) {
-        }
-        return null;
-    }
-
     private Object getQueryVariables(Editor editor) {
         final Editor variablesEditor = editor.getUserData(GRAPH_QL_VARIABLES_EDITOR);
         if (variablesEditor != null) {
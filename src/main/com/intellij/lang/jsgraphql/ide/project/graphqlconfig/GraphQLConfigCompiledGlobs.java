@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018-present, Jim Kynde Meyer
+ * All rights reserved.
+ * <p>
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.intellij.lang.jsgraphql.ide.project.graphqlconfig;
+
+import com.intellij.util.containers.ContainerUtil;
+import minimatch.Minimatch;
+import minimatch.Options;
+import org.apache.commons.lang.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A set of graphql-config globs which are parsed once, so a file path can be matched without compiling the globs again.
+ * <p>
+ * Globs without any special characters are compared as strings, and globs which start with literal directories are only
+ * evaluated for paths inside those directories. The remaining globs are matched by minimatch to keep the graphql-config semantics.
+ */
+final class GraphQLConfigCompiledGlobs implements Predicate<String> {
+
+    /**
+     * Globs without slashes match the file name in any directory, like graphql-config does
+     */
+    static final Options OPTIONS = new Options().setMatchBase(true);
+
+    // characters which need minimatch, including negation, comments, braces, extglobs and escapes
+    private static final String MAGIC_CHARS = "*?[]{}()!+@#\\";
+
+    private final List<CompiledGlob> myGlobs;
+
+    GraphQLConfigCompiledGlobs(@NotNull Collection<String> globs) {
+        myGlobs = ContainerUtil.map(globs, CompiledGlob::new);
+    }
+
+    @Override
+    public boolean test(String filePath) {
+        for (CompiledGlob glob : myGlobs) {
+            if (glob.matches(filePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class CompiledGlob {
+
+        private final String myLiteral;
+        private final String myDirectoryPrefix;
+        private final boolean myMatchFileName;
+        private final Minimatch myMatcher;
+
+        CompiledGlob(@NotNull String glob) {
+            final int magicIndex = StringUtils.indexOfAny(glob, MAGIC_CHARS);
+            if (magicIndex < 0) {
+                myLiteral = glob;
+                myDirectoryPrefix = "";
+                // minimatch compares a glob without slashes with the file name when "matchBase" is set
+                myMatchFileName = glob.indexOf('/') < 0;
+                myMatcher = null;
+            } else {
+                myLiteral = null;
+                myDirectoryPrefix = glob.substring(0, glob.lastIndexOf('/', magicIndex) + 1);
+                myMatchFileName = false;
+                myMatcher = new Minimatch(glob, OPTIONS);
+            }
+        }
+
+        boolean matches(@NotNull String filePath) {
+            if (myMatcher == null) {
+                return myLiteral.equals(myMatchFileName ? getFileName(filePath) : filePath);
+            }
+            return filePath.startsWith(myDirectoryPrefix) && myMatcher.match(filePath);
+        }
+
+        @NotNull
+        private static String getFileName(@NotNull String filePath) {
+            return filePath.substring(filePath.lastIndexOf('/') + 1);
+        }
+
+    }
+}
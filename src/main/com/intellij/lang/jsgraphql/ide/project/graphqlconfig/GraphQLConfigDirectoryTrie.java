@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018-present, Jim Kynde Meyer
+ * All rights reserved.
+ * <p>
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.intellij.lang.jsgraphql.ide.project.graphqlconfig;
+
+import com.google.common.collect.Maps;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of the directories which contain a graphql-config file, keyed by the path segments of the directories.
+ * <p>
+ * The nearest config directory of a file is found by a single descent along the path of the file, instead of
+ * walking the parent directories of the file up to the content root.
+ * <p>
+ * Not thread-safe, the updates and lookups are guarded by the lock of {@link GraphQLConfigManager}.
+ */
+final class GraphQLConfigDirectoryTrie {
+
+    private final Node myRoot = new Node();
+
+    // the paths the directories were added with, since a directory can be moved or renamed before it's removed
+    private final Map<VirtualFile, String> myDirectoryPaths = Maps.newHashMap();
+
+    private static final class Node {
+        final Map<String, Node> children = Maps.newHashMapWithExpectedSize(2);
+        VirtualFile directory;
+    }
+
+    void add(@NotNull VirtualFile directory) {
+        final String path = directory.getPath();
+        final String previousPath = myDirectoryPaths.put(directory, path);
+        if (previousPath != null && !previousPath.equals(path)) {
+            removePath(previousPath);
+        }
+        Node node = myRoot;
+        for (String segment : getSegments(path)) {
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        node.directory = directory;
+    }
+
+    void remove(@NotNull VirtualFile directory) {
+        final String path = myDirectoryPaths.remove(directory);
+        if (path != null) {
+            removePath(path);
+        }
+    }
+
+    /**
+     * Keeps the directories of the current configurations, and removes the rest
+     */
+    void update(@NotNull Iterable<VirtualFile> directories) {
+        final Map<VirtualFile, String> removed = Maps.newHashMap(myDirectoryPaths);
+        for (VirtualFile directory : directories) {
+            removed.remove(directory);
+            add(directory);
+        }
+        removed.keySet().forEach(this::remove);
+    }
+
+    /**
+     * @return the deepest config directory which is the specified directory or one of its parents, or null if none
+     */
+    @Nullable
+    VirtualFile findNearest(@NotNull VirtualFile directory) {
+        Node node = myRoot;
+        VirtualFile nearest = node.directory;
+        for (String segment : getSegments(directory.getPath())) {
+            node = node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            if (node.directory != null) {
+                nearest = node.directory;
+            }
+        }
+        // a directory moved since it was added isn't a parent anymore
+        return nearest != null && VfsUtilCore.isAncestor(nearest, directory, false) ? nearest : null;
+    }
+
+    private void removePath(@NotNull String path) {
+        final List<String> segments = getSegments(path);
+        final List<Node> nodes = new ArrayList<>(segments.size() + 1);
+        Node node = myRoot;
+        nodes.add(node);
+        for (String segment : segments) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return;
+            }
+            nodes.add(node);
+        }
+        node.directory = null;
+
+        // prune the nodes which no longer lead to a config directory
+        for (int i = segments.size(); i > 0; i--) {
+            final Node current = nodes.get(i);
+            if (current.directory != null || !current.children.isEmpty()) {
+                break;
+            }
+            nodes.get(i - 1).children.remove(segments.get(i - 1));
+        }
+    }
+
+    @NotNull
+    private static List<String> getSegments(@NotNull String path) {
+        return StringUtil.split(path, "/");
+    }
+}
@@ -7,6 +7,13 @@
  */
 package com.intellij.lang.jsgraphql.ide.project.graphqlconfig;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
 /**
  * Glob Matcher which follows the same semantics as minimatch used by graphql-config
  */
@@ -23,4 +30,17 @@ public interface GraphQLConfigGlobMatcher {
      */
     boolean matches(String filePath, String glob);
 
+    /**
+     * Compiles the glob patterns once for matching many file paths
+     *
+     * @param globs the glob patterns to match against
+     *
+     * @return predicate which is true if a file path matches any of the globs
+     */
+    @NotNull
+    default Predicate<String> compile(@NotNull Collection<String> globs) {
+        final List<String> globList = new ArrayList<>(globs);
+        return filePath -> globList.stream().anyMatch(glob -> matches(filePath, glob));
+    }
+
 }
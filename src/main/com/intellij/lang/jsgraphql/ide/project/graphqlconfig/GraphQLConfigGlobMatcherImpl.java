@@ -7,24 +7,26 @@
  */
 package com.intellij.lang.jsgraphql.ide.project.graphqlconfig;
 
-import com.google.common.collect.Maps;
-import com.intellij.openapi.util.Pair;
 import minimatch.Minimatch;
-import minimatch.Options;
+import org.jetbrains.annotations.NotNull;
 
-import java.util.Map;
+import java.util.Collection;
+import java.util.function.Predicate;
 
 /**
  * Matcher which uses nashorn-minimatch to achieve same glob semantics as graphql-config.
  */
 public class GraphQLConfigGlobMatcherImpl implements GraphQLConfigGlobMatcher {
 
-    private final static Map<Pair<String, String>, Boolean> matches = Maps.newConcurrentMap();
-    private final static Options OPTIONS = new Options().setMatchBase(true);
-
     @Override
     public boolean matches(String filePath, String glob) {
-        return matches.computeIfAbsent(Pair.create(filePath, glob), args -> Minimatch.minimatch(args.first, args.second, OPTIONS));
+        return Minimatch.minimatch(filePath, glob, GraphQLConfigCompiledGlobs.OPTIONS);
+    }
+
+    @NotNull
+    @Override
+    public Predicate<String> compile(@NotNull Collection<String> globs) {
+        return new GraphQLConfigCompiledGlobs(globs);
     }
 
 }
@@ -134,6 +134,7 @@ public class GraphQLConfigManager implements Disposable {
     private final Map<GraphQLResolvedConfigData, GraphQLFile> configDataToEntryFiles = Maps.newConcurrentMap();
     private final Map<GraphQLResolvedConfigData, GraphQLConfigPackageSet> configDataToPackageSet = Maps.newConcurrentMap();
     private final Map<String, GraphQLNamedScope> virtualFilePathToScopes = Maps.newConcurrentMap();
+    private final GraphQLConfigDirectoryTrie configDirectories = new GraphQLConfigDirectoryTrie();
     private final Map<GraphQLNamedScope, JSGraphQLEndpointSchemaConfiguration> scopeToSchemaEndpointLanguageConfiguration = Maps.newConcurrentMap();
 
     private final ReadWriteLock cacheLock = new ReentrantReadWriteLock(true);
@@ -693,6 +694,8 @@ public class GraphQLConfigManager implements Disposable {
         try {
             writeLock.lock();
             this.configFilesToConfigurations = newConfigPathToConfigurations;
+            // only the directories of added or removed config files change the trie
+            this.configDirectories.update(newConfigPathToConfigurations.keySet());
             this.virtualFilePathToScopes.clear();
             this.configDataToEntryFiles.clear();
             this.configDataToPackageSet.clear();
@@ -786,49 +789,36 @@ public class GraphQLConfigManager implements Disposable {
                 VirtualFile configBaseDir = !ScratchUtil.isScratch(virtualFileWithPath)
                     ? getConfigBaseDir(virtualFileWithPath)
                     : getConfigBaseDirForScratch(virtualFileWithPath);
-                if (configBaseDir == null) return NONE;
+                if (configBaseDir == null || !isInContent(configBaseDir)) return NONE;
 
                 // locate the nearest config file, see https://github.com/kamilkisiela/graphql-config/tree/legacy/src/findGraphQLConfigFile.ts
-                Ref<GraphQLNamedScope> scopeRef = Ref.create(NONE);
-                processDirectoriesUpToContentRoot(myProject, configBaseDir, dir -> {
-                    GraphQLConfigData configData = configFilesToConfigurations.get(dir);
-                    if (configData == null) {
-                        return true;
-                    }
+                final VirtualFile dir = configDirectories.findNearest(configBaseDir);
+                final GraphQLConfigData configData = dir != null ? configFilesToConfigurations.get(dir) : null;
+                if (configData == null) {
+                    return NONE;
+                }
 
-                    // check projects first
-                    if (configData.projects != null) {
-                        final String projectKey = virtualFileWithPath.getUserData(GRAPHQL_SCRATCH_PROJECT_KEY);
-                        for (Map.Entry<String, GraphQLResolvedConfigData> entry : configData.projects.entrySet()) {
-                            if (projectKey != null && !projectKey.trim().isEmpty() && !projectKey.equals(entry.getKey())) {
-                                // associated with another project so skip ahead
-                                continue;
-                            }
-                            final GraphQLResolvedConfigData projectConfigData = entry.getValue();
-                            final GraphQLConfigPackageSet packageSet = configDataToPackageSet.computeIfAbsent(projectConfigData, dataKey -> {
-                                final GraphQLFile configEntryFile = getConfigurationEntryFile(dataKey);
-                                return new GraphQLConfigPackageSet(dir, configEntryFile, dataKey, graphQLConfigGlobMatcher);
-                            });
-                            if (packageSet.includesVirtualFile(virtualFileWithPath)) {
-                                scopeRef.set(new GraphQLNamedScope("graphql-config:" + dir.getPath() + ":" + entry.getKey(), packageSet));
-                                return false;
-                            }
+                // check projects first
+                if (configData.projects != null) {
+                    final String projectKey = virtualFileWithPath.getUserData(GRAPHQL_SCRATCH_PROJECT_KEY);
+                    for (Map.Entry<String, GraphQLResolvedConfigData> entry : configData.projects.entrySet()) {
+                        if (projectKey != null && !projectKey.trim().isEmpty() && !projectKey.equals(entry.getKey())) {
+                            // associated with another project so skip ahead
+                            continue;
+                        }
+                        final GraphQLConfigPackageSet packageSet = getPackageSet(dir, entry.getValue());
+                        if (packageSet.includesVirtualFile(virtualFileWithPath)) {
+                            return new GraphQLNamedScope("graphql-config:" + dir.getPath() + ":" + entry.getKey(), packageSet);
                         }
                     }
+                }
 
-                    // then top level config
-                    final GraphQLConfigPackageSet packageSet = configDataToPackageSet.computeIfAbsent(configData, dataKey -> {
-                        final GraphQLFile configEntryFile = getConfigurationEntryFile(dataKey);
-                        return new GraphQLConfigPackageSet(dir, configEntryFile, dataKey, graphQLConfigGlobMatcher);
-                    });
-                    if (packageSet.includesVirtualFile(virtualFileWithPath)) {
-                        scopeRef.set(new GraphQLNamedScope("graphql-config:" + dir.getPath(), packageSet));
-                        return false;
-                    }
-                    return false;
-                });
-
-                return scopeRef.get();
+                // then top level config
+                final GraphQLConfigPackageSet packageSet = getPackageSet(dir, configData);
+                if (packageSet.includesVirtualFile(virtualFileWithPath)) {
+                    return new GraphQLNamedScope("graphql-config:" + dir.getPath(), packageSet);
+                }
+                return NONE;
             });
 
             return namedScope != NONE ? namedScope : null;
@@ -837,6 +827,21 @@ public class GraphQLConfigManager implements Disposable {
         }
     }
 
+    @NotNull
+    private GraphQLConfigPackageSet getPackageSet(@NotNull VirtualFile configBaseDir, @NotNull GraphQLResolvedConfigData configData) {
+        return configDataToPackageSet.computeIfAbsent(configData, dataKey -> {
+            final GraphQLFile configEntryFile = getConfigurationEntryFile(dataKey);
+            return new GraphQLConfigPackageSet(configBaseDir, configEntryFile, dataKey, graphQLConfigGlobMatcher);
+        });
+    }
+
+    /**
+     * Config files are only looked up for files in the content, like {@link #processDirectoriesUpToContentRoot} does
+     */
+    private boolean isInContent(@NotNull VirtualFile directory) {
+        return !myProject.isDisposed() && ProjectFileIndex.getInstance(myProject).getContentRootForFile(directory, false) != null;
+    }
+
     @Nullable
     private VirtualFile getConfigBaseDir(@NotNull VirtualFile virtualFile) {
         VirtualFile configBaseDir = null;
@@ -7,12 +7,12 @@
  */
 package com.intellij.lang.jsgraphql.ide.project.graphqlconfig;
 
-import com.google.common.collect.Maps;
 import com.intellij.ide.scratch.ScratchUtil;
 import com.intellij.json.JsonFileType;
 import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.model.GraphQLResolvedConfigData;
 import com.intellij.lang.jsgraphql.psi.GraphQLFile;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaKeys;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.search.scope.packageSet.NamedScopesHolder;
@@ -21,7 +21,11 @@ import com.intellij.testFramework.LightVirtualFile;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.*;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +33,8 @@ import java.util.stream.Collectors;
  */
 public class GraphQLConfigPackageSet implements PackageSet {
 
+    private static final String GLOB_SPECIAL_CHARS = "*?[]{}()!+@";
+
     private final VirtualFile configBaseDir;
     private GraphQLFile configEntryFile;
     private final GraphQLResolvedConfigData configData;
@@ -38,7 +44,9 @@ public class GraphQLConfigPackageSet implements PackageSet {
 
     private String schemaFilePath;
 
-    private final Map<String, Boolean> includesFilePath = Maps.newConcurrentMap();
+    // compiled on first use, most of the package sets are only created to be compared with the previous ones
+    private volatile Predicate<String> includesMatcher;
+    private volatile Predicate<String> excludesMatcher;
 
     GraphQLConfigPackageSet(VirtualFile configBaseDir, GraphQLFile configEntryFile, GraphQLResolvedConfigData configData, GraphQLConfigGlobMatcher globMatcher) {
 
@@ -128,34 +136,42 @@ public class GraphQLConfigPackageSet implements PackageSet {
             }
         }
 
-        return includesFilePath.computeIfAbsent(inclusionPath, filePath -> {
-            if (filePath.equals(schemaFilePath)) {
-                // fast-path for always including the schema file if present
-                return true;
-            }
-            final String relativePath;
-            if (filePath.startsWith(configBaseDirPath)) {
-                relativePath = StringUtils.removeStart(filePath, configBaseDirPath);
-            } else {
-                // the file is outside the config base dir, so it's not included
-                return false;
-            }
-            return (!hasIncludes || matchesGlobs(relativePath, this.configData.includes)) && !matchesGlobs(relativePath, this.configData.excludes);
-        });
+        if (inclusionPath.equals(schemaFilePath)) {
+            // fast-path for always including the schema file if present
+            return true;
+        }
+        if (!inclusionPath.startsWith(configBaseDirPath)) {
+            // the file is outside the config base dir, so it's not included
+            return false;
+        }
+        final String relativePath = inclusionPath.substring(configBaseDirPath.length());
+        if (excludesMatcher == null) {
+            // the excludes are assigned last, so the includes are visible to other threads as well
+            includesMatcher = compileGlobs(configData.includes);
+            excludesMatcher = compileGlobs(configData.excludes);
+        }
+        return (!hasIncludes || includesMatcher.test(relativePath)) && !excludesMatcher.test(relativePath);
     }
 
     /**
      * Based on graphl-config: https://github.com/kamilkisiela/graphql-config/blob/b6785a7f0c1b84010cd6e9b94797796254d527b9/src/utils.ts#L52
+     * <p>
+     * A glob which is a directory path includes the files in it. The directory can be created after the globs are compiled,
+     * so every plain path also matches the files under it instead of checking the file system.
      */
-    private boolean matchesGlobs(String filePath, List<String> globs) {
-        return Optional.ofNullable(globs).orElse(Collections.emptyList()).stream().anyMatch(glob -> {
-            VirtualFile relativePath = configBaseDir.findFileByRelativePath(glob);
-            if (relativePath != null && relativePath.isDirectory()) {
-                // glob is a directory, so include the files in it
-                glob = glob + "/**";
+    private Predicate<String> compileGlobs(List<String> globs) {
+        if (globs == null || globs.isEmpty()) {
+            return filePath -> false;
+        }
+        Set<String> compiledGlobs = new LinkedHashSet<>();
+        for (String glob : globs) {
+            compiledGlobs.add(glob);
+            // only a plain path can be a directory, e.g. "src/*" doesn't include the files of the nested directories
+            if (!glob.isEmpty() && !StringUtil.containsAnyChar(glob, GLOB_SPECIAL_CHARS)) {
+                compiledGlobs.add(StringUtil.trimEnd(glob, "/") + "/**");
             }
-            return globMatcher.matches(filePath, glob);
-        });
+        }
+        return globMatcher.compile(compiledGlobs);
     }
 
     @NotNull
@@ -18,6 +18,7 @@ import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.model.GraphQLConfig
 import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.model.GraphQLConfigEndpoint;
 import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.model.GraphQLResolvedConfigData;
 import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaBuildMetrics;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaInfo;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
 import com.intellij.openapi.fileEditor.ex.FileEditorManagerEx;
@@ -88,7 +89,7 @@ public class GraphQLConfigSchemaNode extends CachingSimpleNode {
             configurationEntryFile = configManager.getConfigurationEntryFile(configData);
             endpoints = GraphQLFileType.isGraphQLFile(project, configurationEntryFile.getVirtualFile())
                 ? configManager.getEndpoints(configurationEntryFile.getVirtualFile()) : null;
-            mySchemaInfo = SlowOperations.allowSlowOperations(() -> registry.getSchemaInfo(configurationEntryFile));
+            mySchemaInfo = SlowOperations.allowSlowOperations(() -> registry.getUpToDateSchemaInfo(configurationEntryFile));
         } else {
             mySchemaInfo = null;
             endpoints = null;
@@ -132,6 +133,9 @@ public class GraphQLConfigSchemaNode extends CachingSimpleNode {
         final List<SimpleNode> children = Lists.newArrayList();
         if (performSchemaDiscovery) {
             children.add(new GraphQLSchemaContentNode(this, mySchemaInfo));
+            if (mySchemaInfo.getBuildMetrics() != GraphQLSchemaBuildMetrics.EMPTY) {
+                children.add(new GraphQLSchemaBuildMetricsNode(this, mySchemaInfo.getBuildMetrics()));
+            }
             if (mySchemaInfo.getRegistryInfo().isProcessedGraphQL()) {
                 children.add(new GraphQLSchemaErrorsListNode(this, mySchemaInfo));
             }
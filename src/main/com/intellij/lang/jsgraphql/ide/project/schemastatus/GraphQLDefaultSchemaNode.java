@@ -11,6 +11,7 @@ import com.google.common.collect.Lists;
 import com.intellij.lang.jsgraphql.icons.GraphQLIcons;
 import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
 import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaBuildMetrics;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaInfo;
 import com.intellij.openapi.project.Project;
@@ -35,12 +36,15 @@ public class GraphQLDefaultSchemaNode extends CachingSimpleNode {
         getPresentation().setIcon(GraphQLIcons.Files.GraphQLSchema);
         final GraphQLFile defaultProjectFile = GraphQLPsiSearchHelper.getInstance(myProject).getDefaultProjectFile();
         final GraphQLSchemaProvider registry = GraphQLSchemaProvider.getInstance(myProject);
-        mySchemaInfo = SlowOperations.allowSlowOperations(() -> registry.getSchemaInfo(defaultProjectFile));
+        mySchemaInfo = SlowOperations.allowSlowOperations(() -> registry.getUpToDateSchemaInfo(defaultProjectFile));
     }
 
     @Override
     public SimpleNode[] buildChildren() {
         final List<SimpleNode> children = Lists.newArrayList(new GraphQLSchemaContentNode(this, mySchemaInfo));
+        if (mySchemaInfo.getBuildMetrics() != GraphQLSchemaBuildMetrics.EMPTY) {
+            children.add(new GraphQLSchemaBuildMetricsNode(this, mySchemaInfo.getBuildMetrics()));
+        }
         if (mySchemaInfo.getRegistryInfo().isProcessedGraphQL()) {
             children.add(new GraphQLSchemaErrorsListNode(this, mySchemaInfo));
         }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018-present, Jim Kynde Meyer
+ * All rights reserved.
+ * <p>
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package com.intellij.lang.jsgraphql.ide.project.schemastatus;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.ide.projectView.PresentationData;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaBuildMetrics;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaChangeTracker;
+import com.intellij.ui.treeStructure.CachingSimpleNode;
+import com.intellij.ui.treeStructure.SimpleNode;
+
+/**
+ * Tree node which shows the timings of the latest schema build
+ */
+public class GraphQLSchemaBuildMetricsNode extends CachingSimpleNode {
+
+    private final GraphQLSchemaBuildMetrics myMetrics;
+
+    public GraphQLSchemaBuildMetricsNode(SimpleNode parent, GraphQLSchemaBuildMetrics metrics) {
+        super(parent);
+        myMetrics = metrics;
+        myName = "Schema build";
+        setIcon(AllIcons.Actions.Profile);
+    }
+
+    @Override
+    protected void update(PresentationData presentation) {
+        super.update(presentation);
+        // the schema is validated lazily, so the timings are collected when the node is rendered
+        presentation.setLocationString(String.format("- %d ms, %d files, after %s",
+            myMetrics.getTotalMillis(), myMetrics.getFilesCount(), myMetrics.getInvalidationCause()));
+        presentation.setTooltip(String.format(
+            "<html>Index scan: %d ms<br>Documents load: %d ms<br>Merge: %d ms<br>Schema generation: %d ms<br>Validation: %d ms<br>" +
+                "Registry cache hits: %d of %d<br>Schema cache hits: %d of %d<br>Coalesced change events: %d</html>",
+            myMetrics.getIndexScanMillis(), myMetrics.getDocumentsLoadMillis(), myMetrics.getMergeMillis(),
+            myMetrics.getSchemaGenerationMillis(), myMetrics.getValidationMillis(),
+            myMetrics.getRegistryCacheHits(), myMetrics.getRegistryCacheHits() + myMetrics.getRegistryCacheMisses(),
+            myMetrics.getSchemaCacheHits(), myMetrics.getSchemaCacheHits() + myMetrics.getSchemaCacheMisses(),
+            GraphQLSchemaChangeTracker.getInstance(myProject).getSuppressedEventsCount()
+        ));
+    }
+
+    @Override
+    public SimpleNode[] buildChildren() {
+        return SimpleNode.NO_CHILDREN;
+    }
+
+    @Override
+    public boolean isAlwaysLeaf() {
+        return true;
+    }
+}
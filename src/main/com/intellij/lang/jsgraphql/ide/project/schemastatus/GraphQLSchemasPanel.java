@@ -278,7 +278,7 @@ public class GraphQLSchemasPanel extends JPanel implements Disposable {
         leftActionGroup.add(new AnAction("Restart Schema Discovery", "Performs GraphQL schema discovery across the project", AllIcons.Actions.Refresh) {
             @Override
             public void actionPerformed(@NotNull AnActionEvent e) {
-                GraphQLSchemaChangeTracker.getInstance(myProject).schemaChanged();
+                GraphQLSchemaChangeTracker.getInstance(myProject).schemaChanged("schema discovery restart");
                 GraphQLConfigManager.getService(myProject).buildConfigurationModel(null, null);
             }
         });
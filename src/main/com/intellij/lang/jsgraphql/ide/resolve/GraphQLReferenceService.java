@@ -12,14 +12,25 @@ import com.intellij.lang.jsgraphql.endpoint.ide.project.JSGraphQLEndpointNamedTy
 import com.intellij.lang.jsgraphql.endpoint.ide.type.JSGraphQLLegacyNamedType;
 import com.intellij.lang.jsgraphql.endpoint.ide.type.JSGraphQLLegacyPropertyType;
 import com.intellij.lang.jsgraphql.endpoint.psi.*;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLDefinitionIndex;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLIdentifierIndex.IdentifierKind;
 import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
 import com.intellij.lang.jsgraphql.psi.*;
 import com.intellij.lang.jsgraphql.psi.impl.GraphQLDirectiveImpl;
 import com.intellij.lang.jsgraphql.psi.impl.GraphQLFieldImpl;
 import com.intellij.lang.jsgraphql.psi.impl.GraphQLReferenceMixin;
+import com.intellij.lang.jsgraphql.schema.GraphQLKnownTypes;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaUtil;
 import com.intellij.lang.jsgraphql.schema.library.GraphQLLibraryTypes;
+import com.intellij.lang.jsgraphql.types.language.Node;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLEnumType;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLFieldsContainer;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLInputFieldsContainer;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLInputObjectField;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLUnmodifiedType;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.progress.ProgressManager;
@@ -27,6 +38,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiNamedElement;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.PsiReferenceBase;
@@ -38,8 +50,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 
 public class GraphQLReferenceService implements Disposable {
@@ -220,31 +234,43 @@ public class GraphQLReferenceService implements Disposable {
             final GraphQLPsiSearchHelper graphQLPsiSearchHelper = GraphQLPsiSearchHelper.getInstance(element.getProject());
             if (name.startsWith("__")) {
                 // __typename or introspection fields __schema and __type which implicitly extends the query root type
-                GraphQLResolveUtil.processFilesInLibrary(GraphQLLibraryTypes.SPECIFICATION, element, file -> {
-                    file.accept(new GraphQLRecursiveVisitor() {
-                        @Override
-                        public void visitElement(@NotNull GraphQLElement schemaElement) {
-                            // TODO: [vepanimas] rework to use com.intellij.psi.PsiElement.processDeclarations or something similar,
-                            //  now it traverses the whole tree including comments, punctuation, arguments and so on,
-                            //  but we actually expect only field declarations in two predefined object types
-                            if (schemaElement instanceof GraphQLReferenceElement &&
-                                Objects.equals(((GraphQLReferenceElement) schemaElement).getReferenceName(), name)) {
-                                reference.set(createReference(element, schemaElement));
-                                stopWalking();
-                                return;
+                final GraphQLSchema schema = GraphQLSchemaProvider.getInstance(element.getProject()).getSchemaInfo(element).getSchema();
+                final String metaTypeName = GraphQLKnownTypes.INTROSPECTION_TYPENAME_FIELD.equals(name)
+                    ? GraphQLKnownTypes.INTROSPECTION_TYPE_NAME_META
+                    : GraphQLKnownTypes.INTROSPECTION_QUERY_INTROSPECTION_META;
+                final GraphQLIdentifier fieldIdentifier = findSchemaFieldDefinition(schema.getType(metaTypeName), name);
+                if (fieldIdentifier != null) {
+                    reference.set(createReference(element, fieldIdentifier));
+                } else {
+                    GraphQLResolveUtil.processFilesInLibrary(GraphQLLibraryTypes.SPECIFICATION, element, file -> {
+                        // only the field declarations of the top-level object types are expected to match
+                        for (GraphQLDefinition definition : file.getDefinitions()) {
+                            final GraphQLFieldsDefinition fieldsDefinition = definition instanceof GraphQLObjectTypeDefinition
+                                ? ((GraphQLObjectTypeDefinition) definition).getFieldsDefinition() : null;
+                            if (fieldsDefinition == null) {
+                                continue;
+                            }
+                            for (GraphQLFieldDefinition fieldDefinition : fieldsDefinition.getFieldDefinitionList()) {
+                                if (name.equals(fieldDefinition.getName())) {
+                                    reference.set(createReference(element, fieldDefinition.getNameIdentifier()));
+                                    return false;
+                                }
                             }
-                            super.visitElement(schemaElement);
                         }
+                        return true;
                     });
-                    return reference.isNull();
-                });
+                }
             }
             final GraphQLTypeScopeProvider typeScopeProvider = PsiTreeUtil.getParentOfType(field, GraphQLTypeScopeProvider.class);
             if (reference.isNull() && typeScopeProvider != null) {
                 GraphQLType typeScope = typeScopeProvider.getTypeScope();
                 if (typeScope != null) {
                     final GraphQLType fieldType = GraphQLSchemaUtil.getUnmodifiedType(typeScope);
-                    graphQLPsiSearchHelper.processElementsWithWord(element, name, psiNamedElement -> {
+                    final GraphQLIdentifier fieldIdentifier = findSchemaFieldDefinition(fieldType, name);
+                    if (fieldIdentifier != null) {
+                        return createReference(element, fieldIdentifier);
+                    }
+                    graphQLPsiSearchHelper.processElementsWithWord(element, name, EnumSet.of(IdentifierKind.FIELD_DEFINITION_NAME), psiNamedElement -> {
                         if (psiNamedElement.getParent() instanceof com.intellij.lang.jsgraphql.psi.GraphQLFieldDefinition) {
                             final GraphQLFieldDefinition fieldDefinition = (GraphQLFieldDefinition) psiNamedElement.getParent();
                             if (!Objects.equals(fieldDefinition.getName(), name)) {
@@ -327,7 +353,7 @@ public class GraphQLReferenceService implements Disposable {
         // NOTE: concurrent hash map doesn't allow nulls, so using the NULL_REFERENCE sentinel value to avoid re-computation of unresolvable references
         PsiReference psiReference = logicalTypeNameToReference.get(logicalTypeName);
         if (psiReference == null) {
-            psiReference = resolveUsingIndex(element, psiNamedElement -> psiNamedElement instanceof GraphQLIdentifier && psiNamedElement.getParent() instanceof GraphQLTypeNameDefinition);
+            psiReference = resolveDefinition(element, GraphQLDefinitionIndex.DefinitionKind.TYPES);
             if (psiReference == null) {
                 // fallback to resolving to Endpoint language elements
                 final JSGraphQLEndpointNamedTypeRegistry endpointNamedTypeRegistry = JSGraphQLEndpointNamedTypeRegistry.getService(element.getProject());
@@ -344,7 +370,7 @@ public class GraphQLReferenceService implements Disposable {
 
 
     PsiReference resolveFragmentDefinition(GraphQLReferenceMixin element) {
-        return resolveUsingIndex(element, psiNamedElement -> psiNamedElement instanceof GraphQLIdentifier && psiNamedElement.getParent() instanceof GraphQLFragmentDefinition);
+        return resolveDefinition(element, EnumSet.of(GraphQLDefinitionIndex.DefinitionKind.FRAGMENT));
     }
 
     private PsiReference resolveObjectField(GraphQLReferenceMixin element, GraphQLObjectField field) {
@@ -354,9 +380,14 @@ public class GraphQLReferenceService implements Disposable {
             if (fieldTypeScopeProvider != null) {
                 GraphQLType typeScope = fieldTypeScopeProvider.getTypeScope();
                 if (typeScope != null) {
-                    final String namedTypeScope = GraphQLSchemaUtil.getUnmodifiedType(typeScope).getName();
+                    final GraphQLUnmodifiedType unmodifiedTypeScope = GraphQLSchemaUtil.getUnmodifiedType(typeScope);
+                    final GraphQLIdentifier inputFieldIdentifier = findSchemaInputFieldDefinition(unmodifiedTypeScope, name);
+                    if (inputFieldIdentifier != null) {
+                        return createReference(element, inputFieldIdentifier);
+                    }
+                    final String namedTypeScope = unmodifiedTypeScope.getName();
                     final Ref<Boolean> resolved = Ref.create(false);
-                    final PsiReference reference = resolveUsingIndex(element, psiNamedElement -> {
+                    final PsiReference reference = resolveUsingIndex(element, EnumSet.of(IdentifierKind.INPUT_VALUE_DEFINITION_NAME), psiNamedElement -> {
                         if (psiNamedElement.getParent() instanceof GraphQLInputValueDefinition) {
                             final GraphQLInputObjectTypeDefinition inputTypeDefinition = PsiTreeUtil.getParentOfType(psiNamedElement, GraphQLInputObjectTypeDefinition.class);
                             if (inputTypeDefinition != null && inputTypeDefinition.getTypeNameDefinition() != null) {
@@ -393,9 +424,14 @@ public class GraphQLReferenceService implements Disposable {
             if (enumTypeScopeProvider != null) {
                 GraphQLType typeScope = enumTypeScopeProvider.getTypeScope();
                 if (typeScope != null) {
-                    final String namedTypeScope = GraphQLSchemaUtil.getUnmodifiedType(typeScope).getName();
+                    final GraphQLUnmodifiedType unmodifiedTypeScope = GraphQLSchemaUtil.getUnmodifiedType(typeScope);
+                    final GraphQLIdentifier enumValueIdentifier = findSchemaEnumValueDefinition(unmodifiedTypeScope, name);
+                    if (enumValueIdentifier != null) {
+                        return createReference(element, enumValueIdentifier);
+                    }
+                    final String namedTypeScope = unmodifiedTypeScope.getName();
                     final Ref<Boolean> resolved = Ref.create(false);
-                    final PsiReference reference = resolveUsingIndex(element, psiNamedElement -> {
+                    final PsiReference reference = resolveUsingIndex(element, EnumSet.of(IdentifierKind.ENUM_VALUE_DEFINITION_NAME), psiNamedElement -> {
                         if (psiNamedElement.getParent() instanceof GraphQLEnumValue) {
                             final GraphQLEnumTypeDefinition enumTypeDefinition = PsiTreeUtil.getParentOfType(psiNamedElement, GraphQLEnumTypeDefinition.class);
                             if (enumTypeDefinition != null && enumTypeDefinition.getTypeNameDefinition() != null) {
@@ -430,17 +466,98 @@ public class GraphQLReferenceService implements Disposable {
         return null;
     }
 
+    /**
+     * Finds the declaration of a field using the PSI element the schema field was built from,
+     * so a reference doesn't need to search the identifiers with the same name in the whole scope.
+     *
+     * @return null if the schema has no such field or isn't up-to-date with the PSI, the callers fall back to the index search then
+     */
+    @Nullable
+    private static GraphQLIdentifier findSchemaFieldDefinition(@Nullable GraphQLType typeScope, @NotNull String name) {
+        if (!(typeScope instanceof GraphQLFieldsContainer)) {
+            return null;
+        }
+        final com.intellij.lang.jsgraphql.types.schema.GraphQLFieldDefinition fieldDefinition =
+            ((GraphQLFieldsContainer) typeScope).getFieldDefinition(name);
+        final PsiElement psiElement = fieldDefinition != null ? getSchemaElement(fieldDefinition.getDefinition()) : null;
+        if (psiElement instanceof GraphQLFieldDefinition && name.equals(((GraphQLFieldDefinition) psiElement).getName())) {
+            return ((GraphQLFieldDefinition) psiElement).getNameIdentifier();
+        }
+        return null;
+    }
+
+    @Nullable
+    private static GraphQLIdentifier findSchemaInputFieldDefinition(@Nullable GraphQLType typeScope, @NotNull String name) {
+        if (!(typeScope instanceof GraphQLInputFieldsContainer)) {
+            return null;
+        }
+        final GraphQLInputObjectField inputField = ((GraphQLInputFieldsContainer) typeScope).getFieldDefinition(name);
+        final PsiElement psiElement = inputField != null ? getSchemaElement(inputField.getDefinition()) : null;
+        if (psiElement instanceof GraphQLInputValueDefinition && name.equals(((GraphQLInputValueDefinition) psiElement).getName())) {
+            return ((GraphQLInputValueDefinition) psiElement).getNameIdentifier();
+        }
+        return null;
+    }
+
+    @Nullable
+    private static GraphQLIdentifier findSchemaEnumValueDefinition(@Nullable GraphQLType typeScope, @NotNull String name) {
+        if (!(typeScope instanceof GraphQLEnumType)) {
+            return null;
+        }
+        final com.intellij.lang.jsgraphql.types.schema.GraphQLEnumValueDefinition enumValue = ((GraphQLEnumType) typeScope).getValue(name);
+        final PsiElement psiElement = enumValue != null ? getSchemaElement(enumValue.getDefinition()) : null;
+        if (psiElement instanceof GraphQLEnumValueDefinition) {
+            final GraphQLEnumValue enumValueElement = ((GraphQLEnumValueDefinition) psiElement).getEnumValue();
+            if (name.equals(enumValueElement.getName())) {
+                return enumValueElement.getNameIdentifier();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The schema can be built from an older version of the PSI, e.g. while a new schema is built in the background,
+     * so its elements are only used while they're valid. The elements of the non-physical files, e.g. of a schema snapshot
+     * or of a document created from the text, aren't navigable, so the definition is looked up in the index instead.
+     */
+    @Nullable
+    private static PsiElement getSchemaElement(@Nullable Node<?> definition) {
+        final PsiElement psiElement = definition != null ? definition.getElement() : null;
+        if (psiElement == null || !psiElement.isValid()) {
+            return null;
+        }
+        final PsiFile containingFile = psiElement.getContainingFile();
+        if (containingFile == null || !containingFile.isPhysical() || containingFile.getVirtualFile() == null) {
+            return null;
+        }
+        return psiElement;
+    }
+
     private PsiReference resolveDirective(GraphQLReferenceMixin element) {
-        return resolveUsingIndex(element, psiNamedElement ->
-            psiNamedElement instanceof GraphQLIdentifier && psiNamedElement.getParent() instanceof GraphQLDirectiveDefinition);
+        return resolveDefinition(element, EnumSet.of(GraphQLDefinitionIndex.DefinitionKind.DIRECTIVE));
+    }
+
+    private PsiReference resolveDefinition(GraphQLReferenceMixin element, Set<GraphQLDefinitionIndex.DefinitionKind> kinds) {
+        final String name = element.getName();
+        Ref<PsiReference> reference = new Ref<>();
+        if (name != null) {
+            myPsiSearchHelper.processDefinitions(element, name, kinds, identifier -> {
+                ProgressManager.checkCanceled();
+                reference.set(createReference(element, identifier));
+                return false; // done searching
+            });
+        }
+        return reference.get();
     }
 
 
-    private PsiReference resolveUsingIndex(GraphQLReferenceMixin element, Predicate<PsiNamedElement> isMatch) {
+    private PsiReference resolveUsingIndex(GraphQLReferenceMixin element,
+                                           Set<IdentifierKind> kinds,
+                                           Predicate<PsiNamedElement> isMatch) {
         final String name = element.getName();
         Ref<PsiReference> reference = new Ref<>();
         if (name != null) {
-            myPsiSearchHelper.processElementsWithWord(element, name, psiNamedElement -> {
+            myPsiSearchHelper.processElementsWithWord(element, name, kinds, psiNamedElement -> {
                 ProgressManager.checkCanceled();
                 if (isMatch.test(psiNamedElement)) {
                     reference.set(new PsiReferenceBase<PsiNamedElement>(element, TextRange.from(0, element.getTextLength())) {
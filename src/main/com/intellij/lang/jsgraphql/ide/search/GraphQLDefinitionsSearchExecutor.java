@@ -7,18 +7,18 @@
  */
 package com.intellij.lang.jsgraphql.ide.search;
 
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLDefinitionIndex;
 import com.intellij.lang.jsgraphql.psi.*;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.util.Computable;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.Processor;
 import com.intellij.util.QueryExecutor;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Provides a list of 'type' implementations for an 'interface' definition
+ * Provides a list of 'type' implementations for an 'interface' definition, and the member types of a 'union' definition
  */
 public class GraphQLDefinitionsSearchExecutor implements QueryExecutor<PsiElement, PsiElement> {
 
@@ -31,27 +31,26 @@ public class GraphQLDefinitionsSearchExecutor implements QueryExecutor<PsiElemen
     private static boolean doExecute(PsiElement sourceElement, final Processor<? super PsiElement> consumer) {
 
         if (sourceElement instanceof GraphQLIdentifier && sourceElement.getParent() instanceof GraphQLTypeNameDefinition) {
-            final GraphQLInterfaceTypeDefinition interfaceTypeDefinition = PsiTreeUtil.getParentOfType(sourceElement, GraphQLInterfaceTypeDefinition.class);
-            if (interfaceTypeDefinition != null) {
-                GraphQLPsiSearchHelper.getInstance(sourceElement.getProject()).processElementsWithWord(sourceElement, sourceElement.getText(), namedElement -> {
+            final GraphQLPsiSearchHelper searchHelper = GraphQLPsiSearchHelper.getInstance(sourceElement.getProject());
+            final String typeName = sourceElement.getText();
+            final PsiElement typeDefinition = sourceElement.getParent().getParent();
+            if (typeDefinition instanceof GraphQLInterfaceTypeDefinition) {
+                searchHelper.processImplementations(sourceElement, typeName, identifier -> {
                     ProgressManager.checkCanceled();
-                    if (namedElement instanceof GraphQLIdentifier && PsiTreeUtil.getParentOfType(namedElement, GraphQLImplementsInterfaces.class) != null) {
-                        final GraphQLTypeSystemDefinition typeSystemDefinition = PsiTreeUtil.getParentOfType(namedElement, GraphQLObjectTypeDefinition.class, GraphQLObjectTypeExtensionDefinition.class);
-                        if (typeSystemDefinition instanceof GraphQLObjectTypeDefinition) {
-                            final GraphQLTypeNameDefinition typeNameDefinition = ((GraphQLObjectTypeDefinition) typeSystemDefinition).getTypeNameDefinition();
-                            if (typeNameDefinition != null) {
-                                consumer.process(typeNameDefinition.getNameIdentifier());
-                            }
-                        } else if (typeSystemDefinition instanceof GraphQLObjectTypeExtensionDefinition) {
-                            final GraphQLTypeName typeName = ((GraphQLObjectTypeExtensionDefinition) typeSystemDefinition).getTypeName();
-                            if (typeName != null) {
-                                consumer.process(typeName.getNameIdentifier());
-                            }
-                        }
-                    }
+                    consumer.process(identifier);
                     // continue looking for all implementing types
                     return true;
                 });
+            } else if (typeDefinition instanceof GraphQLUnionTypeDefinition) {
+                searchHelper.processUnionMembers(sourceElement, typeName, memberName -> {
+                    ProgressManager.checkCanceled();
+                    searchHelper.processDefinitions(sourceElement, memberName, GraphQLDefinitionIndex.DefinitionKind.TYPES, identifier -> {
+                        consumer.process(identifier);
+                        return true;
+                    });
+                    // continue looking for all member types
+                    return true;
+                });
             }
         }
 
@@ -17,16 +17,15 @@ import com.intellij.lang.injection.InjectedLanguageManager;
 import com.intellij.lang.jsgraphql.GraphQLFileType;
 import com.intellij.lang.jsgraphql.GraphQLLanguage;
 import com.intellij.lang.jsgraphql.ide.findUsages.GraphQLFindUsagesUtil;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLDefinitionIndex;
 import com.intellij.lang.jsgraphql.ide.indexing.GraphQLFragmentNameIndex;
 import com.intellij.lang.jsgraphql.ide.indexing.GraphQLIdentifierIndex;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLImplementationIndex;
 import com.intellij.lang.jsgraphql.ide.injection.GraphQLInjectionSearchHelper;
 import com.intellij.lang.jsgraphql.ide.introspection.GraphQLIntrospectionFilesManager;
 import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.GraphQLConfigManager;
 import com.intellij.lang.jsgraphql.ide.search.scope.GraphQLMetaInfSchemaSearchScope;
-import com.intellij.lang.jsgraphql.psi.GraphQLDefinition;
-import com.intellij.lang.jsgraphql.psi.GraphQLFile;
-import com.intellij.lang.jsgraphql.psi.GraphQLFragmentDefinition;
-import com.intellij.lang.jsgraphql.psi.GraphQLPsiUtil;
+import com.intellij.lang.jsgraphql.psi.*;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaChangeTracker;
 import com.intellij.lang.jsgraphql.schema.library.GraphQLLibraryRootsProvider;
 import com.intellij.openapi.Disposable;
@@ -35,12 +34,14 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.IndexNotReadyException;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.registry.Registry;
 import com.intellij.openapi.util.registry.RegistryValue;
 import com.intellij.openapi.util.registry.RegistryValueListener;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.AnyPsiChangeListener;
@@ -49,10 +50,14 @@ import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.GlobalSearchScopesCore;
 import com.intellij.psi.search.scope.packageSet.NamedScope;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.PairProcessor;
 import com.intellij.util.Processor;
+import com.intellij.util.SmartList;
+import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -64,6 +69,11 @@ public class GraphQLPsiSearchHelper implements Disposable {
 
     private static final String GRAPHQL_SEARCH_SCOPE_LIBRARIES_KEY = "graphql.search.scope.libraries";
 
+    private static final Set<GraphQLDefinitionIndex.DefinitionKind> IMPLEMENTATION_KINDS = EnumSet.of(
+        GraphQLDefinitionIndex.DefinitionKind.OBJECT_TYPE,
+        GraphQLDefinitionIndex.DefinitionKind.INTERFACE_TYPE,
+        GraphQLDefinitionIndex.DefinitionKind.TYPE_EXTENSION);
+
     private final Project myProject;
     private final GlobalSearchScope myDefaultProjectFileScope;
     private final GraphQLConfigManager myConfigManager;
@@ -101,7 +111,7 @@ public class GraphQLPsiSearchHelper implements Disposable {
                     myShouldSearchInLibraries = value.asBoolean();
                     PsiManager.getInstance(myProject).dropPsiCaches();
                     DaemonCodeAnalyzer.getInstance(myProject).restart();
-                    GraphQLSchemaChangeTracker.getInstance(myProject).schemaChanged();
+                    GraphQLSchemaChangeTracker.getInstance(myProject).schemaChanged("libraries search setting change");
                 }), ModalityState.NON_MODAL, myProject.getDisposed());
             }
         }, this);
@@ -165,52 +175,24 @@ public class GraphQLPsiSearchHelper implements Disposable {
     }
 
     /**
-     * Finds all fragment definitions inside the scope of the specified element
+     * Finds all fragment definitions inside the scope of the specified element.
+     * The editor features use {@link #processKnownFragments}, which doesn't load the PSI of the fragments,
+     * this one checks that the indexed fragment entries point to their definitions.
      *
      * @param context the starting point for finding known fragment definitions
      * @return a list of known fragment definitions, or an empty list if the index is not yet ready
      */
+    @TestOnly
     @NotNull
     public List<GraphQLFragmentDefinition> getKnownFragmentDefinitions(@NotNull PsiElement context) {
         try {
             final List<GraphQLFragmentDefinition> fragmentDefinitions = Lists.newArrayList();
-            GlobalSearchScope schemaScope = getResolveScope(context);
-            VirtualFile originalFile = GraphQLPsiUtil.getOriginalVirtualFile(context.getContainingFile());
-            if (originalFile != null && GraphQLFileType.isGraphQLScratchFile(myProject, originalFile)) {
-                // include the fragments defined in the currently edited scratch file (scratch files don't appear to be indexed)
-                fragmentDefinitions.addAll(PsiTreeUtil.getChildrenOfTypeAsList(context.getContainingFile().getOriginalFile(),
-                    GraphQLFragmentDefinition.class));
-            }
+            fragmentDefinitions.addAll(getScratchFileFragmentDefinitions(context));
 
-            final PsiManager psiManager = PsiManager.getInstance(myProject);
-
-            FileBasedIndex.getInstance().processFilesContainingAllKeys(GraphQLFragmentNameIndex.NAME,
-                Collections.singleton(GraphQLFragmentNameIndex.HAS_FRAGMENTS), schemaScope, null, virtualFile -> {
-
-                    final PsiFile psiFile = psiManager.findFile(virtualFile);
-                    if (psiFile != null) {
-                        final Ref<PsiRecursiveElementVisitor> identifierVisitor = Ref.create();
-                        identifierVisitor.set(new PsiRecursiveElementVisitor() {
-                            @Override
-                            public void visitElement(@NotNull PsiElement element) {
-                                if (element instanceof GraphQLDefinition) {
-                                    if (element instanceof GraphQLFragmentDefinition) {
-                                        fragmentDefinitions.add((GraphQLFragmentDefinition) element);
-                                    }
-                                    return; // no need to visit deeper than definitions since fragments are top level
-                                } else if (element instanceof PsiLanguageInjectionHost) {
-                                    if (visitLanguageInjectionHost((PsiLanguageInjectionHost) element, identifierVisitor)) {
-                                        return;
-                                    }
-                                }
-                                super.visitElement(element);
-                            }
-                        });
-                        psiFile.accept(identifierVisitor.get());
-                    }
-
-                    return true; // process all known fragments
-                });
+            processFragmentEntries(getResolveScope(context), (virtualFile, name, entry) -> {
+                fragmentDefinitions.addAll(findFragmentDefinitions(virtualFile, name, entry));
+                return true; // process all known fragments
+            });
             return fragmentDefinitions;
         } catch (IndexNotReadyException e) {
             // can't search yet (e.g. during project startup)
@@ -218,6 +200,114 @@ public class GraphQLPsiSearchHelper implements Disposable {
         return Collections.emptyList();
     }
 
+    /**
+     * Processes the names and type conditions of all fragments inside the scope of the specified element,
+     * the fragment definitions aren't loaded unless they're defined in the current scratch file.
+     *
+     * @param context   the starting point for finding known fragments
+     * @param processor called with the fragment name and the type name of its type condition, an empty string if it's missing
+     */
+    public void processKnownFragments(@NotNull PsiElement context, @NotNull PairProcessor<String, String> processor) {
+        try {
+            for (GraphQLFragmentDefinition fragmentDefinition : getScratchFileFragmentDefinitions(context)) {
+                final String name = fragmentDefinition.getName();
+                final GraphQLTypeCondition typeCondition = fragmentDefinition.getTypeCondition();
+                final GraphQLTypeName typeName = typeCondition != null ? typeCondition.getTypeName() : null;
+                if (name != null && !processor.process(name, typeName != null ? StringUtil.notNullize(typeName.getName()) : "")) {
+                    return;
+                }
+            }
+
+            processFragmentEntries(getResolveScope(context),
+                (virtualFile, name, entry) -> processor.process(name, entry.getTypeCondition()));
+        } catch (IndexNotReadyException e) {
+            // can't search yet (e.g. during project startup)
+        }
+    }
+
+    @NotNull
+    private List<GraphQLFragmentDefinition> getScratchFileFragmentDefinitions(@NotNull PsiElement context) {
+        VirtualFile originalFile = GraphQLPsiUtil.getOriginalVirtualFile(context.getContainingFile());
+        if (originalFile != null && GraphQLFileType.isGraphQLScratchFile(myProject, originalFile)) {
+            // include the fragments defined in the currently edited scratch file (scratch files don't appear to be indexed)
+            return PsiTreeUtil.getChildrenOfTypeAsList(context.getContainingFile().getOriginalFile(), GraphQLFragmentDefinition.class);
+        }
+        return Collections.emptyList();
+    }
+
+    private interface FragmentEntryProcessor {
+        boolean process(@NotNull VirtualFile virtualFile, @NotNull String name, @NotNull GraphQLFragmentNameIndex.FragmentEntry entry);
+    }
+
+    private void processFragmentEntries(@NotNull GlobalSearchScope scope, @NotNull FragmentEntryProcessor processor) {
+        final FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+        final List<String> names = new ArrayList<>();
+        fileBasedIndex.processAllKeys(GraphQLFragmentNameIndex.NAME, names::add, scope, null);
+        for (String name : names) {
+            ProgressManager.checkCanceled();
+            final boolean continueProcessing = fileBasedIndex.processValues(GraphQLFragmentNameIndex.NAME, name, null, (virtualFile, entries) -> {
+                for (GraphQLFragmentNameIndex.FragmentEntry entry : entries) {
+                    if (!processor.process(virtualFile, name, entry)) {
+                        return false;
+                    }
+                }
+                return true;
+            }, scope);
+            if (!continueProcessing) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Loads the fragment definitions for an index entry, only the injection host is visited for injected fragments
+     */
+    @NotNull
+    private List<GraphQLFragmentDefinition> findFragmentDefinitions(@NotNull VirtualFile virtualFile,
+                                                                    @NotNull String name,
+                                                                    @NotNull GraphQLFragmentNameIndex.FragmentEntry entry) {
+        final PsiFile psiFile = myPsiManager.findFile(virtualFile);
+        if (psiFile == null) {
+            return Collections.emptyList();
+        }
+        final PsiElement leaf = psiFile.findElementAt(entry.getOffset());
+        if (!entry.isInjected()) {
+            final GraphQLFragmentDefinition fragmentDefinition = PsiTreeUtil.getParentOfType(leaf, GraphQLFragmentDefinition.class);
+            if (fragmentDefinition != null && name.equals(fragmentDefinition.getName())) {
+                return Collections.singletonList(fragmentDefinition);
+            }
+            // the index is outdated compared to the PSI, e.g. the document isn't committed yet
+            return ContainerUtil.filter(PsiTreeUtil.getChildrenOfTypeAsList(psiFile, GraphQLFragmentDefinition.class),
+                definition -> name.equals(definition.getName()));
+        }
+
+        final List<GraphQLFragmentDefinition> fragmentDefinitions = new SmartList<>();
+        final Ref<PsiRecursiveElementVisitor> identifierVisitor = Ref.create();
+        identifierVisitor.set(new PsiRecursiveElementVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (element instanceof GraphQLDefinition) {
+                    if (element instanceof GraphQLFragmentDefinition && name.equals(((GraphQLFragmentDefinition) element).getName())) {
+                        fragmentDefinitions.add((GraphQLFragmentDefinition) element);
+                    }
+                    return; // no need to visit deeper than definitions since fragments are top level
+                } else if (element instanceof PsiLanguageInjectionHost) {
+                    if (visitLanguageInjectionHost((PsiLanguageInjectionHost) element, identifierVisitor)) {
+                        return;
+                    }
+                }
+                super.visitElement(element);
+            }
+        });
+        final PsiLanguageInjectionHost host = PsiTreeUtil.getParentOfType(leaf, PsiLanguageInjectionHost.class, false);
+        if (host != null && host.getTextRange().getStartOffset() == entry.getOffset()) {
+            host.accept(identifierVisitor.get());
+        } else {
+            psiFile.accept(identifierVisitor.get());
+        }
+        return fragmentDefinitions;
+    }
+
     /**
      * Visits the potential GraphQL injection inside an injection host
      *
@@ -238,55 +328,251 @@ public class GraphQLPsiSearchHelper implements Disposable {
     /**
      * Processes GraphQL identifiers whose name matches the specified word within the given schema scope.
      *
+     * Only the files which contain the word as one of the specified identifier kinds are visited.
+     *
      * @param schemaScope the schema scope which limits the processing
      * @param word        the word to match identifiers for
+     * @param kinds       the identifier kinds which make a file worth visiting
      * @param processor   processor called for all GraphQL identifiers whose name match the specified word
      * @see GraphQLIdentifierIndex
      */
     private void processElementsWithWordUsingIdentifierIndex(@NotNull GlobalSearchScope schemaScope,
                                                              @NotNull String word,
+                                                             @NotNull Set<GraphQLIdentifierIndex.IdentifierKind> kinds,
                                                              @NotNull Processor<PsiNamedElement> processor) {
-        FileBasedIndex.getInstance().getFilesWithKey(GraphQLIdentifierIndex.NAME, Collections.singleton(word), virtualFile -> {
-            final PsiFile psiFile = myPsiManager.findFile(virtualFile);
-            final Ref<Boolean> continueProcessing = Ref.create(true);
-            if (psiFile != null) {
-                final Set<GraphQLFile> introspectionFiles = Sets.newHashSetWithExpectedSize(1);
-                final Ref<PsiRecursiveElementVisitor> identifierVisitor = Ref.create();
-                identifierVisitor.set(new PsiRecursiveElementVisitor() {
-                    @Override
-                    public void visitElement(@NotNull PsiElement element) {
+        FileBasedIndex.getInstance().processValues(GraphQLIdentifierIndex.NAME, word, null, (virtualFile, fileKinds) -> {
+            if (Collections.disjoint(kinds, fileKinds)) {
+                return true; // the file only uses the word in other ways
+            }
+            return processElementsWithWordInFile(virtualFile, word, processor);
+        }, schemaScope);
+    }
+
+    /**
+     * Visits a file returned by one of the GraphQL indexes, including the GraphQL injections and introspection result files.
+     *
+     * @return false if the processor stopped the processing, true otherwise
+     */
+    private boolean processElementsWithWordInFile(@NotNull VirtualFile virtualFile,
+                                                  @NotNull String word,
+                                                  @NotNull Processor<PsiNamedElement> processor) {
+        final PsiFile psiFile = myPsiManager.findFile(virtualFile);
+        final Ref<Boolean> continueProcessing = Ref.create(true);
+        if (psiFile != null) {
+            final Set<GraphQLFile> introspectionFiles = Sets.newHashSetWithExpectedSize(1);
+            final Ref<PsiRecursiveElementVisitor> identifierVisitor = Ref.create();
+            identifierVisitor.set(new PsiRecursiveElementVisitor() {
+                @Override
+                public void visitElement(@NotNull PsiElement element) {
+                    if (!continueProcessing.get()) {
+                        return; // done visiting as the processor returned false
+                    }
+                    if (element instanceof PsiNamedElement) {
+                        final String name = ((PsiNamedElement) element).getName();
+                        if (word.equals(name)) {
+                            // found an element with a name that matches
+                            continueProcessing.set(processor.process((PsiNamedElement) element));
+                        }
                         if (!continueProcessing.get()) {
-                            return; // done visiting as the processor returned false
+                            return; // no need to visit other elements
                         }
-                        if (element instanceof PsiNamedElement) {
-                            final String name = ((PsiNamedElement) element).getName();
-                            if (word.equals(name)) {
-                                // found an element with a name that matches
-                                continueProcessing.set(processor.process((PsiNamedElement) element));
-                            }
-                            if (!continueProcessing.get()) {
-                                return; // no need to visit other elements
-                            }
-                        } else if (element instanceof JsonStringLiteral) {
-                            GraphQLFile introspectionSDL = GraphQLIntrospectionFilesManager.getOrCreateIntrospectionSDL(virtualFile, psiFile);
-                            if (introspectionFiles.add(introspectionSDL)) {
-                                // index the associated introspection SDL from a JSON introspection result file
-                                introspectionSDL.accept(identifierVisitor.get());
-                            }
-                            return; // no need to visit deeper
-                        } else if (element instanceof PsiLanguageInjectionHost) {
-                            if (visitLanguageInjectionHost((PsiLanguageInjectionHost) element, identifierVisitor)) {
-                                return;
-                            }
+                    } else if (element instanceof JsonStringLiteral) {
+                        GraphQLFile introspectionSDL = GraphQLIntrospectionFilesManager.getOrCreateIntrospectionSDL(virtualFile, psiFile);
+                        if (introspectionFiles.add(introspectionSDL)) {
+                            // index the associated introspection SDL from a JSON introspection result file
+                            introspectionSDL.accept(identifierVisitor.get());
+                        }
+                        return; // no need to visit deeper
+                    } else if (element instanceof PsiLanguageInjectionHost) {
+                        if (visitLanguageInjectionHost((PsiLanguageInjectionHost) element, identifierVisitor)) {
+                            return;
                         }
-                        super.visitElement(element);
                     }
+                    super.visitElement(element);
+                }
+            });
+
+            psiFile.accept(identifierVisitor.get());
+        }
+        return continueProcessing.get();
+    }
+
+    /**
+     * Processes the name identifiers of top-level definitions with the specified name and kinds, e.g. the name of a type definition.
+     * <p>
+     * GraphQL files are not visited, the identifiers are looked up at the offsets stored in the index.
+     *
+     * @param scopedElement the element which determines the schema scope
+     * @param name          the name of the definitions
+     * @param kinds         the kinds of definitions to process
+     * @param processor     processor called for the name identifiers of the matching definitions
+     * @see GraphQLDefinitionIndex
+     */
+    public void processDefinitions(@NotNull PsiElement scopedElement,
+                                   @NotNull String name,
+                                   @NotNull Set<GraphQLDefinitionIndex.DefinitionKind> kinds,
+                                   @NotNull Processor<GraphQLIdentifier> processor) {
+        try {
+            final GlobalSearchScope searchScope = getResolveScope(scopedElement);
+            final Processor<PsiNamedElement> namedElementProcessor = namedElement -> {
+                if (namedElement instanceof GraphQLIdentifier && isDefinitionName((GraphQLIdentifier) namedElement, kinds)) {
+                    return processor.process((GraphQLIdentifier) namedElement);
+                }
+                return true;
+            };
+
+            FileBasedIndex.getInstance().processValues(GraphQLDefinitionIndex.NAME, name, null, (virtualFile, entries) -> {
+                // the identifiers are only processed once all the entries are found, otherwise the file is visited instead,
+                // so the processor doesn't get the same identifier twice
+                final List<GraphQLIdentifier> identifiers = new SmartList<>();
+                for (GraphQLDefinitionIndex.Entry entry : entries) {
+                    if (!kinds.contains(entry.getKind())) {
+                        continue;
+                    }
+                    if (entry.getOffset() == GraphQLDefinitionIndex.Entry.UNKNOWN_OFFSET) {
+                        return processElementsWithWordInFile(virtualFile, name, namedElementProcessor);
+                    }
+                    final GraphQLIdentifier identifier = findIdentifierAt(virtualFile, entry.getOffset());
+                    if (identifier == null || !name.equals(identifier.getName()) || !isDefinitionName(identifier, kinds)) {
+                        // the index is outdated compared to the PSI, e.g. the document isn't committed yet
+                        return processElementsWithWordInFile(virtualFile, name, namedElementProcessor);
+                    }
+                    identifiers.add(identifier);
+                }
+                return ContainerUtil.process(identifiers, processor);
+            }, searchScope);
+
+            // finally, look in the current scratch file
+            final PsiFile containingFile = scopedElement.getContainingFile();
+            final VirtualFile originalVirtualFile = GraphQLPsiUtil.getOriginalVirtualFile(containingFile);
+            if (originalVirtualFile != null && GraphQLFileType.isGraphQLScratchFile(myProject, originalVirtualFile)) {
+                for (PsiElement child = containingFile.getFirstChild(); child != null; child = child.getNextSibling()) {
+                    final GraphQLIdentifier identifier = GraphQLDefinitionIndex.getNameIdentifier(child);
+                    if (identifier != null && name.equals(identifier.getName()) && isDefinitionName(identifier, kinds)) {
+                        if (!processor.process(identifier)) {
+                            return;
+                        }
+                    }
+                }
+            }
+        } catch (IndexNotReadyException e) {
+            // can't search yet (e.g. during project startup)
+        }
+    }
+
+    @Nullable
+    private GraphQLIdentifier findIdentifierAt(@NotNull VirtualFile virtualFile, int offset) {
+        final PsiFile psiFile = myPsiManager.findFile(virtualFile);
+        if (!(psiFile instanceof GraphQLFile)) {
+            return null;
+        }
+        final PsiElement leaf = psiFile.findElementAt(offset);
+        return leaf != null ? PsiTreeUtil.getParentOfType(leaf, GraphQLIdentifier.class, false) : null;
+    }
+
+    private static boolean isDefinitionName(@NotNull GraphQLIdentifier identifier,
+                                            @NotNull Set<GraphQLDefinitionIndex.DefinitionKind> kinds) {
+        PsiElement definition = identifier.getParent();
+        if (definition instanceof GraphQLTypeNameDefinition || definition instanceof GraphQLTypeName) {
+            definition = definition.getParent();
+        }
+        if (definition == null) {
+            return false;
+        }
+        final GraphQLDefinitionIndex.DefinitionKind kind = GraphQLDefinitionIndex.getDefinitionKind(definition);
+        return kind != null && kinds.contains(kind) && GraphQLDefinitionIndex.getNameIdentifier(definition) == identifier;
+    }
+
+    /**
+     * Processes the name identifiers of the type definitions and extensions which implement the specified interface.
+     *
+     * @see GraphQLImplementationIndex
+     */
+    public void processImplementations(@NotNull PsiElement scopedElement,
+                                       @NotNull String interfaceName,
+                                       @NotNull Processor<GraphQLIdentifier> processor) {
+        try {
+            final Set<GraphQLIdentifier> processed = new HashSet<>();
+            final Processor<GraphQLIdentifier> implementationProcessor = identifier -> {
+                if (!implementsInterface(identifier, interfaceName) || !processed.add(identifier)) {
+                    return true;
+                }
+                return processor.process(identifier);
+            };
+
+            final Set<String> unresolvedTypeNames = new LinkedHashSet<>();
+            final boolean completed = processImplementationEntries(getResolveScope(scopedElement), interfaceName,
+                GraphQLImplementationIndex.EntryKind.IMPLEMENTATION, (virtualFile, entry) -> {
+                    final GraphQLIdentifier identifier = entry.getOffset() != GraphQLImplementationIndex.Entry.UNKNOWN_OFFSET
+                        ? findIdentifierAt(virtualFile, entry.getOffset()) : null;
+                    if (identifier != null && entry.getTypeName().equals(identifier.getName())) {
+                        return implementationProcessor.process(identifier);
+                    }
+                    // injected, from an introspection result, or the index is outdated compared to the PSI
+                    unresolvedTypeNames.add(entry.getTypeName());
+                    return true;
                 });
+            if (!completed) {
+                return;
+            }
 
-                psiFile.accept(identifierVisitor.get());
+            final Ref<Boolean> continueProcessing = Ref.create(true);
+            for (String typeName : unresolvedTypeNames) {
+                processDefinitions(scopedElement, typeName, IMPLEMENTATION_KINDS, identifier -> {
+                    continueProcessing.set(implementationProcessor.process(identifier));
+                    return continueProcessing.get();
+                });
+                if (!continueProcessing.get()) {
+                    return;
+                }
             }
-            return continueProcessing.get();
-        }, schemaScope);
+        } catch (IndexNotReadyException e) {
+            // can't search yet (e.g. during project startup)
+        }
+    }
+
+    /**
+     * Processes the names of the member types of the specified union, including the members added by union extensions.
+     *
+     * @see GraphQLImplementationIndex
+     */
+    public void processUnionMembers(@NotNull PsiElement scopedElement,
+                                    @NotNull String unionName,
+                                    @NotNull Processor<String> processor) {
+        try {
+            final Set<String> processed = new HashSet<>();
+            processImplementationEntries(getResolveScope(scopedElement), unionName, GraphQLImplementationIndex.EntryKind.UNION_MEMBER,
+                (virtualFile, entry) -> !processed.add(entry.getTypeName()) || processor.process(entry.getTypeName()));
+        } catch (IndexNotReadyException e) {
+            // can't search yet (e.g. during project startup)
+        }
+    }
+
+    private static boolean processImplementationEntries(@NotNull GlobalSearchScope scope,
+                                                        @NotNull String name,
+                                                        @NotNull GraphQLImplementationIndex.EntryKind kind,
+                                                        @NotNull FileBasedIndex.ValueProcessor<GraphQLImplementationIndex.Entry> processor) {
+        return FileBasedIndex.getInstance().processValues(GraphQLImplementationIndex.NAME, name, null, (virtualFile, entries) -> {
+            for (GraphQLImplementationIndex.Entry entry : entries) {
+                if (entry.getKind() == kind && !processor.process(virtualFile, entry)) {
+                    return false;
+                }
+            }
+            return true;
+        }, scope);
+    }
+
+    private static boolean implementsInterface(@NotNull GraphQLIdentifier typeNameIdentifier, @NotNull String interfaceName) {
+        PsiElement definition = typeNameIdentifier.getParent();
+        if (definition instanceof GraphQLTypeNameDefinition || definition instanceof GraphQLTypeName) {
+            definition = definition.getParent();
+        }
+        if (definition == null || GraphQLDefinitionIndex.getNameIdentifier(definition) != typeNameIdentifier) {
+            return false;
+        }
+        final GraphQLImplementsInterfaces implementsInterfaces = PsiTreeUtil.getChildOfType(definition, GraphQLImplementsInterfaces.class);
+        return implementsInterfaces != null &&
+            ContainerUtil.exists(implementsInterfaces.getTypeNameList(), typeName -> interfaceName.equals(typeName.getName()));
     }
 
     /**
@@ -295,10 +581,21 @@ public class GraphQLPsiSearchHelper implements Disposable {
     public void processElementsWithWord(@NotNull PsiElement scopedElement,
                                         @NotNull String word,
                                         @NotNull Processor<PsiNamedElement> processor) {
+        processElementsWithWord(scopedElement, word, GraphQLIdentifierIndex.IdentifierKind.ALL, processor);
+    }
+
+    /**
+     * Processes all named elements that match the specified word in the files which use the word as one of the given kinds.
+     * The processor can still receive elements of other kinds from these files.
+     */
+    public void processElementsWithWord(@NotNull PsiElement scopedElement,
+                                        @NotNull String word,
+                                        @NotNull Set<GraphQLIdentifierIndex.IdentifierKind> kinds,
+                                        @NotNull Processor<PsiNamedElement> processor) {
         try {
             GlobalSearchScope searchScope = getResolveScope(scopedElement);
 
-            processElementsWithWordUsingIdentifierIndex(searchScope, word, processor);
+            processElementsWithWordUsingIdentifierIndex(searchScope, word, kinds, processor);
 
             final PsiRecursiveElementVisitor visitor = new PsiRecursiveElementVisitor() {
                 @Override
@@ -0,0 +1,201 @@
+package com.intellij.lang.jsgraphql.ide.validation;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.types.language.*;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
+import com.intellij.lang.jsgraphql.types.validation.ValidationError;
+import com.intellij.lang.jsgraphql.types.validation.Validator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Validates the operations and fragments of a GraphQL file, reusing the errors of the definitions which haven't changed.
+ * <p>
+ * The errors of a top-level definition are cached by the text of the definition and of the fragments it transitively spreads,
+ * for the schema they were validated against. An edit of one operation revalidates that operation and the definitions
+ * spreading a changed fragment, the other definitions keep their errors as long as the PSI elements of the errors survive the reparse.
+ */
+final class GraphQLDocumentValidator {
+
+    private static final String INCREMENTAL_VALIDATION_KEY = "graphql.validation.incremental";
+
+    private static final Key<ValidationResults> VALIDATION_RESULTS_KEY = Key.create("graphql.validation.results");
+
+    private static final class ValidationResults {
+        // the file outlives the schema, so it doesn't keep the outdated schema in memory
+        private final Reference<GraphQLSchema> mySchemaRef;
+        private final Map<HashCode, List<ValidationError>> myErrorsByDefinition;
+
+        ValidationResults(@NotNull GraphQLSchema schema, @NotNull Map<HashCode, List<ValidationError>> errorsByDefinition) {
+            mySchemaRef = new WeakReference<>(schema);
+            myErrorsByDefinition = errorsByDefinition;
+        }
+    }
+
+    private final GraphQLSchema mySchema;
+    private final GraphQLFile myFile;
+    private final Document myDocument;
+    private final Map<String, FragmentDefinition> myFragments = new HashMap<>();
+    private final Map<Node<?>, Set<String>> mySpreadsByNode = new IdentityHashMap<>();
+    private final Map<Node<?>, String> myTextByNode = new IdentityHashMap<>();
+
+    private GraphQLDocumentValidator(@NotNull GraphQLSchema schema, @NotNull GraphQLFile file) {
+        mySchema = schema;
+        myFile = file;
+        myDocument = file.getDocument();
+        for (Definition<?> definition : myDocument.getDefinitions()) {
+            if (definition instanceof FragmentDefinition) {
+                // the last fragment wins, like in the validation context
+                myFragments.put(((FragmentDefinition) definition).getName(), (FragmentDefinition) definition);
+            }
+        }
+    }
+
+    @NotNull
+    static List<ValidationError> validate(@NotNull GraphQLSchema schema, @NotNull GraphQLFile file) {
+        if (!Registry.is(INCREMENTAL_VALIDATION_KEY, true)) {
+            return new Validator().validateDocument(schema, file.getDocument());
+        }
+        return new GraphQLDocumentValidator(schema, file).validate();
+    }
+
+    @NotNull
+    private List<ValidationError> validate() {
+        Validator validator = new Validator();
+        List<ValidationError> errors = new ArrayList<>(validator.validateDocumentDefinitions(mySchema, myDocument));
+        // the context and the rules are shared by the definitions of the document
+        Validator.DefinitionValidator definitionValidator = validator.createDefinitionValidator(mySchema, myDocument);
+
+        ValidationResults previousResults = myFile.getUserData(VALIDATION_RESULTS_KEY);
+        Map<HashCode, List<ValidationError>> previousErrors =
+            previousResults != null && previousResults.mySchemaRef.get() == mySchema ? previousResults.myErrorsByDefinition : Collections.emptyMap();
+        Map<HashCode, List<ValidationError>> errorsByDefinition = new HashMap<>();
+
+        for (Definition<?> definition : myDocument.getDefinitions()) {
+            ProgressManager.checkCanceled();
+
+            HashCode key = getDefinitionKey(definition);
+            if (key == null || errorsByDefinition.containsKey(key)) {
+                // the errors of a duplicated definition belong to its own elements
+                errors.addAll(definitionValidator.validate(definition));
+                continue;
+            }
+
+            List<ValidationError> definitionErrors = previousErrors.get(key);
+            if (definitionErrors == null || !isReusable(definitionErrors)) {
+                definitionErrors = definitionValidator.validate(definition);
+            }
+            errorsByDefinition.put(key, definitionErrors);
+            errors.addAll(definitionErrors);
+        }
+
+        myFile.putUserData(VALIDATION_RESULTS_KEY, new ValidationResults(mySchema, errorsByDefinition));
+        return errors;
+    }
+
+    /**
+     * The hash of the definition text and the texts of the fragments it transitively spreads.
+     *
+     * @return null if a definition isn't backed by PSI, such definitions are always validated
+     */
+    @Nullable
+    private HashCode getDefinitionKey(@NotNull Definition<?> definition) {
+        String text = getText(definition);
+        if (text == null) {
+            return null;
+        }
+
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putString(text, StandardCharsets.UTF_8);
+
+        Set<String> visited = new TreeSet<>();
+        collectSpreadFragments(definition, visited);
+        for (String fragmentName : visited) {
+            FragmentDefinition fragment = myFragments.get(fragmentName);
+            String fragmentText = fragment != null ? getText(fragment) : null;
+            if (fragment != null && fragmentText == null) {
+                return null;
+            }
+            hasher.putString(fragmentName, StandardCharsets.UTF_8).putBoolean(fragment != null);
+            if (fragmentText != null) {
+                hasher.putString(fragmentText, StandardCharsets.UTF_8);
+            }
+        }
+        return hasher.hash();
+    }
+
+    private void collectSpreadFragments(@NotNull Node<?> node, @NotNull Set<String> visited) {
+        for (String fragmentName : getSpreads(node)) {
+            if (visited.add(fragmentName)) {
+                FragmentDefinition fragment = myFragments.get(fragmentName);
+                if (fragment != null) {
+                    collectSpreadFragments(fragment, visited);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private Set<String> getSpreads(@NotNull Node<?> definition) {
+        return mySpreadsByNode.computeIfAbsent(definition, node -> {
+            Set<String> spreads = new LinkedHashSet<>();
+            collectSpreads(node, spreads);
+            return spreads;
+        });
+    }
+
+    private static void collectSpreads(@NotNull Node<?> node, @NotNull Set<String> spreads) {
+        if (node instanceof FragmentSpread) {
+            spreads.add(((FragmentSpread) node).getName());
+        }
+        for (Node<?> child : node.getChildren()) {
+            if (child != null) {
+                collectSpreads(child, spreads);
+            }
+        }
+    }
+
+    @Nullable
+    private String getText(@NotNull Node<?> node) {
+        return myTextByNode.computeIfAbsent(node, n -> {
+            PsiElement element = n.getElement();
+            return element != null ? element.getText() : null;
+        });
+    }
+
+    /**
+     * The cached errors are annotated on their PSI elements, so they're only reused if the elements survived the reparse of the file.
+     */
+    private boolean isReusable(@NotNull List<ValidationError> errors) {
+        for (ValidationError error : errors) {
+            if (!isValidElement(error.getNode() != null ? error.getNode().getElement() : null)) {
+                List<SourceLocation> locations = error.getLocations();
+                if (locations == null || locations.isEmpty()) {
+                    return false;
+                }
+                for (SourceLocation location : locations) {
+                    if (!isValidElement(location.getElement())) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidElement(@Nullable PsiElement element) {
+        return element != null && element.isValid();
+    }
+}
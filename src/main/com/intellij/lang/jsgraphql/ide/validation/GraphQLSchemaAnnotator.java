@@ -21,7 +21,6 @@ import com.intellij.lang.jsgraphql.types.language.Node;
 import com.intellij.lang.jsgraphql.types.language.SourceLocation;
 import com.intellij.lang.jsgraphql.types.validation.ValidationError;
 import com.intellij.lang.jsgraphql.types.validation.ValidationErrorType;
-import com.intellij.lang.jsgraphql.types.validation.Validator;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.project.Project;
@@ -54,10 +53,13 @@ public class GraphQLSchemaAnnotator implements Annotator {
         if (GraphQLInspection.isEditorInspectionHighlightingDisabled(project, file)) return;
 
         try {
-            GraphQLSchemaInfo schemaInfo = GraphQLSchemaProvider.getInstance(project).getSchemaInfo(psiElement);
-            List<GraphQLError> schemaErrors = schemaInfo.getErrors(project);
-            if (!schemaErrors.isEmpty()) {
-                showSchemaErrors(annotationHolder, schemaErrors, file);
+            GraphQLSchemaInfo schemaInfo = GraphQLSchemaProvider.getInstance(project).getSchemaInfoIfBuilt(psiElement);
+            if (schemaInfo == null) {
+                // the highlighting is restarted once the schema is built
+                return;
+            }
+            if (!schemaInfo.getErrors(project).isEmpty()) {
+                showSchemaErrors(annotationHolder, schemaInfo.getErrors(project, file), file);
             } else {
                 showDocumentErrors(annotationHolder, schemaInfo, file);
             }
@@ -131,7 +133,7 @@ public class GraphQLSchemaAnnotator implements Annotator {
     }
 
     private @NotNull List<? extends GraphQLError> validateQueryDocument(@NotNull GraphQLSchemaInfo schemaInfo, @NotNull GraphQLFile file) {
-        return new Validator().validateDocument(schemaInfo.getSchema(), file.getDocument());
+        return GraphQLDocumentValidator.validate(schemaInfo.getSchema(), file);
     }
 
     private void showSchemaErrors(@NotNull AnnotationHolder annotationHolder,
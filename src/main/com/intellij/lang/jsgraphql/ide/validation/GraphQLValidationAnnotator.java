@@ -23,6 +23,7 @@ import com.intellij.lang.jsgraphql.psi.GraphQLArgument;
 import com.intellij.lang.jsgraphql.psi.GraphQLDirective;
 import com.intellij.lang.jsgraphql.psi.GraphQLFieldDefinition;
 import com.intellij.lang.jsgraphql.psi.*;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
 import com.intellij.lang.jsgraphql.schema.GraphQLSchemaUtil;
 import com.intellij.lang.jsgraphql.types.schema.*;
 import com.intellij.openapi.project.Project;
@@ -91,6 +92,10 @@ public class GraphQLValidationAnnotator implements Annotator {
     private void checkIdentifierReferences(@NotNull PsiElement element, @NotNull AnnotationHolder annotationHolder) {
         Project project = element.getProject();
 
+        if (GraphQLSchemaProvider.getInstance(project).getSchemaInfoIfBuilt(element) == null) {
+            // the references are resolved against the schema, the highlighting is restarted once it's built
+            return;
+        }
         final PsiReference reference = element.getReference();
         if (reference != null && reference.resolve() != null) {
             return;
@@ -17,6 +17,7 @@ import com.intellij.lang.jsgraphql.types.schema.GraphQLFieldsContainer;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class GraphQLFieldMixin extends GraphQLNamedElementImpl implements GraphQLField, GraphQLTypeScopeProvider {
     public GraphQLFieldMixin(@NotNull ASTNode node) {
@@ -25,6 +26,11 @@ public abstract class GraphQLFieldMixin extends GraphQLNamedElementImpl implemen
 
     @Override
     public GraphQLType getTypeScope() {
+        return GraphQLTypeScopeCache.getTypeScope(this, schema -> computeTypeScope());
+    }
+
+    @Nullable
+    private GraphQLType computeTypeScope() {
         final String fieldName = this.getName();
         if (fieldName != null) {
             // the type scope for a field is the output type of the field, given the name of the field and its parent
@@ -16,6 +16,7 @@ import com.intellij.lang.jsgraphql.types.schema.GraphQLInputObjectField;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class GraphQLObjectFieldMixin extends GraphQLNamedElementImpl implements GraphQLObjectField, GraphQLTypeScopeProvider {
     public GraphQLObjectFieldMixin(@NotNull ASTNode node) {
@@ -24,6 +25,11 @@ public abstract class GraphQLObjectFieldMixin extends GraphQLNamedElementImpl im
 
     @Override
     public GraphQLType getTypeScope() {
+        return GraphQLTypeScopeCache.getTypeScope(this, schema -> computeTypeScope());
+    }
+
+    @Nullable
+    private GraphQLType computeTypeScope() {
         if (getName() != null) {
             // the type scope for an object field the type of the field as defined in the parent type scope
             final GraphQLTypeScopeProvider typeScopeProvider = PsiTreeUtil.getParentOfType(this, GraphQLTypeScopeProvider.class);
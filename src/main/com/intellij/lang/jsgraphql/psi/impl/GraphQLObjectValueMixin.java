@@ -16,6 +16,7 @@ import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class GraphQLObjectValueMixin extends GraphQLValueImpl implements GraphQLObjectValue, GraphQLTypeScopeProvider {
     public GraphQLObjectValueMixin(@NotNull ASTNode node) {
@@ -24,6 +25,11 @@ public abstract class GraphQLObjectValueMixin extends GraphQLValueImpl implement
 
     @Override
     public GraphQLType getTypeScope() {
+        return GraphQLTypeScopeCache.getTypeScope(this, schema -> computeTypeScope());
+    }
+
+    @Nullable
+    private GraphQLType computeTypeScope() {
         final PsiElement parent = getParent();
         if (parent instanceof GraphQLArgument && parent instanceof GraphQLTypeScopeProvider) {
             // this object value is an argument value, so the type scope is defined by the argument type
@@ -0,0 +1,87 @@
+package com.intellij.lang.jsgraphql.psi.impl;
+
+import com.intellij.lang.jsgraphql.psi.GraphQLTypeScopeProvider;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaChangeTracker;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Memoizes the type scopes of the elements of a top-level definition, e.g. an operation or a fragment.
+ * <p>
+ * The type scope of a field is computed from the type scope of its parent, so without the cache the scopes of a deeply nested
+ * selection are computed again for every element below it. The scopes of a definition are dropped when its file or the schema changes,
+ * and they're recomputed when another schema is served for the definition, e.g. after a background build.
+ */
+final class GraphQLTypeScopeCache {
+
+    private static final Key<CachedValue<GraphQLTypeScopeCache>> TYPE_SCOPES_KEY = Key.create("graphql.type.scopes");
+
+    // ConcurrentHashMap doesn't allow null values
+    private static final Object NO_TYPE_SCOPE = new Object();
+
+    private GraphQLSchema mySchema;
+    private Map<PsiElement, Object> myTypeScopes = new ConcurrentHashMap<>();
+
+    private GraphQLTypeScopeCache() {
+    }
+
+    @Nullable
+    static GraphQLType getTypeScope(@NotNull GraphQLTypeScopeProvider element,
+                                    @NotNull Function<GraphQLSchema, GraphQLType> typeScopeComputation) {
+        GraphQLSchema schema = GraphQLSchemaProvider.getInstance(element.getProject()).getSchemaInfo(element).getSchema();
+        PsiElement definition = getTopLevelDefinition(element);
+        if (definition == null) {
+            return typeScopeComputation.apply(schema);
+        }
+
+        Map<PsiElement, Object> typeScopes = CachedValuesManager.getCachedValue(definition, TYPE_SCOPES_KEY, () ->
+            CachedValueProvider.Result.create(
+                new GraphQLTypeScopeCache(),
+                definition.getContainingFile(),
+                GraphQLSchemaChangeTracker.getInstance(definition.getProject()).getSchemaModificationTracker()
+            )
+        ).getTypeScopes(schema);
+
+        Object typeScope = typeScopes.get(element);
+        if (typeScope == null) {
+            // not computeIfAbsent, the computation looks up the type scope of the parent in the same map
+            GraphQLType computed = typeScopeComputation.apply(schema);
+            typeScope = computed != null ? computed : NO_TYPE_SCOPE;
+            typeScopes.putIfAbsent(element, typeScope);
+        }
+        return typeScope != NO_TYPE_SCOPE ? (GraphQLType) typeScope : null;
+    }
+
+    @NotNull
+    private synchronized Map<PsiElement, Object> getTypeScopes(@NotNull GraphQLSchema schema) {
+        if (mySchema != schema) {
+            mySchema = schema;
+            myTypeScopes = new ConcurrentHashMap<>();
+        }
+        return myTypeScopes;
+    }
+
+    @Nullable
+    private static PsiElement getTopLevelDefinition(@NotNull PsiElement element) {
+        PsiElement current = element;
+        PsiElement parent = current.getParent();
+        while (parent != null && !(parent instanceof PsiFile)) {
+            current = parent;
+            parent = current.getParent();
+        }
+        return parent != null ? current : null;
+    }
+}
@@ -19,13 +19,22 @@ public class GraphQLRegistryInfo {
     private final TypeDefinitionRegistry myRegistry;
     private final List<GraphQLException> myErrors;
     private final boolean myProcessedGraphQL;
+    private final GraphQLSchemaBuildMetrics myBuildMetrics;
 
     public GraphQLRegistryInfo(@NotNull TypeDefinitionRegistry registry,
                                @NotNull List<GraphQLException> errors,
                                boolean processedGraphQL) {
+        this(registry, errors, processedGraphQL, GraphQLSchemaBuildMetrics.EMPTY);
+    }
+
+    public GraphQLRegistryInfo(@NotNull TypeDefinitionRegistry registry,
+                               @NotNull List<GraphQLException> errors,
+                               boolean processedGraphQL,
+                               @NotNull GraphQLSchemaBuildMetrics buildMetrics) {
         myRegistry = registry;
         myErrors = errors;
         myProcessedGraphQL = processedGraphQL;
+        myBuildMetrics = buildMetrics;
     }
 
     public @NotNull TypeDefinitionRegistry getTypeDefinitionRegistry() {
@@ -42,4 +51,8 @@ public class GraphQLRegistryInfo {
     public boolean isProcessedGraphQL() {
         return myProcessedGraphQL;
     }
+
+    public @NotNull GraphQLSchemaBuildMetrics getBuildMetrics() {
+        return myBuildMetrics;
+    }
 }
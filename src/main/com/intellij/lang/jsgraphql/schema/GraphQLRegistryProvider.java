@@ -7,42 +7,58 @@
  */
 package com.intellij.lang.jsgraphql.schema;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.intellij.concurrency.JobLauncher;
 import com.intellij.json.JsonFileType;
 import com.intellij.lang.jsgraphql.GraphQLFileType;
 import com.intellij.lang.jsgraphql.endpoint.ide.project.JSGraphQLEndpointNamedTypeRegistry;
 import com.intellij.lang.jsgraphql.ide.introspection.GraphQLIntrospectionFilesManager;
 import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.GraphQLConfigManager;
 import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
 import com.intellij.lang.jsgraphql.psi.GraphQLPsiUtil;
 import com.intellij.lang.jsgraphql.types.GraphQLException;
 import com.intellij.lang.jsgraphql.types.InvalidSyntaxError;
+import com.intellij.lang.jsgraphql.types.language.Document;
 import com.intellij.lang.jsgraphql.types.language.SourceLocation;
 import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry;
 import com.intellij.lang.jsgraphql.types.schema.idl.errors.SchemaProblem;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
 import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicatorProvider;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.registry.Registry;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.util.TimeoutUtil;
+import com.intellij.util.CommonProcessors;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GraphQLRegistryProvider implements Disposable {
 
     private static final Logger LOG = Logger.getInstance(GraphQLRegistryProvider.class);
 
+    private static final String GRAPHQL_SCHEMA_INCREMENTAL_BUILD_KEY = "graphql.schema.build.incremental";
+    private static final String GRAPHQL_SCHEMA_BUILD_PARALLELISM_KEY = "graphql.schema.build.parallelism";
+    private static final int MIN_FILES_TO_LOAD_CONCURRENTLY = 16;
+    private static final Comparator<VirtualFile> FILE_PATH_COMPARATOR = Comparator.comparing(VirtualFile::getPath);
+
     private final GraphQLPsiSearchHelper graphQLPsiSearchHelper;
     private final Project myProject;
     private final GlobalSearchScope graphQLFilesScope;
@@ -50,8 +66,14 @@ public class GraphQLRegistryProvider implements Disposable {
     private final PsiManager psiManager;
     private final JSGraphQLEndpointNamedTypeRegistry graphQLEndpointNamedTypeRegistry;
     private final GraphQLConfigManager graphQLConfigManager;
+    private final ModificationTracker mySchemaModificationTracker;
+
+    private final Map<GlobalSearchScope, RegistryEntry> scopeToRegistry = Maps.newConcurrentMap();
+    // survives schema changes, so only the changed files are merged into the registry again
+    private final Map<GlobalSearchScope, GraphQLSchemaDocumentProcessor> scopeToProcessor = Maps.newConcurrentMap();
 
-    private final Map<GlobalSearchScope, GraphQLRegistryInfo> scopeToRegistry = Maps.newConcurrentMap();
+    private final AtomicLong myCacheHits = new AtomicLong();
+    private final AtomicLong myCacheMisses = new AtomicLong();
 
     public static GraphQLRegistryProvider getInstance(@NotNull Project project) {
         return ServiceManager.getService(project, GraphQLRegistryProvider.class);
@@ -66,39 +88,83 @@ public class GraphQLRegistryProvider implements Disposable {
         graphQLEndpointNamedTypeRegistry = JSGraphQLEndpointNamedTypeRegistry.getService(project);
         graphQLPsiSearchHelper = GraphQLPsiSearchHelper.getInstance(project);
         graphQLConfigManager = GraphQLConfigManager.getService(project);
+        mySchemaModificationTracker = GraphQLSchemaChangeTracker.getInstance(project).getSchemaModificationTracker();
 
-        project.getMessageBus().connect(this).subscribe(GraphQLSchemaChangeTracker.TOPIC, scopeToRegistry::clear);
+        project.getMessageBus().connect(this).subscribe(GraphQLSchemaChangeTracker.TOPIC, () -> {
+            // keep the processors only for the scopes requested since the previous change, other scopes are likely obsolete
+            scopeToProcessor.keySet().retainAll(scopeToRegistry.keySet());
+            scopeToRegistry.clear();
+        });
     }
 
+    /**
+     * The registry is built outside the cache map, so clearing the cache on a schema change never waits for a running build.
+     * The entries are tagged with the schema modification count the build was started for, so a registry built before a change
+     * and published after it is never served as an up-to-date one.
+     */
     @NotNull
     public GraphQLRegistryInfo getRegistryInfo(@NotNull PsiElement scopedElement) {
         // Get the search scope that limits schema definition for the scoped element
         GlobalSearchScope schemaScope = graphQLPsiSearchHelper.getResolveScope(scopedElement);
 
-        return scopeToRegistry.computeIfAbsent(schemaScope, s -> {
+        long modificationCount = mySchemaModificationTracker.getModificationCount();
+        RegistryEntry cachedEntry = scopeToRegistry.get(schemaScope);
+        if (cachedEntry != null && cachedEntry.myModificationCount >= modificationCount) {
+            myCacheHits.incrementAndGet();
+            return cachedEntry.myRegistryInfo;
+        }
+
+        myCacheMisses.incrementAndGet();
+        GraphQLRegistryInfo registryInfo = buildRegistryInfo(scopedElement, schemaScope);
+        return publish(schemaScope, new RegistryEntry(registryInfo, modificationCount)).myRegistryInfo;
+    }
+
+    @NotNull
+    private RegistryEntry publish(@NotNull GlobalSearchScope schemaScope, @NotNull RegistryEntry entry) {
+        while (true) {
+            RegistryEntry existing = scopeToRegistry.putIfAbsent(schemaScope, entry);
+            if (existing == null) {
+                return entry;
+            }
+            if (existing.myModificationCount > entry.myModificationCount) {
+                return existing;
+            }
+            if (scopeToRegistry.replace(schemaScope, existing, entry)) {
+                return entry;
+            }
+        }
+    }
+
+    @NotNull
+    private GraphQLRegistryInfo buildRegistryInfo(@NotNull PsiElement scopedElement, @NotNull GlobalSearchScope schemaScope) {
+        GraphQLSchemaBuildMetrics metrics =
+            new GraphQLSchemaBuildMetrics(GraphQLSchemaChangeTracker.getInstance(myProject).getLastChangeCause());
+
+        List<GraphQLException> errors = new ArrayList<>();
+        GraphQLSchemaDocumentProcessor processor = getDocumentProcessor(schemaScope);
+        TypeDefinitionRegistry registry;
+
+        synchronized (processor) {
+            processor.startProcessing();
+
+            // GraphQL files and JSON GraphQL introspection result files, the latter are read without creating the SDL files
             long start = System.nanoTime();
+            List<SchemaFile> schemaFiles = collectSchemaFiles(schemaScope);
+            metrics.setFilesCount(schemaFiles.size());
+            metrics.setIndexScanNanos(System.nanoTime() - start);
 
-            List<GraphQLException> errors = new ArrayList<>();
-            GraphQLSchemaDocumentProcessor processor = new GraphQLSchemaDocumentProcessor();
+            start = System.nanoTime();
+            loadDocuments(schemaFiles);
+            metrics.setDocumentsLoadNanos(System.nanoTime() - start);
 
-            // GraphQL files
-            FileTypeIndex.processFiles(GraphQLFileType.INSTANCE, file -> {
-                PsiFile psiFile = psiManager.findFile(file);
-                if (psiFile != null) {
-                    processor.process(psiFile);
+            start = System.nanoTime();
+            for (SchemaFile schemaFile : schemaFiles) {
+                errors.addAll(schemaFile.errors);
+                if (schemaFile.psiFile != null) {
+                    processor.process(schemaFile.psiFile);
+                } else if (schemaFile.document != null) {
+                    processor.processDocument(schemaFile.document);
                 }
-                return true;
-            }, graphQLFilesScope.intersectWith(schemaScope));
-
-            // JSON GraphQL introspection result files
-            if (!graphQLConfigManager.getConfigurationsByPath().isEmpty()) {
-                // need one or more configurations to be able to point "schemaPath" to relevant JSON files
-                // otherwise all JSON files would be in scope
-                FileTypeIndex.processFiles(
-                    JsonFileType.INSTANCE,
-                    file -> processJsonFile(processor, file, errors),
-                    jsonIntrospectionScope.intersectWith(schemaScope)
-                );
             }
 
             // Injected GraphQL
@@ -109,52 +175,145 @@ public class GraphQLRegistryProvider implements Disposable {
             if (virtualFile != null && graphQLConfigManager.getEndpointLanguageConfiguration(virtualFile, null) != null) {
                 final GraphQLRegistryInfo endpointTypesAsRegistry = graphQLEndpointNamedTypeRegistry.getTypesAsRegistry(scopedElement);
                 try {
-                    processor.getCompositeRegistry().merge(endpointTypesAsRegistry.getTypeDefinitionRegistry());
+                    processor.processRegistry(endpointTypesAsRegistry.getTypeDefinitionRegistry());
                     errors.addAll(endpointTypesAsRegistry.getErrors());
                 } catch (GraphQLException e) {
                     errors.add(e);
                 }
             }
 
-            TypeDefinitionRegistry registry = processor.getCompositeRegistry().buildTypeDefinitionRegistry();
+            processor.finishProcessing();
+            registry = processor.getCompositeRegistry().buildTypeDefinitionRegistry();
+            // also includes the injected and endpoint language definitions
+            metrics.setMergeNanos(System.nanoTime() - start);
+        }
 
-            if (LOG.isDebugEnabled()) {
-                long durationMillis = TimeoutUtil.getDurationMillis(start);
-                VirtualFile file = GraphQLPsiUtil.getPhysicalVirtualFile(scopedElement.getContainingFile());
-                String requester = file != null ? file.getPath() : "<unknown>";
-                LOG.debug(String.format("Registry build completed in %d ms, requester: %s", durationMillis, requester));
-            }
-            return new GraphQLRegistryInfo(registry, errors, processor.isProcessed());
-        });
+        return new GraphQLRegistryInfo(registry, errors, processor.isProcessed(), metrics);
+    }
 
+    public long getCacheHits() {
+        return myCacheHits.get();
     }
 
-    private boolean processJsonFile(@NotNull GraphQLSchemaDocumentProcessor processor,
-                                    @NotNull VirtualFile file,
-                                    @NotNull List<GraphQLException> errors) {
-        // only JSON files that are directly referenced as "schemaPath" from the .graphqlconfig will be
-        // considered within scope, so we can just go ahead and try to turn the JSON into GraphQL
-        final PsiFile psiFile = psiManager.findFile(file);
+    public long getCacheMisses() {
+        return myCacheMisses.get();
+    }
+
+    @NotNull
+    private GraphQLSchemaDocumentProcessor getDocumentProcessor(@NotNull GlobalSearchScope schemaScope) {
+        if (!Registry.is(GRAPHQL_SCHEMA_INCREMENTAL_BUILD_KEY)) {
+            return new GraphQLSchemaDocumentProcessor();
+        }
+        return scopeToProcessor.computeIfAbsent(schemaScope, s -> new GraphQLSchemaDocumentProcessor());
+    }
+
+    /**
+     * The files are sorted by path, so the definitions are always merged in the same order regardless of the index iteration order.
+     */
+    @NotNull
+    private List<SchemaFile> collectSchemaFiles(@NotNull GlobalSearchScope schemaScope) {
+        List<VirtualFile> graphQLFiles = new ArrayList<>();
+        FileTypeIndex.processFiles(GraphQLFileType.INSTANCE, new CommonProcessors.CollectProcessor<>(graphQLFiles),
+            graphQLFilesScope.intersectWith(schemaScope));
+        graphQLFiles.sort(FILE_PATH_COMPARATOR);
+
+        List<VirtualFile> jsonFiles = new ArrayList<>();
+        if (!graphQLConfigManager.getConfigurationsByPath().isEmpty()) {
+            // need one or more configurations to be able to point "schemaPath" to relevant JSON files
+            // otherwise all JSON files would be in scope
+            FileTypeIndex.processFiles(JsonFileType.INSTANCE, new CommonProcessors.CollectProcessor<>(jsonFiles),
+                jsonIntrospectionScope.intersectWith(schemaScope));
+            jsonFiles.sort(FILE_PATH_COMPARATOR);
+        }
+
+        List<SchemaFile> schemaFiles = new ArrayList<>(graphQLFiles.size() + jsonFiles.size());
+        graphQLFiles.forEach(file -> schemaFiles.add(new SchemaFile(file, false)));
+        jsonFiles.forEach(file -> schemaFiles.add(new SchemaFile(file, true)));
+        return schemaFiles;
+    }
+
+    /**
+     * Creates the PSI and the documents of the files, which are independent of each other, so it's done concurrently for larger schemas.
+     * The number of the concurrent tasks is limited by the {@link #GRAPHQL_SCHEMA_BUILD_PARALLELISM_KEY} registry key,
+     * each task loads a contiguous chunk of the files. Only the loading is concurrent, the documents are merged afterwards
+     * in the order of the files.
+     */
+    private void loadDocuments(@NotNull List<SchemaFile> schemaFiles) {
+        int parallelism = Math.max(1, Registry.intValue(GRAPHQL_SCHEMA_BUILD_PARALLELISM_KEY));
+        if (parallelism == 1 || schemaFiles.size() < MIN_FILES_TO_LOAD_CONCURRENTLY) {
+            schemaFiles.forEach(this::loadDocument);
+            return;
+        }
+
+        int chunkSize = (schemaFiles.size() + parallelism - 1) / parallelism;
+        ProgressIndicator indicator = ProgressIndicatorProvider.getGlobalProgressIndicator();
+        // the tasks are run in a read action if it's held by the calling thread
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(
+            Lists.partition(schemaFiles, chunkSize),
+            indicator != null ? indicator : new EmptyProgressIndicator(),
+            chunk -> {
+                chunk.forEach(this::loadDocument);
+                return true;
+            }
+        );
+    }
+
+    private void loadDocument(@NotNull SchemaFile schemaFile) {
+        PsiFile psiFile = psiManager.findFile(schemaFile.file);
         if (psiFile == null) {
-            return true;
+            return;
+        }
+
+        if (schemaFile.isJson) {
+            // only JSON files that are directly referenced as "schemaPath" from the .graphqlconfig will be
+            // considered within scope, so we can just go ahead and read the schema definitions from the JSON
+            try {
+                schemaFile.document = GraphQLIntrospectionFilesManager.getOrCreateIntrospectionDocument(psiFile);
+            } catch (ProcessCanceledException e) {
+                throw e;
+            } catch (SchemaProblem e) {
+                schemaFile.errors.add(e);
+            } catch (Exception e) {
+                final List<SourceLocation> sourceLocation = Collections.singletonList(
+                    new SourceLocation(1, 1, GraphQLPsiUtil.getFileName(psiFile)));
+                schemaFile.errors.add(new SchemaProblem(Collections.singletonList(new InvalidSyntaxError(sourceLocation, e.getMessage()))));
+            }
+            return;
         }
 
-        try {
-            processor.process(GraphQLIntrospectionFilesManager.getOrCreateIntrospectionSDL(file, psiFile));
-        } catch (ProcessCanceledException e) {
-            throw e;
-        } catch (SchemaProblem e) {
-            errors.add(e);
-        } catch (Exception e) {
-            final List<SourceLocation> sourceLocation = Collections.singletonList(
-                new SourceLocation(1, 1, GraphQLPsiUtil.getFileName(psiFile)));
-            errors.add(new SchemaProblem(Collections.singletonList(new InvalidSyntaxError(sourceLocation, e.getMessage()))));
+        if (psiFile instanceof GraphQLFile) {
+            // memoized per modification, so the processor gets the already converted document
+            ((GraphQLFile) psiFile).getDocument();
+            GraphQLSchemaChangeTracker.seedSchemaSignature((GraphQLFile) psiFile);
         }
-        return true;
+        schemaFile.psiFile = psiFile;
     }
 
     @Override
     public void dispose() {
     }
 
+    private static final class SchemaFile {
+        private final VirtualFile file;
+        private final boolean isJson;
+        private final List<GraphQLException> errors = new ArrayList<>();
+        private PsiFile psiFile;
+        // the document of a JSON introspection file
+        private Document document;
+
+        private SchemaFile(@NotNull VirtualFile file, boolean isJson) {
+            this.file = file;
+            this.isJson = isJson;
+        }
+    }
+
+    private static final class RegistryEntry {
+        private final GraphQLRegistryInfo myRegistryInfo;
+        private final long myModificationCount;
+
+        private RegistryEntry(@NotNull GraphQLRegistryInfo registryInfo, long modificationCount) {
+            myRegistryInfo = registryInfo;
+            myModificationCount = modificationCount;
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event emitted for each schema build, the event is cheap to create when the recording is disabled.
+ * It's committed once the schema is generated, the lazy validation is reported by {@link GraphQLSchemaValidationEvent}.
+ */
+@Name("com.intellij.lang.jsgraphql.SchemaBuild")
+@Label("GraphQL Schema Build")
+@Category("GraphQL")
+@Description("Phases of a GraphQL schema build")
+final class GraphQLSchemaBuildEvent extends jdk.jfr.Event {
+
+    @Label("Files")
+    int files;
+
+    @Label("Index Scan")
+    @Timespan(Timespan.MILLISECONDS)
+    long indexScan;
+
+    @Label("Documents Load")
+    @Timespan(Timespan.MILLISECONDS)
+    long documentsLoad;
+
+    @Label("Merge")
+    @Timespan(Timespan.MILLISECONDS)
+    long merge;
+
+    @Label("Schema Generation")
+    @Timespan(Timespan.MILLISECONDS)
+    long schemaGeneration;
+
+    @Label("Invalidation Cause")
+    String cause;
+
+    @Label("Requester")
+    String requester;
+
+    void fill(@NotNull GraphQLSchemaBuildMetrics metrics, @NotNull String requester) {
+        files = metrics.getFilesCount();
+        indexScan = metrics.getIndexScanMillis();
+        documentsLoad = metrics.getDocumentsLoadMillis();
+        merge = metrics.getMergeMillis();
+        schemaGeneration = metrics.getSchemaGenerationMillis();
+        cause = metrics.getInvalidationCause();
+        this.requester = requester;
+    }
+}
@@ -0,0 +1,155 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Timings and counters of a single schema build, the schema phases can be filled later on another thread.
+ * <p>
+ * The registry phases are filled by {@link GraphQLRegistryProvider}, the schema phases by {@link GraphQLSchemaProviderImpl}
+ * on a copy, because a cached registry can be used by several schema builds. Only the first copy has the registry timings,
+ * the schema builds using the cached registry don't spend any time on it.
+ */
+public final class GraphQLSchemaBuildMetrics {
+
+    public static final GraphQLSchemaBuildMetrics EMPTY = new GraphQLSchemaBuildMetrics("none");
+
+    private final String myInvalidationCause;
+
+    private volatile int myFilesCount;
+    private volatile long myIndexScanNanos;
+    private volatile long myDocumentsLoadNanos;
+    private volatile long myMergeNanos;
+    private volatile long mySchemaGenerationNanos;
+    private volatile long myValidationNanos;
+    private final AtomicBoolean myRegistryPhasesCopied = new AtomicBoolean();
+
+    private volatile long myRegistryCacheHits;
+    private volatile long myRegistryCacheMisses;
+    private volatile long mySchemaCacheHits;
+    private volatile long mySchemaCacheMisses;
+
+    GraphQLSchemaBuildMetrics(@NotNull String invalidationCause) {
+        myInvalidationCause = invalidationCause;
+    }
+
+    @NotNull
+    GraphQLSchemaBuildMetrics copy() {
+        GraphQLSchemaBuildMetrics copy = new GraphQLSchemaBuildMetrics(myInvalidationCause);
+        copy.myFilesCount = myFilesCount;
+        if (myRegistryPhasesCopied.compareAndSet(false, true)) {
+            copy.myIndexScanNanos = myIndexScanNanos;
+            copy.myDocumentsLoadNanos = myDocumentsLoadNanos;
+            copy.myMergeNanos = myMergeNanos;
+        }
+        return copy;
+    }
+
+    /**
+     * The reason of the schema change which made the previous schema outdated, see {@link GraphQLSchemaChangeTracker}.
+     */
+    public @NotNull String getInvalidationCause() {
+        return myInvalidationCause;
+    }
+
+    public int getFilesCount() {
+        return myFilesCount;
+    }
+
+    public long getIndexScanMillis() {
+        return toMillis(myIndexScanNanos);
+    }
+
+    /**
+     * PSI creation, introspection JSON conversion and PSI to AST conversion
+     */
+    public long getDocumentsLoadMillis() {
+        return toMillis(myDocumentsLoadNanos);
+    }
+
+    public long getMergeMillis() {
+        return toMillis(myMergeNanos);
+    }
+
+    public long getSchemaGenerationMillis() {
+        return toMillis(mySchemaGenerationNanos);
+    }
+
+    public long getValidationMillis() {
+        return toMillis(myValidationNanos);
+    }
+
+    public long getTotalMillis() {
+        return toMillis(myIndexScanNanos + myDocumentsLoadNanos + myMergeNanos + mySchemaGenerationNanos + myValidationNanos);
+    }
+
+    public long getRegistryCacheHits() {
+        return myRegistryCacheHits;
+    }
+
+    public long getRegistryCacheMisses() {
+        return myRegistryCacheMisses;
+    }
+
+    public long getSchemaCacheHits() {
+        return mySchemaCacheHits;
+    }
+
+    public long getSchemaCacheMisses() {
+        return mySchemaCacheMisses;
+    }
+
+    void setFilesCount(int filesCount) {
+        myFilesCount = filesCount;
+    }
+
+    void setIndexScanNanos(long nanos) {
+        myIndexScanNanos = nanos;
+    }
+
+    void setDocumentsLoadNanos(long nanos) {
+        myDocumentsLoadNanos = nanos;
+    }
+
+    void setMergeNanos(long nanos) {
+        myMergeNanos = nanos;
+    }
+
+    void setSchemaGenerationNanos(long nanos) {
+        mySchemaGenerationNanos = nanos;
+    }
+
+    void setValidationNanos(long nanos) {
+        myValidationNanos = nanos;
+    }
+
+    void setCacheCounts(long registryHits, long registryMisses, long schemaHits, long schemaMisses) {
+        myRegistryCacheHits = registryHits;
+        myRegistryCacheMisses = registryMisses;
+        mySchemaCacheHits = schemaHits;
+        mySchemaCacheMisses = schemaMisses;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * A single line of key-value pairs, suitable for log processing.
+     */
+    @Override
+    public String toString() {
+        return "files=" + myFilesCount +
+            " total=" + getTotalMillis() + "ms" +
+            " indexScan=" + getIndexScanMillis() + "ms" +
+            " documentsLoad=" + getDocumentsLoadMillis() + "ms" +
+            " merge=" + getMergeMillis() + "ms" +
+            " schemaGeneration=" + getSchemaGenerationMillis() + "ms" +
+            " validation=" + getValidationMillis() + "ms" +
+            " registryCache=" + myRegistryCacheHits + "/" + (myRegistryCacheHits + myRegistryCacheMisses) +
+            " schemaCache=" + mySchemaCacheHits + "/" + (mySchemaCacheHits + mySchemaCacheMisses) +
+            " cause=\"" + myInvalidationCause + "\"";
+    }
+}
@@ -19,20 +19,37 @@ import com.intellij.lang.jsgraphql.psi.GraphQLTemplateDefinition;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.application.impl.NonBlockingReadActionImpl;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.PsiTreeChangeEventImpl;
+import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.messages.MessageBusConnection;
 import com.intellij.util.messages.Topic;
+import com.intellij.util.ui.UIUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Tracks PSI changes that can affect declared GraphQL schemas
@@ -41,6 +58,15 @@ public class GraphQLSchemaChangeTracker implements Disposable {
 
     private static final Logger LOG = Logger.getInstance(GraphQLSchemaChangeTracker.class);
 
+    private static final String GRAPHQL_SCHEMA_STRUCTURAL_CHANGES_KEY = "graphql.schema.change.structural";
+    private static final String GRAPHQL_SCHEMA_CHANGE_DEBOUNCE_KEY = "graphql.schema.change.debounce";
+    private static final int MAX_REPORTED_CAUSES = 3;
+
+    /**
+     * The structural signature of a GraphQL file at the moment when it was last checked for schema changes
+     */
+    private static final Key<String> SCHEMA_SIGNATURE_KEY = Key.create("JSGraphQL.SchemaSignature");
+
     @Topic.ProjectLevel
     public final static Topic<GraphQLSchemaChangeListener> TOPIC = new Topic<>(
         "GraphQL Schema Change Events",
@@ -54,6 +80,15 @@ public class GraphQLSchemaChangeTracker implements Disposable {
 
     private final Project myProject;
     private final SimpleModificationTracker myModificationTracker = new SimpleModificationTracker();
+    private final Set<GraphQLFile> myChangedFiles = ContainerUtil.newConcurrentSet();
+    // the files whose elements could be referenced by the schema nodes were replaced, e.g. by a reparse
+    private final Set<GraphQLFile> myInvalidatedFiles = ContainerUtil.newConcurrentSet();
+    private final Queue<String> myPendingCauses = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean myBatchPending = new AtomicBoolean();
+    private final Alarm myFlushAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, this);
+    private final AtomicLong mySuppressedEventsCount = new AtomicLong();
+    private volatile String myLastChangeCause = "initial build";
+    private volatile int myTestDebounceDelay;
 
     public GraphQLSchemaChangeTracker(Project project) {
         myProject = project;
@@ -62,16 +97,185 @@ public class GraphQLSchemaChangeTracker implements Disposable {
 
         // also consider the schema changed when the underlying schema configuration files change
         MessageBusConnection connection = myProject.getMessageBus().connect(this);
-        connection.subscribe(GraphQLConfigManager.TOPIC, this::schemaChanged);
+        connection.subscribe(GraphQLConfigManager.TOPIC, () -> schemaChanged("configuration change"));
     }
 
     public void schemaChanged() {
-        LOG.debug("GraphQL schema cache invalidated", LOG.isTraceEnabled() ? new Throwable() : null);
+        schemaChanged("explicit request");
+    }
+
+    /**
+     * The changes are coalesced within the {@link #GRAPHQL_SCHEMA_CHANGE_DEBOUNCE_KEY} window and the listeners are notified once per batch.
+     *
+     * @param cause a short human-readable reason of the change, reported in the schema build metrics
+     */
+    public void schemaChanged(@NotNull String cause) {
+        LOG.debug("GraphQL schema change: " + cause, LOG.isTraceEnabled() ? new Throwable() : null);
+
+        myPendingCauses.add(cause);
+        scheduleFlush();
+    }
+
+    /**
+     * Invalidates the schema only if the type system definitions of the file changed structurally,
+     * e.g. edits of comments and formatting are ignored unless they replaced the elements the schema nodes point to.
+     */
+    private void schemaFileChanged(@NotNull GraphQLFile file, boolean elementsInvalidated) {
+        if (!Registry.is(GRAPHQL_SCHEMA_STRUCTURAL_CHANGES_KEY)) {
+            schemaChanged("edit of " + file.getName());
+            return;
+        }
+
+        if (elementsInvalidated) {
+            myInvalidatedFiles.add(file);
+        }
+        myChangedFiles.add(file);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!myBatchPending.compareAndSet(false, true)) {
+            // joins the batch which is already scheduled
+            mySuppressedEventsCount.incrementAndGet();
+        }
+
+        int delay = getDebounceDelay();
+        if (delay > 0) {
+            // every change postpones the batch, so it's flushed once the changes stop for the whole delay
+            myFlushAlarm.cancelAllRequests();
+            myFlushAlarm.addRequest(this::flushChanges, delay);
+        } else {
+            flushChanges();
+        }
+    }
+
+    /**
+     * The signatures of the changed files are computed in a non-blocking read action, a newer batch cancels the computation
+     * of the previous one. Nothing is stored by the computation itself since it can be restarted, the signatures are compared
+     * and stored on the UI thread together with publishing the change.
+     */
+    private void flushChanges() {
+        List<GraphQLFile> changedFiles = new ArrayList<>(myChangedFiles);
+        ReadAction.nonBlocking(() -> computeSchemaSignatures(changedFiles))
+            .coalesceBy(this)
+            .expireWith(this)
+            .finishOnUiThread(ModalityState.NON_MODAL, this::applyChanges)
+            .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    @NotNull
+    private static Map<GraphQLFile, SchemaSignature> computeSchemaSignatures(@NotNull List<GraphQLFile> files) {
+        Map<GraphQLFile, SchemaSignature> signatures = new LinkedHashMap<>();
+        for (GraphQLFile file : files) {
+            ProgressManager.checkCanceled();
+            signatures.put(file, file.isValid()
+                ? new SchemaSignature(file.getModificationStamp(), GraphQLSchemaSignature.compute(file.getDocument()))
+                : new SchemaSignature(file.getModificationStamp(), null));
+        }
+        return signatures;
+    }
+
+    private void applyChanges(@NotNull Map<GraphQLFile, SchemaSignature> signatures) {
+        // the changes made from now on are handled by the next batch
+        myBatchPending.set(false);
+
+        Set<String> causes = new LinkedHashSet<>();
+        signatures.forEach((file, signature) -> {
+            if (file.isValid() && file.getModificationStamp() != signature.myModificationStamp) {
+                // edited again after the computation, the batch scheduled by that edit compares it
+                return;
+            }
+            myChangedFiles.remove(file);
+            boolean elementsInvalidated = myInvalidatedFiles.remove(file);
+            // all the signatures should be updated, so don't stop on the first changed file
+            if (updateSchemaSignature(file, signature.mySignature)) {
+                causes.add("structural change of " + file.getName());
+            } else if (elementsInvalidated) {
+                // the schema is the same, but its nodes point to the invalid elements, so the errors can't be highlighted
+                causes.add("invalidated elements of " + file.getName());
+            }
+        });
+        String pendingCause;
+        while ((pendingCause = myPendingCauses.poll()) != null) {
+            causes.add(pendingCause);
+        }
+
+        if (!causes.isEmpty()) {
+            String cause = causes.size() <= MAX_REPORTED_CAUSES
+                ? StringUtil.join(causes, ", ")
+                : StringUtil.join(ContainerUtil.getFirstItems(new ArrayList<>(causes), MAX_REPORTED_CAUSES), ", ") +
+                  " and " + (causes.size() - MAX_REPORTED_CAUSES) + " more";
+            LOG.debug("GraphQL schema cache invalidated: " + cause);
+            notifySchemaChanged(cause);
+        }
+
+        if (!myChangedFiles.isEmpty()) {
+            // the files edited during the computation
+            scheduleFlush();
+        }
+    }
+
+    private int getDebounceDelay() {
+        if (ApplicationManager.getApplication().isUnitTestMode()) {
+            // tests expect the changes to be applied once the pending events are dispatched, unless the debouncing is tested
+            return myTestDebounceDelay;
+        }
+        return Registry.intValue(GRAPHQL_SCHEMA_CHANGE_DEBOUNCE_KEY);
+    }
+
+    @TestOnly
+    public void setDebounceDelay(int delay, @NotNull Disposable parentDisposable) {
+        int previousDelay = myTestDebounceDelay;
+        myTestDebounceDelay = delay;
+        Disposer.register(parentDisposable, () -> myTestDebounceDelay = previousDelay);
+    }
+
+    /**
+     * Flushes the batch which is waiting for the debounce delay and waits until the listeners are notified.
+     */
+    @TestOnly
+    public void waitForPendingChanges() {
+        ApplicationManager.getApplication().assertIsDispatchThread();
+        myFlushAlarm.drainRequestsInTest();
+        NonBlockingReadActionImpl.waitForAsyncTaskCompletion();
+        UIUtil.dispatchAllInvocationEvents();
+    }
+
+    /**
+     * The number of change events which were coalesced into already scheduled batches since the project was opened.
+     */
+    public long getSuppressedEventsCount() {
+        return mySuppressedEventsCount.get();
+    }
 
-        ApplicationManager.getApplication().invokeLater(() -> {
-            myModificationTracker.incModificationCount();
-            myProject.getMessageBus().syncPublisher(GraphQLSchemaChangeTracker.TOPIC).onSchemaChanged();
-        }, ModalityState.NON_MODAL, myProject.getDisposed());
+    /**
+     * Stores the signature of a file loaded for a schema build unless it's already known, so the first edit of the file
+     * is compared with the state the schema was built from instead of always being reported as a change.
+     * The schemas are built in the background, so the signatures are computed there as well.
+     */
+    static void seedSchemaSignature(@NotNull GraphQLFile file) {
+        if (Registry.is(GRAPHQL_SCHEMA_STRUCTURAL_CHANGES_KEY) && file.getUserData(SCHEMA_SIGNATURE_KEY) == null) {
+            file.putUserData(SCHEMA_SIGNATURE_KEY, GraphQLSchemaSignature.compute(file.getDocument()));
+        }
+    }
+
+    /**
+     * @return true if the signature differs from the previous one or wasn't computed before
+     */
+    private static boolean updateSchemaSignature(@NotNull GraphQLFile file, @Nullable String signature) {
+        if (signature == null || !file.isValid()) {
+            return true;
+        }
+
+        String previousSignature = file.getUserData(SCHEMA_SIGNATURE_KEY);
+        file.putUserData(SCHEMA_SIGNATURE_KEY, signature);
+        return !signature.equals(previousSignature);
+    }
+
+    private void notifySchemaChanged(@NotNull String cause) {
+        myLastChangeCause = cause;
+        myModificationTracker.incModificationCount();
+        myProject.getMessageBus().syncPublisher(GraphQLSchemaChangeTracker.TOPIC).onSchemaChanged();
     }
 
     @NotNull
@@ -79,10 +283,28 @@ public class GraphQLSchemaChangeTracker implements Disposable {
         return myModificationTracker;
     }
 
+    /**
+     * The cause of the latest schema change, the schemas built after it are affected by this change.
+     */
+    @NotNull
+    public String getLastChangeCause() {
+        return myLastChangeCause;
+    }
+
     @Override
     public void dispose() {
     }
 
+    private static final class SchemaSignature {
+        private final long myModificationStamp;
+        private final @Nullable String mySignature;
+
+        private SchemaSignature(long modificationStamp, @Nullable String signature) {
+            myModificationStamp = modificationStamp;
+            mySignature = signature;
+        }
+    }
+
     /**
      * always consider the schema changed when editing an endpoint file
      * change in injection target
@@ -91,23 +313,34 @@ public class GraphQLSchemaChangeTracker implements Disposable {
      */
     private class GraphQLSchemaPsiChangeListener extends PsiTreeChangeAdapter {
         private void checkForSchemaChange(@NotNull PsiTreeChangeEvent event) {
+            checkForSchemaChange(event, null);
+        }
+
+        /**
+         * @param removedElement the element removed or replaced by the change, it's invalid by now
+         */
+        private void checkForSchemaChange(@NotNull PsiTreeChangeEvent event, @Nullable PsiElement removedElement) {
             if (myProject.isDisposed()) {
                 return;
             }
             if (event.getFile() instanceof GraphQLFile) {
-                if (affectsGraphQLSchema(event)) {
-                    schemaChanged();
+                if (PsiTreeChangeEvent.PROP_FILE_NAME.equals(event.getPropertyName()) ||
+                    PsiTreeChangeEvent.PROP_DIRECTORY_NAME.equals(event.getPropertyName())) {
+                    // renamed and moves are likely to affect schema blobs etc.
+                    schemaChanged("rename or move of " + event.getFile().getName());
+                } else if (affectsGraphQLSchema(event)) {
+                    schemaFileChanged((GraphQLFile) event.getFile(), invalidatesElements(removedElement));
                 }
             }
             if (event.getFile() instanceof JSGraphQLEndpointFile) {
                 // always consider the schema changed when editing an endpoint file
-                schemaChanged();
+                schemaChanged("edit of " + event.getFile().getName());
             }
             if (event.getParent() instanceof PsiLanguageInjectionHost) {
                 GraphQLInjectionSearchHelper graphQLInjectionSearchHelper = GraphQLInjectionSearchHelper.getInstance();
                 if (graphQLInjectionSearchHelper != null && graphQLInjectionSearchHelper.isGraphQLLanguageInjectionTarget(event.getParent())) {
                     // change in injection target
-                    schemaChanged();
+                    schemaChanged("edit of injected GraphQL");
                 }
             }
             if (event.getFile() instanceof JsonFile) {
@@ -121,7 +354,7 @@ public class GraphQLSchemaChangeTracker implements Disposable {
                     }
                 }
                 if (introspectionJsonUpdated) {
-                    schemaChanged();
+                    schemaChanged("edit of " + event.getFile().getName());
                 }
             }
         }
@@ -138,7 +371,7 @@ public class GraphQLSchemaChangeTracker implements Disposable {
 
         @Override
         public void childRemoved(@NotNull PsiTreeChangeEvent event) {
-            checkForSchemaChange(event);
+            checkForSchemaChange(event, event.getChild());
         }
 
         @Override
@@ -148,7 +381,7 @@ public class GraphQLSchemaChangeTracker implements Disposable {
 
         @Override
         public void childReplaced(@NotNull PsiTreeChangeEvent event) {
-            checkForSchemaChange(event);
+            checkForSchemaChange(event, event.getOldChild());
         }
 
         @Override
@@ -162,6 +395,14 @@ public class GraphQLSchemaChangeTracker implements Disposable {
             }
         }
 
+        /**
+         * Only the leaves, i.e. whitespaces, comments and tokens, are replaced by the incremental reparse of formatting edits,
+         * the schema nodes point to the composite elements.
+         */
+        private boolean invalidatesElements(@Nullable PsiElement removedElement) {
+            return removedElement != null && !(removedElement instanceof LeafPsiElement);
+        }
+
         /**
          * Evaluates whether the change event can affect the associated GraphQL schema
          *
@@ -169,11 +410,6 @@ public class GraphQLSchemaChangeTracker implements Disposable {
          * @return true if the change can affect the declared schema
          */
         private boolean affectsGraphQLSchema(@NotNull PsiTreeChangeEvent event) {
-            if (PsiTreeChangeEvent.PROP_FILE_NAME.equals(event.getPropertyName()) ||
-                PsiTreeChangeEvent.PROP_DIRECTORY_NAME.equals(event.getPropertyName())) {
-                // renamed and moves are likely to affect schema blobs etc.
-                return true;
-            }
             final List<PsiElement> elements = Lists.newArrayList(
                 event.getParent(), event.getChild(), event.getNewChild(), event.getOldChild());
             for (PsiElement element : elements) {
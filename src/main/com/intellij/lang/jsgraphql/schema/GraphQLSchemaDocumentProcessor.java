@@ -2,14 +2,37 @@ package com.intellij.lang.jsgraphql.schema;
 
 import com.intellij.lang.jsgraphql.psi.GraphQLFile;
 import com.intellij.lang.jsgraphql.schema.builder.GraphQLCompositeRegistry;
+import com.intellij.lang.jsgraphql.types.language.Definition;
 import com.intellij.lang.jsgraphql.types.language.Document;
+import com.intellij.lang.jsgraphql.types.language.SDLDefinition;
+import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry;
 import com.intellij.psi.PsiFile;
 import com.intellij.util.Processor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.*;
+
+/**
+ * Collects the schema definitions of the processed files into a composite registry.
+ * <p>
+ * The processor can be reused for the subsequent builds of the same schema scope, see {@link #startProcessing()} and
+ * {@link #finishProcessing()}. {@link GraphQLFile#getDocument()} is memoized per file modification stamp, so the same document instance
+ * means that the file is unchanged and its definitions are already merged. Only the composite definitions with a name declared
+ * in a changed, added or removed file are merged again, from all the definitions with that name in the processing order,
+ * so the registry is the same as the one built from scratch.
+ */
 public class GraphQLSchemaDocumentProcessor implements Processor<PsiFile> {
     private final GraphQLCompositeRegistry myCompositeRegistry = new GraphQLCompositeRegistry();
+
+    // the definitions of the merged documents and registries by the definition key, see GraphQLCompositeRegistry#getDefinitionKey
+    private final Map<Object, Map<String, List<SDLDefinition<?>>>> myMergedContributions = new IdentityHashMap<>();
+    private final Map<String, Set<Object>> myContributionsByKey = new HashMap<>();
+    private List<Object> myMergedOrder = Collections.emptyList();
+
+    private List<Object> myVisitedContributions = new ArrayList<>();
+    private Set<Object> myVisitedContributionsSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
     private boolean isProcessedGraphQL;
 
     public @NotNull GraphQLCompositeRegistry getCompositeRegistry() {
@@ -20,15 +43,146 @@ public class GraphQLSchemaDocumentProcessor implements Processor<PsiFile> {
         return isProcessedGraphQL;
     }
 
+    /**
+     * Should be called before visiting the files of a scope when the processor is reused for a rebuild.
+     */
+    public void startProcessing() {
+        myVisitedContributions = new ArrayList<>();
+        myVisitedContributionsSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        isProcessedGraphQL = false;
+    }
+
+    /**
+     * Updates the composite registry with the documents and registries visited since {@link #startProcessing()}.
+     * <p>
+     * The definitions of the contributions which weren't visited again are retracted before the new ones are merged,
+     * and all the definitions with an affected name are merged again in the visiting order. So a name can change the kind
+     * of its definition, and a definition ignored because of a definition of another kind with the same name comes back
+     * once the other one is removed.
+     */
+    public void finishProcessing() {
+        Map<Object, Integer> ranks = new IdentityHashMap<>();
+        for (Object contribution : myVisitedContributions) {
+            ranks.put(contribution, ranks.size());
+        }
+
+        Set<String> changedKeys = new HashSet<>();
+        Iterator<Map.Entry<Object, Map<String, List<SDLDefinition<?>>>>> iterator = myMergedContributions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Object, Map<String, List<SDLDefinition<?>>>> entry = iterator.next();
+            if (ranks.containsKey(entry.getKey())) {
+                continue;
+            }
+            iterator.remove();
+            for (String key : entry.getValue().keySet()) {
+                Set<Object> contributions = myContributionsByKey.get(key);
+                if (contributions != null && contributions.remove(entry.getKey()) && contributions.isEmpty()) {
+                    myContributionsByKey.remove(key);
+                }
+                changedKeys.add(key);
+            }
+        }
+
+        for (Object contribution : myVisitedContributions) {
+            if (myMergedContributions.containsKey(contribution)) {
+                continue;
+            }
+            Map<String, List<SDLDefinition<?>>> definitionsByKey = collectDefinitions(contribution);
+            myMergedContributions.put(contribution, definitionsByKey);
+            for (String key : definitionsByKey.keySet()) {
+                myContributionsByKey.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(contribution);
+                changedKeys.add(key);
+            }
+        }
+
+        if (!isSameOrder(myMergedOrder, ranks)) {
+            // e.g. the order of the injected files has changed, which affects the order of the merged members
+            changedKeys.addAll(myContributionsByKey.keySet());
+        }
+
+        for (String key : changedKeys) {
+            List<SDLDefinition<?>> definitions = new ArrayList<>();
+            Set<Object> contributions = myContributionsByKey.get(key);
+            if (contributions != null) {
+                List<Object> orderedContributions = new ArrayList<>(contributions);
+                orderedContributions.sort(Comparator.comparingInt(ranks::get));
+                for (Object contribution : orderedContributions) {
+                    definitions.addAll(myMergedContributions.get(contribution).get(key));
+                }
+            }
+            myCompositeRegistry.replaceDefinitions(key, definitions);
+        }
+
+        myMergedOrder = myVisitedContributions;
+    }
+
+    /**
+     * Whether the contributions merged previously and visited again keep their relative order.
+     */
+    private static boolean isSameOrder(@NotNull List<Object> mergedOrder, @NotNull Map<Object, Integer> ranks) {
+        int previousRank = -1;
+        for (Object contribution : mergedOrder) {
+            Integer rank = ranks.get(contribution);
+            if (rank == null) {
+                continue;
+            }
+            if (rank < previousRank) {
+                return false;
+            }
+            previousRank = rank;
+        }
+        return true;
+    }
+
+    @NotNull
+    private static Map<String, List<SDLDefinition<?>>> collectDefinitions(@NotNull Object contribution) {
+        Map<String, List<SDLDefinition<?>>> definitionsByKey = new LinkedHashMap<>();
+        if (contribution instanceof Document) {
+            for (Definition<?> definition : ((Document) contribution).getDefinitions()) {
+                if (definition instanceof SDLDefinition) {
+                    addDefinition(definitionsByKey, (SDLDefinition<?>) definition);
+                }
+            }
+        } else if (contribution instanceof TypeDefinitionRegistry) {
+            GraphQLCompositeRegistry.forEachDefinition((TypeDefinitionRegistry) contribution,
+                definition -> addDefinition(definitionsByKey, definition));
+        }
+        return definitionsByKey;
+    }
+
+    private static void addDefinition(@NotNull Map<String, List<SDLDefinition<?>>> definitionsByKey, @NotNull SDLDefinition<?> definition) {
+        String key = GraphQLCompositeRegistry.getDefinitionKey(definition);
+        if (key != null) {
+            definitionsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(definition);
+        }
+    }
+
     @Override
     public boolean process(@Nullable PsiFile psiFile) {
         if (!(psiFile instanceof GraphQLFile)) {
             return true;
         }
 
-        isProcessedGraphQL = true;
-        Document document = ((GraphQLFile) psiFile).getDocument();
-        myCompositeRegistry.addFromDocument(document);
+        processDocument(((GraphQLFile) psiFile).getDocument());
         return true;
     }
+
+    /**
+     * Processes the document of a GraphQL file, or the document read from an introspection result file.
+     * The definitions are merged by {@link #finishProcessing()}.
+     */
+    public void processDocument(@NotNull Document document) {
+        isProcessedGraphQL = true;
+        visit(document);
+    }
+
+    public void processRegistry(@NotNull TypeDefinitionRegistry registry) {
+        visit(registry);
+    }
+
+    private void visit(@NotNull Object contribution) {
+        if (myVisitedContributionsSet.add(contribution)) {
+            myVisitedContributions.add(contribution);
+        }
+    }
 }
@@ -9,29 +9,54 @@ package com.intellij.lang.jsgraphql.schema;
 
 import com.google.common.collect.Lists;
 import com.intellij.lang.jsgraphql.ide.validation.GraphQLErrorFilter;
+import com.intellij.lang.jsgraphql.psi.GraphQLPsiUtil;
 import com.intellij.lang.jsgraphql.types.GraphQLError;
 import com.intellij.lang.jsgraphql.types.GraphQLException;
+import com.intellij.lang.jsgraphql.types.language.Node;
+import com.intellij.lang.jsgraphql.types.language.SourceLocation;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
 import com.intellij.lang.jsgraphql.types.schema.idl.errors.SchemaProblem;
 import com.intellij.lang.jsgraphql.types.schema.validation.InvalidSchemaException;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ClearableLazyValue;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Supplier;
 
+/**
+ * The schema is validated on the first {@link #getErrors(Project)} call, so the callers which only need the registry or the types
+ * don't pay for the validation.
+ * <p>
+ * The filtered errors and their grouping by file are computed once per schema, the annotator of each file only looks up its errors.
+ */
 public class GraphQLSchemaInfo {
 
     private final GraphQLSchema mySchema;
-    private final List<GraphQLException> myErrors;
+    private final ClearableLazyValue<List<GraphQLException>> myErrors;
     private final GraphQLRegistryInfo myRegistry;
+    private final GraphQLSchemaBuildMetrics myBuildMetrics;
+
+    private volatile List<GraphQLError> myFilteredErrors;
+    private volatile Map<String, List<GraphQLError>> myErrorsByFileName;
 
     public GraphQLSchemaInfo(@NotNull GraphQLSchema schema,
                              @NotNull List<GraphQLException> errors,
                              @NotNull GraphQLRegistryInfo registry) {
+        this(schema, () -> errors, registry, registry.getBuildMetrics());
+    }
+
+    public GraphQLSchemaInfo(@NotNull GraphQLSchema schema,
+                             @NotNull Supplier<List<GraphQLException>> schemaValidator,
+                             @NotNull GraphQLRegistryInfo registry,
+                             @NotNull GraphQLSchemaBuildMetrics buildMetrics) {
         mySchema = schema;
-        myErrors = errors;
+        myErrors = ClearableLazyValue.createAtomic(schemaValidator::get);
         myRegistry = registry;
+        myBuildMetrics = buildMetrics;
     }
 
     public @NotNull GraphQLSchema getSchema() {
@@ -42,8 +67,36 @@ public class GraphQLSchemaInfo {
         return myRegistry;
     }
 
+    public @NotNull GraphQLSchemaBuildMetrics getBuildMetrics() {
+        return myBuildMetrics;
+    }
+
+    /**
+     * The schema errors which aren't suppressed by a {@link GraphQLErrorFilter}, the list is computed once and shouldn't be modified.
+     */
     public @NotNull List<GraphQLError> getErrors(@NotNull Project project) {
-        final List<GraphQLException> rawErrors = Lists.newArrayList(myErrors);
+        List<GraphQLError> errors = myFilteredErrors;
+        if (errors == null) {
+            errors = Collections.unmodifiableList(collectErrors(project));
+            myFilteredErrors = errors;
+        }
+        return errors;
+    }
+
+    /**
+     * The schema errors which can be located in the file, i.e. the errors of its elements and the errors with a source location in it.
+     */
+    public @NotNull List<GraphQLError> getErrors(@NotNull Project project, @NotNull PsiFile file) {
+        Map<String, List<GraphQLError>> errorsByFileName = myErrorsByFileName;
+        if (errorsByFileName == null) {
+            errorsByFileName = groupByFileName(getErrors(project));
+            myErrorsByFileName = errorsByFileName;
+        }
+        return errorsByFileName.getOrDefault(GraphQLPsiUtil.getFileName(file), Collections.emptyList());
+    }
+
+    private @NotNull List<GraphQLError> collectErrors(@NotNull Project project) {
+        final List<GraphQLException> rawErrors = Lists.newArrayList(myErrors.getValue());
         rawErrors.addAll(myRegistry.getErrors());
         rawErrors.addAll(mySchema.getErrors());
 
@@ -64,4 +117,32 @@ public class GraphQLSchemaInfo {
             GraphQLErrorFilter.EP_NAME.extensions().noneMatch(filter -> filter.isGraphQLErrorSuppressed(project, error, null))
         );
     }
+
+    private static @NotNull Map<String, List<GraphQLError>> groupByFileName(@NotNull List<GraphQLError> errors) {
+        Map<String, List<GraphQLError>> errorsByFileName = new HashMap<>();
+        Set<String> fileNames = new LinkedHashSet<>();
+        for (GraphQLError error : errors) {
+            fileNames.clear();
+
+            // the same lookup order as the annotator, an error with an element is only shown on the element
+            Node<?> node = error.getNode();
+            PsiElement element = node != null ? node.getElement() : null;
+            if (element != null) {
+                if (element.isValid()) {
+                    fileNames.add(GraphQLPsiUtil.getFileName(element.getContainingFile()));
+                }
+            } else if (error.getLocations() != null) {
+                for (SourceLocation location : error.getLocations()) {
+                    if (location != null && location.getSourceName() != null) {
+                        fileNames.add(location.getSourceName());
+                    }
+                }
+            }
+
+            for (String fileName : fileNames) {
+                errorsByFileName.computeIfAbsent(fileName, k -> new ArrayList<>()).add(error);
+            }
+        }
+        return errorsByFileName;
+    }
 }
@@ -8,6 +8,7 @@
 package com.intellij.lang.jsgraphql.schema;
 
 import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.types.language.Document;
 import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.util.CachedValue;
@@ -24,6 +25,11 @@ public class GraphQLSchemaKeys {
      */
     public static final Key<CachedValue<GraphQLFile>> GRAPHQL_INTROSPECTION_JSON_TO_SDL = Key.create("JSGraphQL.IntrospectionJSONToSDL");
 
+    /**
+     * Set on a JSON introspection PSI file to get the schema document read from the JSON, without creating the SDL file
+     */
+    public static final Key<CachedValue<Document>> GRAPHQL_INTROSPECTION_JSON_TO_DOCUMENT = Key.create("JSGraphQL.IntrospectionJSONToDocument");
+
     /**
      * Set on a SDL introspection file (PSI and Virtual) to get the JSON file that the SDL file is derived from
      */
@@ -11,6 +11,7 @@ import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public interface GraphQLSchemaProvider {
 
@@ -25,9 +26,32 @@ public interface GraphQLSchemaProvider {
     @NotNull
     GraphQLRegistryInfo getRegistryInfo(@NotNull PsiElement psiElement);
 
+    /**
+     * Get the schema for the scope of the element.
+     * If the schema is outdated, e.g. after an edit, the previously built schema is returned while the new one is built in the background.
+     * Before the first schema of the scope is built, it's built on the calling thread.
+     *
+     * @param psiElement the element from which the schema is needed, serving as a scope restriction
+     * @return the last built schema, possibly outdated
+     * @see #getUpToDateSchemaInfo(PsiElement)
+     */
     @NotNull
     GraphQLSchemaInfo getSchemaInfo(@NotNull PsiElement psiElement);
 
+    /**
+     * Same as {@link #getSchemaInfo(PsiElement)}, but doesn't build the first schema of the scope on the calling thread.
+     * Until it's built in the background or loaded from a snapshot, null is returned and the caller should skip its work,
+     * e.g. the highlighting is restarted once the schema is built.
+     */
+    @Nullable
+    GraphQLSchemaInfo getSchemaInfoIfBuilt(@NotNull PsiElement psiElement);
+
+    /**
+     * Same as {@link #getSchemaInfo(PsiElement)}, but builds the schema on the calling thread if it is outdated.
+     */
+    @NotNull
+    GraphQLSchemaInfo getUpToDateSchemaInfo(@NotNull PsiElement psiElement);
+
     @NotNull
     static GraphQLSchemaProvider getInstance(@NotNull Project project) {
         return ServiceManager.getService(project, GraphQLSchemaProvider.class);
@@ -9,26 +9,45 @@ package com.intellij.lang.jsgraphql.schema;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.GraphQLConfigManager;
+import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
 import com.intellij.lang.jsgraphql.psi.GraphQLPsiUtil;
 import com.intellij.lang.jsgraphql.types.GraphQLException;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLObjectType;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
+import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry;
 import com.intellij.lang.jsgraphql.types.schema.idl.UnExecutableSchemaGenerator;
 import com.intellij.lang.jsgraphql.types.schema.validation.InvalidSchemaException;
 import com.intellij.lang.jsgraphql.types.schema.validation.SchemaValidationError;
 import com.intellij.lang.jsgraphql.types.schema.validation.SchemaValidator;
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.util.registry.Registry;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.util.TimeoutUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GraphQLSchemaProviderImpl implements GraphQLSchemaProvider, Disposable {
 
@@ -37,62 +56,337 @@ public class GraphQLSchemaProviderImpl implements GraphQLSchemaProvider, Disposa
     public static final GraphQLSchema EMPTY_SCHEMA = GraphQLSchema.newSchema()
         .query(GraphQLObjectType.newObject().name("Query").build()).build();
 
-    private final Map<String, GraphQLRegistryInfo> fileNameToRegistry = Maps.newConcurrentMap();
-    private final Map<String, GraphQLSchemaInfo> fileNameToSchema = Maps.newConcurrentMap();
+    private static final String GRAPHQL_SCHEMA_BACKGROUND_BUILD_KEY = "graphql.schema.build.background";
+    private static final String GRAPHQL_SCHEMA_SNAPSHOT_KEY = "graphql.schema.snapshot";
+
+    // never equal to the tracker count, so a schema loaded from a snapshot is always rebuilt
+    private static final long SNAPSHOT_MODIFICATION_COUNT = -1;
+
+    private final Project myProject;
+    // all the files sharing the same resolve scope share the same schema, the scopes are cached per file by the search helper
+    private final Map<GlobalSearchScope, SchemaEntry> scopeToSchema = Maps.newConcurrentMap();
+    // the schema modification count each scheduled background build was started for
+    private final Map<GlobalSearchScope, Long> scopeToScheduledBuild = Maps.newConcurrentMap();
+    private final AtomicLong myCacheHits = new AtomicLong();
+    private final AtomicLong myCacheMisses = new AtomicLong();
+    // a snapshot is only useful before the first build of a scope in the current session
+    private final Set<String> myLoadedSnapshots = ContainerUtil.newConcurrentSet();
     private final GraphQLRegistryProvider myRegistryProvider;
+    private final GraphQLPsiSearchHelper mySearchHelper;
+    private final GraphQLSchemaSnapshotStorage mySnapshotStorage;
+    private final ModificationTracker mySchemaModificationTracker;
+    // the background builds started before a configuration change are cancelled, their scopes are outdated
+    private final SimpleModificationTracker myConfigurationModificationTracker = new SimpleModificationTracker();
+    private volatile boolean myBackgroundBuildEnabledInTests;
 
     public GraphQLSchemaProviderImpl(@NotNull Project project) {
+        myProject = project;
         myRegistryProvider = GraphQLRegistryProvider.getInstance(project);
+        mySearchHelper = GraphQLPsiSearchHelper.getInstance(project);
+        mySnapshotStorage = GraphQLSchemaSnapshotStorage.getInstance(project);
+        mySchemaModificationTracker = GraphQLSchemaChangeTracker.getInstance(project).getSchemaModificationTracker();
 
-        project.getMessageBus().connect(this).subscribe(GraphQLSchemaChangeTracker.TOPIC, () -> {
-            // clear the cache on each PSI change
-            fileNameToRegistry.clear();
-            fileNameToSchema.clear();
+        // schema changes only make the cached schemas outdated, they are still served until the new ones are built,
+        // but the scopes themselves can be different after a configuration change
+        project.getMessageBus().connect(this).subscribe(GraphQLConfigManager.TOPIC, () -> {
+            scopeToSchema.clear();
+            scopeToScheduledBuild.clear();
+            myConfigurationModificationTracker.incModificationCount();
         });
     }
 
     @NotNull
     @Override
     public GraphQLSchemaInfo getSchemaInfo(@NotNull PsiElement psiElement) {
-        String containingFileName = GraphQLPsiUtil.getFileName(psiElement.getContainingFile());
-
-        return fileNameToSchema.computeIfAbsent(containingFileName, fileName -> {
-            final GraphQLRegistryInfo registryWithErrors = fileNameToRegistry.computeIfAbsent(
-                containingFileName, f -> myRegistryProvider.getRegistryInfo(psiElement));
-
-            try {
-                long start = System.nanoTime();
-                GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registryWithErrors.getTypeDefinitionRegistry());
-                Collection<SchemaValidationError> validationErrors = new SchemaValidator().validateSchema(schema);
-                List<GraphQLException> errors = validationErrors.isEmpty()
-                    ? Collections.emptyList() : Collections.singletonList(new InvalidSchemaException(validationErrors));
-
-                if (LOG.isDebugEnabled()) {
-                    long durationMillis = TimeoutUtil.getDurationMillis(start);
-                    LOG.debug(String.format("Schema build completed in %d ms, requester: %s", durationMillis, containingFileName));
+        if (!isBackgroundBuildEnabled()) {
+            return getUpToDateSchemaInfo(psiElement);
+        }
+
+        GlobalSearchScope schemaScope = mySearchHelper.getResolveScope(psiElement);
+        SchemaEntry entry = scopeToSchema.get(schemaScope);
+        if (entry == null) {
+            // nothing to serve yet, the callers need the actual types
+            return getUpToDateSchemaInfo(psiElement);
+        }
+        return getSchemaInfo(schemaScope, entry, psiElement);
+    }
+
+    @Nullable
+    @Override
+    public GraphQLSchemaInfo getSchemaInfoIfBuilt(@NotNull PsiElement psiElement) {
+        if (!isBackgroundBuildEnabled()) {
+            return getUpToDateSchemaInfo(psiElement);
+        }
+
+        GlobalSearchScope schemaScope = mySearchHelper.getResolveScope(psiElement);
+        SchemaEntry entry = scopeToSchema.get(schemaScope);
+        if (entry == null) {
+            // the snapshot is served if it's loaded before the build is finished
+            scheduleSnapshotLoad(schemaScope, psiElement);
+            scheduleBuild(schemaScope, psiElement);
+            return null;
+        }
+        return getSchemaInfo(schemaScope, entry, psiElement);
+    }
+
+    @NotNull
+    private GraphQLSchemaInfo getSchemaInfo(@NotNull GlobalSearchScope schemaScope,
+                                            @NotNull SchemaEntry entry,
+                                            @NotNull PsiElement psiElement) {
+        myCacheHits.incrementAndGet();
+        if (!entry.isUpToDate(mySchemaModificationTracker)) {
+            scheduleBuild(schemaScope, psiElement);
+        }
+        return entry.getSchemaInfo();
+    }
+
+    @NotNull
+    @Override
+    public GraphQLSchemaInfo getUpToDateSchemaInfo(@NotNull PsiElement psiElement) {
+        GlobalSearchScope schemaScope = mySearchHelper.getResolveScope(psiElement);
+        SchemaEntry entry = scopeToSchema.get(schemaScope);
+        if (entry != null && entry.isUpToDate(mySchemaModificationTracker)) {
+            myCacheHits.incrementAndGet();
+            return entry.getSchemaInfo();
+        }
+        myCacheMisses.incrementAndGet();
+
+        // the count is taken before the build, so a change during the build makes the result outdated
+        long modificationCount = mySchemaModificationTracker.getModificationCount();
+        GraphQLSchemaInfo schemaInfo = buildSchemaInfo(psiElement);
+        saveSnapshot(psiElement, schemaInfo);
+        return publish(schemaScope, new SchemaEntry(schemaInfo, modificationCount)).getSchemaInfo();
+    }
+
+    /**
+     * The schema is built outside the map, concurrent builds of the same scope are cheap since the registry is cached per scope,
+     * so only the entry built for the latest modification count is kept.
+     */
+    @NotNull
+    private SchemaEntry publish(@NotNull GlobalSearchScope schemaScope, @NotNull SchemaEntry entry) {
+        while (true) {
+            SchemaEntry existing = scopeToSchema.putIfAbsent(schemaScope, entry);
+            if (existing == null) {
+                return entry;
+            }
+            if (existing.myModificationCount > entry.myModificationCount) {
+                return existing;
+            }
+            if (scopeToSchema.replace(schemaScope, existing, entry)) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * The snapshot is only served until the actual schema is built, so it never replaces an entry.
+     */
+    private void scheduleSnapshotLoad(@NotNull GlobalSearchScope schemaScope, @NotNull PsiElement psiElement) {
+        if (!isSnapshotEnabled()) {
+            return;
+        }
+
+        String key = mySnapshotStorage.getSnapshotKey(psiElement);
+        if (!myLoadedSnapshots.add(key)) {
+            return;
+        }
+
+        long configurationModificationCount = myConfigurationModificationTracker.getModificationCount();
+        ReadAction.nonBlocking(() -> loadSnapshot(key))
+            .expireWith(this)
+            .expireWhen(() -> configurationModificationCount != myConfigurationModificationTracker.getModificationCount())
+            .finishOnUiThread(ModalityState.NON_MODAL, entry -> {
+                if (entry != null && scopeToSchema.putIfAbsent(schemaScope, entry) == null) {
+                    DaemonCodeAnalyzer.getInstance(myProject).restart();
                 }
-                return new GraphQLSchemaInfo(schema, errors, registryWithErrors);
-            } catch (ProcessCanceledException e) {
-                throw e;
-            } catch (Exception e) {
-                LOG.error("Schema build error: ", e); // should never happen
-                return new GraphQLSchemaInfo(
-                    EMPTY_SCHEMA,
-                    Lists.newArrayList(e instanceof GraphQLException ? ((GraphQLException) e) : new GraphQLException(e)),
-                    registryWithErrors
-                );
+            })
+            .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    @Nullable
+    private SchemaEntry loadSnapshot(@NotNull String key) {
+        long start = System.nanoTime();
+        TypeDefinitionRegistry registry = mySnapshotStorage.load(key);
+        if (registry == null) {
+            return null;
+        }
+
+        try {
+            GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(String.format("Schema snapshot loaded in %d ms, key: %s", TimeoutUtil.getDurationMillis(start), key));
             }
-        });
+
+            // the errors of the snapshot are reported when the actual schema is built, so the schema is not validated here
+            GraphQLRegistryInfo registryInfo = new GraphQLRegistryInfo(registry, Collections.emptyList(), true);
+            return new SchemaEntry(new GraphQLSchemaInfo(schema, Collections.emptyList(), registryInfo), SNAPSHOT_MODIFICATION_COUNT);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.warn("Unable to create a schema from the snapshot: " + key, e);
+            return null;
+        }
+    }
+
+    private void saveSnapshot(@NotNull PsiElement psiElement, @NotNull GraphQLSchemaInfo schemaInfo) {
+        GraphQLRegistryInfo registryInfo = schemaInfo.getRegistryInfo();
+        if (!isSnapshotEnabled() || !registryInfo.isProcessedGraphQL()) {
+            return;
+        }
+
+        String key = mySnapshotStorage.getSnapshotKey(psiElement);
+        // don't let the previous session snapshot override the schema built in this session
+        myLoadedSnapshots.add(key);
+        mySnapshotStorage.scheduleSave(key, registryInfo.getTypeDefinitionRegistry());
+    }
+
+    private void scheduleBuild(@NotNull GlobalSearchScope schemaScope, @NotNull PsiElement psiElement) {
+        long modificationCount = mySchemaModificationTracker.getModificationCount();
+        Long scheduledModificationCount = scopeToScheduledBuild.put(schemaScope, modificationCount);
+        if (scheduledModificationCount != null && scheduledModificationCount == modificationCount) {
+            // already being built for the current state of the schema
+            return;
+        }
+
+        PsiFile file = psiElement.getContainingFile();
+        long configurationModificationCount = myConfigurationModificationTracker.getModificationCount();
+        ReadAction.nonBlocking(() -> {
+                GraphQLSchemaInfo schemaInfo = getUpToDateSchemaInfo(file);
+                // validate the schema here instead of the first editor request
+                schemaInfo.getErrors(myProject);
+                return schemaInfo;
+            })
+            .inSmartMode(myProject)
+            .expireWith(this)
+            .expireWhen(() -> !file.isValid() ||
+                configurationModificationCount != myConfigurationModificationTracker.getModificationCount())
+            // a newer build of the same scope cancels the previous one
+            .coalesceBy(this, schemaScope)
+            .finishOnUiThread(ModalityState.NON_MODAL, schemaInfo -> {
+                // highlighting and other editor features have been using the outdated schema
+                DaemonCodeAnalyzer.getInstance(myProject).restart();
+            })
+            .submit(AppExecutorUtil.getAppExecutorService())
+            .onProcessed(schemaInfo -> scopeToScheduledBuild.remove(schemaScope, modificationCount));
+    }
+
+    /**
+     * The schema is generated right away, the editor features need its types anyway, but it's validated on the first
+     * {@link GraphQLSchemaInfo#getErrors(Project)} call, so the requests which only need the types don't wait for the validation.
+     * The build is reported once the schema is generated, the validation is reported separately.
+     */
+    @NotNull
+    private GraphQLSchemaInfo buildSchemaInfo(@NotNull PsiElement psiElement) {
+        GraphQLSchemaBuildEvent event = new GraphQLSchemaBuildEvent();
+        event.begin();
+
+        final GraphQLRegistryInfo registryWithErrors = myRegistryProvider.getRegistryInfo(psiElement);
+        final GraphQLSchemaBuildMetrics metrics = registryWithErrors.getBuildMetrics().copy();
+        final String requester = GraphQLPsiUtil.getFileName(psiElement.getContainingFile());
+
+        try {
+            long start = System.nanoTime();
+            GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registryWithErrors.getTypeDefinitionRegistry());
+            metrics.setSchemaGenerationNanos(System.nanoTime() - start);
+            reportMetrics(metrics, event, requester);
+
+            return new GraphQLSchemaInfo(schema, () -> validateSchema(schema, metrics, requester), registryWithErrors, metrics);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.error("Schema build error: ", e); // should never happen
+            reportMetrics(metrics, event, requester);
+            List<GraphQLException> errors =
+                Lists.newArrayList(e instanceof GraphQLException ? ((GraphQLException) e) : new GraphQLException(e));
+            return new GraphQLSchemaInfo(EMPTY_SCHEMA, () -> errors, registryWithErrors, metrics);
+        }
+    }
+
+    @NotNull
+    private static List<GraphQLException> validateSchema(@NotNull GraphQLSchema schema,
+                                                         @NotNull GraphQLSchemaBuildMetrics metrics,
+                                                         @NotNull String requester) {
+        GraphQLSchemaValidationEvent event = new GraphQLSchemaValidationEvent();
+        event.begin();
+
+        long start = System.nanoTime();
+        Collection<SchemaValidationError> validationErrors = new SchemaValidator().validateSchema(schema);
+        metrics.setValidationNanos(System.nanoTime() - start);
+
+        if (event.shouldCommit()) {
+            event.fill(validationErrors.size(), requester);
+            event.commit();
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Schema validation completed: validation=%dms errors=%d requester=\"%s\"",
+                metrics.getValidationMillis(), validationErrors.size(), requester));
+        }
+        return validationErrors.isEmpty()
+            ? Collections.emptyList() : Collections.singletonList(new InvalidSchemaException(validationErrors));
+    }
+
+    private void reportMetrics(@NotNull GraphQLSchemaBuildMetrics metrics,
+                               @NotNull GraphQLSchemaBuildEvent event,
+                               @NotNull String requester) {
+        metrics.setCacheCounts(
+            myRegistryProvider.getCacheHits(), myRegistryProvider.getCacheMisses(), myCacheHits.get(), myCacheMisses.get());
+
+        if (event.shouldCommit()) {
+            event.fill(metrics, requester);
+            event.commit();
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Schema build completed: %s requester=\"%s\"", metrics, requester));
+        }
+    }
+
+    private boolean isBackgroundBuildEnabled() {
+        if (ApplicationManager.getApplication().isUnitTestMode()) {
+            // tests expect the schema to reflect the changes immediately, unless the background build is tested
+            return myBackgroundBuildEnabledInTests;
+        }
+        return Registry.is(GRAPHQL_SCHEMA_BACKGROUND_BUILD_KEY);
+    }
+
+    @TestOnly
+    public void setBackgroundBuildEnabled(boolean enabled, @NotNull Disposable parentDisposable) {
+        boolean previous = myBackgroundBuildEnabledInTests;
+        myBackgroundBuildEnabledInTests = enabled;
+        Disposer.register(parentDisposable, () -> myBackgroundBuildEnabledInTests = previous);
+    }
+
+    private boolean isSnapshotEnabled() {
+        // snapshots are only served while the actual schema is built in the background
+        return isBackgroundBuildEnabled() && Registry.is(GRAPHQL_SCHEMA_SNAPSHOT_KEY);
     }
 
     @NotNull
     @Override
     public GraphQLRegistryInfo getRegistryInfo(@NotNull PsiElement psiElement) {
-        String fileName = GraphQLPsiUtil.getFileName(psiElement.getContainingFile());
-        return fileNameToRegistry.computeIfAbsent(fileName, f -> myRegistryProvider.getRegistryInfo(psiElement));
+        // already cached per resolve scope
+        return myRegistryProvider.getRegistryInfo(psiElement);
     }
 
     @Override
     public void dispose() {
     }
+
+    private static final class SchemaEntry {
+        private final GraphQLSchemaInfo mySchemaInfo;
+        private final long myModificationCount;
+
+        private SchemaEntry(@NotNull GraphQLSchemaInfo schemaInfo, long modificationCount) {
+            mySchemaInfo = schemaInfo;
+            myModificationCount = modificationCount;
+        }
+
+        @NotNull
+        GraphQLSchemaInfo getSchemaInfo() {
+            return mySchemaInfo;
+        }
+
+        boolean isUpToDate(@NotNull ModificationTracker modificationTracker) {
+            return myModificationCount == modificationTracker.getModificationCount();
+        }
+    }
 }
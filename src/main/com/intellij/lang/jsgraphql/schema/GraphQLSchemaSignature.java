@@ -0,0 +1,36 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.intellij.lang.jsgraphql.types.language.AstPrinter;
+import com.intellij.lang.jsgraphql.types.language.Definition;
+import com.intellij.lang.jsgraphql.types.language.Document;
+import com.intellij.lang.jsgraphql.types.language.SDLDefinition;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A structural signature of the type system definitions declared in a document.
+ * <p>
+ * The definitions are printed without comments, ignored chars and source locations, so only formatting edits produce the same signature.
+ * The descriptions are kept since they're shown in the documentation and completion.
+ */
+public final class GraphQLSchemaSignature {
+
+    private GraphQLSchemaSignature() {
+    }
+
+    @SuppressWarnings("rawtypes")
+    @NotNull
+    public static String compute(@NotNull Document document) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (Definition definition : document.getDefinitions()) {
+            if (definition instanceof SDLDefinition) {
+                hasher.putString(AstPrinter.printAst(definition), StandardCharsets.UTF_8);
+                hasher.putByte((byte) 0);
+            }
+        }
+        return hasher.hash().toString();
+    }
+}
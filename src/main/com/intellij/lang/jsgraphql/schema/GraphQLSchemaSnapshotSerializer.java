@@ -0,0 +1,518 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.intellij.lang.jsgraphql.types.language.*;
+import com.intellij.openapi.progress.ProgressManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes the type system definitions of a schema snapshot as JSON and reads them back into language nodes directly,
+ * so loading a snapshot doesn't create any PSI and the loaded nodes never point to an element.
+ * <p>
+ * Each definition is an object of the array, the types are written in the SDL notation, e.g. {@code [String!]!}.
+ */
+@SuppressWarnings("rawtypes")
+final class GraphQLSchemaSnapshotSerializer {
+
+    private static final TypeAdapter<JsonElement> JSON_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    private GraphQLSchemaSnapshotSerializer() {
+    }
+
+    static void write(@NotNull List<? extends SDLDefinition> definitions, @NotNull Writer writer) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.beginArray();
+        for (SDLDefinition definition : definitions) {
+            JSON_ADAPTER.write(jsonWriter, writeDefinition(definition));
+        }
+        jsonWriter.endArray();
+        jsonWriter.flush();
+    }
+
+    /**
+     * The definitions are read one by one, so only a single definition is held as JSON at a time.
+     */
+    @NotNull
+    static List<SDLDefinition<?>> read(@NotNull Reader reader) throws IOException {
+        List<SDLDefinition<?>> definitions = new ArrayList<>();
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            ProgressManager.checkCanceled();
+            definitions.add(readDefinition(JSON_ADAPTER.read(jsonReader).getAsJsonObject()));
+        }
+        jsonReader.endArray();
+        return definitions;
+    }
+
+    @NotNull
+    private static JsonObject writeDefinition(@NotNull SDLDefinition definition) {
+        JsonObject json = new JsonObject();
+        if (definition instanceof SchemaDefinition) {
+            SchemaDefinition schemaDefinition = (SchemaDefinition) definition;
+            json.addProperty("kind", definition instanceof SchemaExtensionDefinition ? "schemaExtension" : "schema");
+            writeDescription(json, schemaDefinition);
+            JsonArray operationTypes = new JsonArray();
+            for (OperationTypeDefinition operationType : schemaDefinition.getOperationTypeDefinitions()) {
+                JsonObject operationTypeJson = new JsonObject();
+                operationTypeJson.addProperty("name", operationType.getName());
+                operationTypeJson.addProperty("type", operationType.getTypeName().getName());
+                operationTypes.add(operationTypeJson);
+            }
+            json.add("operationTypes", operationTypes);
+            writeDirectives(json, schemaDefinition.getDirectives());
+        } else if (definition instanceof DirectiveDefinition) {
+            DirectiveDefinition directiveDefinition = (DirectiveDefinition) definition;
+            json.addProperty("kind", "directive");
+            json.addProperty("name", directiveDefinition.getName());
+            writeDescription(json, directiveDefinition);
+            json.addProperty("repeatable", directiveDefinition.isRepeatable());
+            JsonArray locations = new JsonArray();
+            directiveDefinition.getDirectiveLocations().forEach(location -> locations.add(location.getName()));
+            json.add("locations", locations);
+            json.add("arguments", writeInputValues(directiveDefinition.getInputValueDefinitions()));
+        } else if (definition instanceof ScalarTypeDefinition) {
+            ScalarTypeDefinition scalar = (ScalarTypeDefinition) definition;
+            writeTypeHeader(json, definition instanceof ScalarTypeExtensionDefinition ? "scalarExtension" : "scalar", scalar);
+            writeDirectives(json, scalar.getDirectives());
+        } else if (definition instanceof ObjectTypeDefinition) {
+            ObjectTypeDefinition object = (ObjectTypeDefinition) definition;
+            writeTypeHeader(json, definition instanceof ObjectTypeExtensionDefinition ? "objectExtension" : "object", object);
+            json.add("interfaces", writeTypes(object.getImplements()));
+            json.add("fields", writeFields(object.getFieldDefinitions()));
+            writeDirectives(json, object.getDirectives());
+        } else if (definition instanceof InterfaceTypeDefinition) {
+            InterfaceTypeDefinition anInterface = (InterfaceTypeDefinition) definition;
+            writeTypeHeader(json, definition instanceof InterfaceTypeExtensionDefinition ? "interfaceExtension" : "interface", anInterface);
+            json.add("interfaces", writeTypes(anInterface.getImplements()));
+            json.add("fields", writeFields(anInterface.getFieldDefinitions()));
+            writeDirectives(json, anInterface.getDirectives());
+        } else if (definition instanceof UnionTypeDefinition) {
+            UnionTypeDefinition union = (UnionTypeDefinition) definition;
+            writeTypeHeader(json, definition instanceof UnionTypeExtensionDefinition ? "unionExtension" : "union", union);
+            json.add("memberTypes", writeTypes(union.getMemberTypes()));
+            writeDirectives(json, union.getDirectives());
+        } else if (definition instanceof EnumTypeDefinition) {
+            EnumTypeDefinition anEnum = (EnumTypeDefinition) definition;
+            writeTypeHeader(json, definition instanceof EnumTypeExtensionDefinition ? "enumExtension" : "enum", anEnum);
+            JsonArray values = new JsonArray();
+            for (EnumValueDefinition value : anEnum.getEnumValueDefinitions()) {
+                JsonObject valueJson = new JsonObject();
+                valueJson.addProperty("name", value.getName());
+                writeDescription(valueJson, value);
+                writeDirectives(valueJson, value.getDirectives());
+                values.add(valueJson);
+            }
+            json.add("values", values);
+            writeDirectives(json, anEnum.getDirectives());
+        } else if (definition instanceof InputObjectTypeDefinition) {
+            InputObjectTypeDefinition input = (InputObjectTypeDefinition) definition;
+            writeTypeHeader(json, definition instanceof InputObjectTypeExtensionDefinition ? "inputExtension" : "input", input);
+            json.add("fields", writeInputValues(input.getInputValueDefinitions()));
+            writeDirectives(json, input.getDirectives());
+        } else {
+            throw new IllegalArgumentException("Unexpected definition: " + definition.getClass().getName());
+        }
+        return json;
+    }
+
+    private static void writeTypeHeader(@NotNull JsonObject json, @NotNull String kind, @NotNull TypeDefinition<?> definition) {
+        json.addProperty("kind", kind);
+        json.addProperty("name", definition.getName());
+        if (definition instanceof DescribedNode) {
+            writeDescription(json, (DescribedNode<?>) definition);
+        }
+    }
+
+    private static void writeDescription(@NotNull JsonObject json, @NotNull DescribedNode<?> node) {
+        Description description = node.getDescription();
+        if (description != null && description.getContent() != null) {
+            json.addProperty("description", description.getContent());
+            json.addProperty("multiLine", description.isMultiLine());
+        }
+    }
+
+    private static void writeDirectives(@NotNull JsonObject json, @NotNull List<Directive> directives) {
+        if (directives.isEmpty()) {
+            return;
+        }
+        JsonArray array = new JsonArray();
+        for (Directive directive : directives) {
+            JsonObject directiveJson = new JsonObject();
+            directiveJson.addProperty("name", directive.getName());
+            JsonArray arguments = new JsonArray();
+            for (Argument argument : directive.getArguments()) {
+                if (argument.getValue() == null) {
+                    // an incomplete argument, e.g. `@foo(arg: )`, it's reported by the validation anyway
+                    continue;
+                }
+                JsonObject argumentJson = new JsonObject();
+                argumentJson.addProperty("name", argument.getName());
+                argumentJson.add("value", writeValue(argument.getValue()));
+                arguments.add(argumentJson);
+            }
+            directiveJson.add("arguments", arguments);
+            array.add(directiveJson);
+        }
+        json.add("directives", array);
+    }
+
+    @NotNull
+    private static JsonArray writeFields(@NotNull List<FieldDefinition> fields) {
+        JsonArray array = new JsonArray();
+        for (FieldDefinition field : fields) {
+            JsonObject fieldJson = new JsonObject();
+            fieldJson.addProperty("name", field.getName());
+            writeDescription(fieldJson, field);
+            fieldJson.add("type", writeType(field.getType()));
+            fieldJson.add("arguments", writeInputValues(field.getInputValueDefinitions()));
+            writeDirectives(fieldJson, field.getDirectives());
+            array.add(fieldJson);
+        }
+        return array;
+    }
+
+    @NotNull
+    private static JsonArray writeInputValues(@NotNull List<InputValueDefinition> inputValues) {
+        JsonArray array = new JsonArray();
+        for (InputValueDefinition inputValue : inputValues) {
+            JsonObject inputValueJson = new JsonObject();
+            inputValueJson.addProperty("name", inputValue.getName());
+            writeDescription(inputValueJson, inputValue);
+            inputValueJson.add("type", writeType(inputValue.getType()));
+            if (inputValue.getDefaultValue() != null) {
+                inputValueJson.add("defaultValue", writeValue(inputValue.getDefaultValue()));
+            }
+            writeDirectives(inputValueJson, inputValue.getDirectives());
+            array.add(inputValueJson);
+        }
+        return array;
+    }
+
+    @NotNull
+    private static JsonArray writeTypes(@NotNull List<Type> types) {
+        JsonArray array = new JsonArray();
+        types.forEach(type -> array.add(writeType(type)));
+        return array;
+    }
+
+    @NotNull
+    private static JsonElement writeType(@Nullable Type type) {
+        if (type instanceof NonNullType) {
+            return new JsonPrimitive(writeType(((NonNullType) type).getType()).getAsString() + "!");
+        } else if (type instanceof ListType) {
+            return new JsonPrimitive("[" + writeType(((ListType) type).getType()).getAsString() + "]");
+        } else if (type instanceof TypeName) {
+            return new JsonPrimitive(((TypeName) type).getName());
+        }
+        throw new IllegalArgumentException("Unexpected type: " + type);
+    }
+
+    @NotNull
+    private static JsonObject writeValue(@NotNull Value value) {
+        JsonObject json = new JsonObject();
+        if (value instanceof StringValue) {
+            json.addProperty("kind", "string");
+            json.addProperty("value", ((StringValue) value).getValue());
+        } else if (value instanceof IntValue) {
+            json.addProperty("kind", "int");
+            json.addProperty("value", ((IntValue) value).getValue().toString());
+        } else if (value instanceof FloatValue) {
+            json.addProperty("kind", "float");
+            json.addProperty("value", ((FloatValue) value).getValue().toString());
+        } else if (value instanceof BooleanValue) {
+            json.addProperty("kind", "boolean");
+            json.addProperty("value", ((BooleanValue) value).isValue());
+        } else if (value instanceof EnumValue) {
+            json.addProperty("kind", "enum");
+            json.addProperty("value", ((EnumValue) value).getName());
+        } else if (value instanceof NullValue) {
+            json.addProperty("kind", "null");
+        } else if (value instanceof VariableReference) {
+            json.addProperty("kind", "variable");
+            json.addProperty("value", ((VariableReference) value).getName());
+        } else if (value instanceof ArrayValue) {
+            json.addProperty("kind", "list");
+            JsonArray values = new JsonArray();
+            for (Value item : ((ArrayValue) value).getValues()) {
+                values.add(writeValue(item));
+            }
+            json.add("values", values);
+        } else if (value instanceof ObjectValue) {
+            json.addProperty("kind", "object");
+            JsonArray fields = new JsonArray();
+            for (ObjectField field : ((ObjectValue) value).getObjectFields()) {
+                if (field.getValue() == null) {
+                    continue;
+                }
+                JsonObject fieldJson = new JsonObject();
+                fieldJson.addProperty("name", field.getName());
+                fieldJson.add("value", writeValue(field.getValue()));
+                fields.add(fieldJson);
+            }
+            json.add("fields", fields);
+        } else {
+            throw new IllegalArgumentException("Unexpected value: " + value.getClass().getName());
+        }
+        return json;
+    }
+
+    @NotNull
+    private static SDLDefinition<?> readDefinition(@NotNull JsonObject json) {
+        String kind = getString(json, "kind");
+        String name = getString(json, "name");
+        Description description = readDescription(json);
+        List<Directive> directives = readDirectives(json);
+        switch (kind) {
+            case "schema":
+                return SchemaDefinition.newSchemaDefinition()
+                    .description(description).operationTypeDefinitions(readOperationTypes(json)).directives(directives).build();
+            case "schemaExtension":
+                return SchemaExtensionDefinition.newSchemaExtensionDefinition()
+                    .operationTypeDefinitions(readOperationTypes(json)).directives(directives).build();
+            case "directive":
+                List<DirectiveLocation> locations = new ArrayList<>();
+                for (JsonElement location : json.getAsJsonArray("locations")) {
+                    locations.add(DirectiveLocation.newDirectiveLocation().name(location.getAsString()).build());
+                }
+                return DirectiveDefinition.newDirectiveDefinition()
+                    .name(name).description(description)
+                    .repeatable(json.get("repeatable").getAsBoolean())
+                    .directiveLocations(locations)
+                    .inputValueDefinitions(readInputValues(json.getAsJsonArray("arguments")))
+                    .build();
+            case "scalar":
+                return ScalarTypeDefinition.newScalarTypeDefinition().name(name).description(description).directives(directives).build();
+            case "scalarExtension":
+                return ScalarTypeExtensionDefinition.newScalarTypeExtensionDefinition()
+                    .name(name).description(description).directives(directives).build();
+            case "object":
+                return ObjectTypeDefinition.newObjectTypeDefinition()
+                    .name(name).description(description).directives(directives)
+                    .implementz(readTypes(json.getAsJsonArray("interfaces")))
+                    .fieldDefinitions(readFields(json.getAsJsonArray("fields")))
+                    .build();
+            case "objectExtension":
+                return ObjectTypeExtensionDefinition.newObjectTypeExtensionDefinition()
+                    .name(name).description(description).directives(directives)
+                    .implementz(readTypes(json.getAsJsonArray("interfaces")))
+                    .fieldDefinitions(readFields(json.getAsJsonArray("fields")))
+                    .build();
+            case "interface":
+                return InterfaceTypeDefinition.newInterfaceTypeDefinition()
+                    .name(name).description(description).directives(directives)
+                    .implementz(readTypes(json.getAsJsonArray("interfaces")))
+                    .definitions(readFields(json.getAsJsonArray("fields")))
+                    .build();
+            case "interfaceExtension":
+                return InterfaceTypeExtensionDefinition.newInterfaceTypeExtensionDefinition()
+                    .name(name).description(description).directives(directives)
+                    .implementz(readTypes(json.getAsJsonArray("interfaces")))
+                    .definitions(readFields(json.getAsJsonArray("fields")))
+                    .build();
+            case "union":
+                return UnionTypeDefinition.newUnionTypeDefinition()
+                    .name(name).description(description).directives(directives)
+                    .memberTypes(readTypes(json.getAsJsonArray("memberTypes")))
+                    .build();
+            case "unionExtension":
+                return UnionTypeExtensionDefinition.newUnionTypeExtensionDefinition()
+                    .name(name).description(description).directives(directives)
+                    .memberTypes(readTypes(json.getAsJsonArray("memberTypes")))
+                    .build();
+            case "enum":
+                return EnumTypeDefinition.newEnumTypeDefinition()
+                    .name(name).description(description).directives(directives)
+                    .enumValueDefinitions(readEnumValues(json.getAsJsonArray("values")))
+                    .build();
+            case "enumExtension":
+                return EnumTypeExtensionDefinition.newEnumTypeExtensionDefinition()
+                    .name(name).description(description).directives(directives)
+                    .enumValueDefinitions(readEnumValues(json.getAsJsonArray("values")))
+                    .build();
+            case "input":
+                return InputObjectTypeDefinition.newInputObjectDefinition()
+                    .name(name).description(description).directives(directives)
+                    .inputValueDefinitions(readInputValues(json.getAsJsonArray("fields")))
+                    .build();
+            case "inputExtension":
+                return InputObjectTypeExtensionDefinition.newInputObjectTypeExtensionDefinition()
+                    .name(name).description(description).directives(directives)
+                    .inputValueDefinitions(readInputValues(json.getAsJsonArray("fields")))
+                    .build();
+            default:
+                throw new IllegalArgumentException("Unexpected definition kind: " + kind);
+        }
+    }
+
+    @Nullable
+    private static Description readDescription(@NotNull JsonObject json) {
+        String content = getString(json, "description");
+        if (content == null) {
+            return null;
+        }
+        JsonElement multiLine = json.get("multiLine");
+        return new Description(content, null, multiLine != null && multiLine.getAsBoolean());
+    }
+
+    @NotNull
+    private static List<OperationTypeDefinition> readOperationTypes(@NotNull JsonObject json) {
+        List<OperationTypeDefinition> operationTypes = new ArrayList<>();
+        for (JsonElement element : json.getAsJsonArray("operationTypes")) {
+            JsonObject operationType = element.getAsJsonObject();
+            operationTypes.add(OperationTypeDefinition.newOperationTypeDefinition()
+                .name(getString(operationType, "name"))
+                .typeName(TypeName.newTypeName(getString(operationType, "type")).build())
+                .build());
+        }
+        return operationTypes;
+    }
+
+    @NotNull
+    private static List<Directive> readDirectives(@NotNull JsonObject json) {
+        JsonArray array = json.getAsJsonArray("directives");
+        if (array == null) {
+            return Collections.emptyList();
+        }
+        List<Directive> directives = new ArrayList<>();
+        for (JsonElement element : array) {
+            JsonObject directive = element.getAsJsonObject();
+            List<Argument> arguments = new ArrayList<>();
+            for (JsonElement argumentElement : directive.getAsJsonArray("arguments")) {
+                JsonObject argument = argumentElement.getAsJsonObject();
+                arguments.add(new Argument(getString(argument, "name"), readValue(argument.getAsJsonObject("value"))));
+            }
+            directives.add(Directive.newDirective().name(getString(directive, "name")).arguments(arguments).build());
+        }
+        return directives;
+    }
+
+    @NotNull
+    private static List<FieldDefinition> readFields(@NotNull JsonArray array) {
+        List<FieldDefinition> fields = new ArrayList<>();
+        for (JsonElement element : array) {
+            JsonObject field = element.getAsJsonObject();
+            fields.add(FieldDefinition.newFieldDefinition()
+                .name(getString(field, "name"))
+                .description(readDescription(field))
+                .type(readType(getString(field, "type")))
+                .inputValueDefinitions(readInputValues(field.getAsJsonArray("arguments")))
+                .directives(readDirectives(field))
+                .build());
+        }
+        return fields;
+    }
+
+    @NotNull
+    private static List<InputValueDefinition> readInputValues(@NotNull JsonArray array) {
+        List<InputValueDefinition> inputValues = new ArrayList<>();
+        for (JsonElement element : array) {
+            JsonObject inputValue = element.getAsJsonObject();
+            JsonObject defaultValue = inputValue.getAsJsonObject("defaultValue");
+            inputValues.add(InputValueDefinition.newInputValueDefinition()
+                .name(getString(inputValue, "name"))
+                .description(readDescription(inputValue))
+                .type(readType(getString(inputValue, "type")))
+                .defaultValue(defaultValue != null ? readValue(defaultValue) : null)
+                .directives(readDirectives(inputValue))
+                .build());
+        }
+        return inputValues;
+    }
+
+    @NotNull
+    private static List<EnumValueDefinition> readEnumValues(@NotNull JsonArray array) {
+        List<EnumValueDefinition> enumValues = new ArrayList<>();
+        for (JsonElement element : array) {
+            JsonObject enumValue = element.getAsJsonObject();
+            enumValues.add(EnumValueDefinition.newEnumValueDefinition()
+                .name(getString(enumValue, "name"))
+                .description(readDescription(enumValue))
+                .directives(readDirectives(enumValue))
+                .build());
+        }
+        return enumValues;
+    }
+
+    @NotNull
+    private static List<Type> readTypes(@NotNull JsonArray array) {
+        List<Type> types = new ArrayList<>();
+        for (JsonElement element : array) {
+            types.add(readType(element.getAsString()));
+        }
+        return types;
+    }
+
+    @NotNull
+    private static Type readType(@Nullable String type) {
+        if (type == null || type.isEmpty()) {
+            throw new IllegalArgumentException("Missing type");
+        }
+        if (type.endsWith("!")) {
+            return NonNullType.newNonNullType(readType(type.substring(0, type.length() - 1))).build();
+        }
+        if (type.startsWith("[") && type.endsWith("]")) {
+            return ListType.newListType(readType(type.substring(1, type.length() - 1))).build();
+        }
+        return TypeName.newTypeName(type).build();
+    }
+
+    @NotNull
+    private static Value readValue(@NotNull JsonObject json) {
+        String kind = getString(json, "kind");
+        switch (kind) {
+            case "string":
+                return StringValue.newStringValue(getString(json, "value")).build();
+            case "int":
+                return IntValue.newIntValue(new BigInteger(getString(json, "value"))).build();
+            case "float":
+                return FloatValue.newFloatValue(new BigDecimal(getString(json, "value"))).build();
+            case "boolean":
+                return BooleanValue.newBooleanValue(json.get("value").getAsBoolean()).build();
+            case "enum":
+                return EnumValue.newEnumValue(getString(json, "value")).build();
+            case "null":
+                return NullValue.newNullValue().build();
+            case "variable":
+                return VariableReference.newVariableReference().name(getString(json, "value")).build();
+            case "list":
+                List<Value> values = new ArrayList<>();
+                for (JsonElement element : json.getAsJsonArray("values")) {
+                    values.add(readValue(element.getAsJsonObject()));
+                }
+                return ArrayValue.newArrayValue().values(values).build();
+            case "object":
+                List<ObjectField> fields = new ArrayList<>();
+                for (JsonElement element : json.getAsJsonArray("fields")) {
+                    JsonObject field = element.getAsJsonObject();
+                    fields.add(new ObjectField(getString(field, "name"), readValue(field.getAsJsonObject("value"))));
+                }
+                return ObjectValue.newObjectValue().objectFields(fields).build();
+            default:
+                throw new IllegalArgumentException("Unexpected value kind: " + kind);
+        }
+    }
+
+    @Nullable
+    private static String getString(@NotNull JsonObject json, @NotNull String property) {
+        JsonElement element = json.get(property);
+        return element != null && !element.isJsonNull() ? element.getAsString() : null;
+    }
+}
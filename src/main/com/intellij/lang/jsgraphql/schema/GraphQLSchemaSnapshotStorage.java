@@ -0,0 +1,246 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.GraphQLConfigManager;
+import com.intellij.lang.jsgraphql.ide.project.graphqlconfig.GraphQLNamedScope;
+import com.intellij.lang.jsgraphql.psi.GraphQLPsiUtil;
+import com.intellij.lang.jsgraphql.types.language.SDLDefinition;
+import com.intellij.lang.jsgraphql.types.language.ScalarTypeDefinition;
+import com.intellij.lang.jsgraphql.types.schema.idl.ScalarInfo;
+import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.EmptyRunnable;
+import com.intellij.psi.PsiElement;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores the merged type definitions of each schema scope in the IDE system directory,
+ * so the editor can be highlighted against the schema of the previous session while the actual one is being built.
+ * <p>
+ * A snapshot is a header line containing the format version and the hash of the definitions followed by the definitions
+ * written by {@link GraphQLSchemaSnapshotSerializer}, the file is rewritten only when the hash differs.
+ * The snapshots which haven't been saved for {@link #STALE_SNAPSHOT_AGE_DAYS} are removed, e.g. the ones of the removed scopes.
+ */
+public final class GraphQLSchemaSnapshotStorage {
+
+    private static final Logger LOG = Logger.getInstance(GraphQLSchemaSnapshotStorage.class);
+
+    private static final String HEADER_PREFIX = "# graphql-schema-snapshot v2 ";
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final String DEFAULT_SCOPE_KEY = "default";
+    private static final int STALE_SNAPSHOT_AGE_DAYS = 30;
+
+    private final Project myProject;
+    private volatile Path mySnapshotsDir;
+    private final ExecutorService myExecutor =
+        AppExecutorUtil.createBoundedApplicationPoolExecutor("GraphQL Schema Snapshot Writer", 1);
+    private final Map<String, String> myKeyToSavedHash = Maps.newConcurrentMap();
+    // only the latest registry of a key is saved, the ones replaced before the writer gets to them are skipped
+    private final Map<String, TypeDefinitionRegistry> myKeyToPendingRegistry = Maps.newConcurrentMap();
+
+    public static GraphQLSchemaSnapshotStorage getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, GraphQLSchemaSnapshotStorage.class);
+    }
+
+    public GraphQLSchemaSnapshotStorage(@NotNull Project project) {
+        myProject = project;
+        mySnapshotsDir = Paths.get(PathManager.getSystemPath(), "graphql", "schema-snapshots", project.getLocationHash());
+    }
+
+    /**
+     * The key is stable between the IDE sessions, it identifies the graphql-config project the element belongs to.
+     */
+    @NotNull
+    public String getSnapshotKey(@NotNull PsiElement psiElement) {
+        GraphQLNamedScope scope = GraphQLConfigManager.getService(myProject)
+            .getSchemaScope(GraphQLPsiUtil.getOriginalVirtualFile(psiElement.getContainingFile()));
+        return scope != null ? scope.getScopeId() : DEFAULT_SCOPE_KEY;
+    }
+
+    /**
+     * The definitions are read into the language nodes directly, so no read action is needed and no PSI is created.
+     */
+    @Nullable
+    public TypeDefinitionRegistry load(@NotNull String key) {
+        Path path = getSnapshotPath(key);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER_PREFIX)) {
+                return null;
+            }
+
+            TypeDefinitionRegistry registry = new TypeDefinitionRegistry();
+            for (SDLDefinition<?> definition : GraphQLSchemaSnapshotSerializer.read(reader)) {
+                registry.add(definition);
+            }
+            myKeyToSavedHash.put(key, readHash(header));
+            return registry;
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.warn("Unable to load the schema snapshot: " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * The saves of the same key are coalesced, a save is only queued if there is no pending one for the key,
+     * otherwise the pending one picks up the latest registry.
+     */
+    public void scheduleSave(@NotNull String key, @NotNull TypeDefinitionRegistry registry) {
+        if (myKeyToPendingRegistry.put(key, registry) != null) {
+            return;
+        }
+        myExecutor.execute(() -> {
+            TypeDefinitionRegistry pendingRegistry = myKeyToPendingRegistry.remove(key);
+            if (pendingRegistry == null) {
+                return;
+            }
+            try {
+                save(key, pendingRegistry);
+            } catch (Exception e) {
+                LOG.warn("Unable to save the schema snapshot for " + key, e);
+            }
+        });
+    }
+
+    @TestOnly
+    void waitForPendingSaves() throws Exception {
+        // the writer is single-threaded, so the saves queued before are finished first
+        myExecutor.submit(EmptyRunnable.getInstance()).get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return true if the snapshot has been written, false if it's the same as the stored one
+     */
+    boolean save(@NotNull String key, @NotNull TypeDefinitionRegistry registry) throws IOException {
+        StringWriter writer = new StringWriter();
+        GraphQLSchemaSnapshotSerializer.write(collectDefinitions(registry), writer);
+        String definitions = writer.toString();
+        String hash = Hashing.murmur3_128().hashString(definitions, StandardCharsets.UTF_8).toString();
+
+        Path snapshotsDir = mySnapshotsDir;
+        Path path = getSnapshotPath(key);
+        String savedHash = myKeyToSavedHash.computeIfAbsent(key, k -> readSavedHash(path));
+        if (hash.equals(savedHash) && Files.isRegularFile(path)) {
+            // the snapshot is still in use, so it's not pruned as stale
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return false;
+        }
+
+        Files.createDirectories(snapshotsDir);
+        Path tempPath = Files.createTempFile(snapshotsDir, "snapshot", ".tmp");
+        Files.write(tempPath, (HEADER_PREFIX + hash + "\n" + definitions).getBytes(StandardCharsets.UTF_8));
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        myKeyToSavedHash.put(key, hash);
+        pruneStaleSnapshots(snapshotsDir);
+        return true;
+    }
+
+    /**
+     * Removes the snapshots of the previous format versions, the temporary files left by an interrupted save
+     * and the snapshots which haven't been saved for a while.
+     */
+    private static void pruneStaleSnapshots(@NotNull Path snapshotsDir) throws IOException {
+        long staleTime = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(STALE_SNAPSHOT_AGE_DAYS);
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(snapshotsDir)) {
+            for (Path path : paths) {
+                try {
+                    if (!path.getFileName().toString().endsWith(SNAPSHOT_EXTENSION) ||
+                        Files.getLastModifiedTime(path).toMillis() < staleTime) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (IOException e) {
+                    LOG.debug("Unable to remove the stale schema snapshot: " + path, e);
+                }
+            }
+        }
+    }
+
+    @TestOnly
+    void setSnapshotsDir(@NotNull Path snapshotsDir, @NotNull Disposable parentDisposable) {
+        Path previousDir = mySnapshotsDir;
+        mySnapshotsDir = snapshotsDir;
+        myKeyToSavedHash.clear();
+        Disposer.register(parentDisposable, () -> {
+            mySnapshotsDir = previousDir;
+            myKeyToSavedHash.clear();
+        });
+    }
+
+    @NotNull
+    private Path getSnapshotPath(@NotNull String key) {
+        return mySnapshotsDir.resolve(Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8) + SNAPSHOT_EXTENSION);
+    }
+
+    @NotNull
+    private static String readSavedHash(@NotNull Path path) {
+        if (!Files.isRegularFile(path)) {
+            return "";
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            return header != null ? readHash(header) : "";
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    @NotNull
+    private static String readHash(@NotNull String text) {
+        if (!text.startsWith(HEADER_PREFIX)) {
+            return "";
+        }
+        int end = text.indexOf('\n');
+        return text.substring(HEADER_PREFIX.length(), end != -1 ? end : text.length()).trim();
+    }
+
+    @SuppressWarnings("rawtypes")
+    @NotNull
+    private static List<SDLDefinition> collectDefinitions(@NotNull TypeDefinitionRegistry registry) {
+        List<SDLDefinition> definitions = new ArrayList<>();
+        registry.schemaDefinition().ifPresent(definitions::add);
+        definitions.addAll(registry.getSchemaExtensionDefinitions());
+        definitions.addAll(registry.getDirectiveDefinitions().values());
+        for (ScalarTypeDefinition scalar : registry.scalars().values()) {
+            // the specification scalars are always added by the registry itself
+            if (ScalarInfo.GRAPHQL_SPECIFICATION_SCALARS_DEFINITIONS.get(scalar.getName()) != scalar) {
+                definitions.add(scalar);
+            }
+        }
+        definitions.addAll(registry.types().values());
+        registry.objectTypeExtensions().values().forEach(definitions::addAll);
+        registry.interfaceTypeExtensions().values().forEach(definitions::addAll);
+        registry.unionTypeExtensions().values().forEach(definitions::addAll);
+        registry.enumTypeExtensions().values().forEach(definitions::addAll);
+        registry.scalarTypeExtensions().values().forEach(definitions::addAll);
+        registry.inputObjectTypeExtensions().values().forEach(definitions::addAll);
+        return definitions;
+    }
+}
@@ -178,15 +178,30 @@ public class GraphQLSchemaUtil {
                                                           @NotNull GraphQLFragmentDefinition fragmentCandidate,
                                                           @NotNull GraphQLType requiredTypeScope) {
 
-        // unwrap non-nullable and list types
-        requiredTypeScope = getUnmodifiedType(requiredTypeScope);
-
         final GraphQLTypeCondition typeCondition = fragmentCandidate.getTypeCondition();
         if (typeCondition == null || typeCondition.getTypeName() == null) {
             return false;
         }
 
         final String fragmentTypeName = Optional.ofNullable(typeCondition.getTypeName().getName()).orElse("");
+        return isFragmentApplicableInTypeScope(typeDefinitionRegistry, fragmentTypeName, requiredTypeScope);
+    }
+
+    /**
+     * Gets whether a fragment with the specified type condition can be spread in the required type scope
+     *
+     * @param fragmentTypeName the type name of the fragment type condition, e.g. as stored in the fragment index
+     */
+    public static boolean isFragmentApplicableInTypeScope(@NotNull TypeDefinitionRegistry typeDefinitionRegistry,
+                                                          @NotNull String fragmentTypeName,
+                                                          @NotNull GraphQLType requiredTypeScope) {
+        if (fragmentTypeName.isEmpty()) {
+            return false;
+        }
+
+        // unwrap non-nullable and list types
+        requiredTypeScope = getUnmodifiedType(requiredTypeScope);
+
         if (fragmentTypeName.equals(getTypeName(requiredTypeScope))) {
             // direct match, e.g. User scope, fragment on User
             return true;
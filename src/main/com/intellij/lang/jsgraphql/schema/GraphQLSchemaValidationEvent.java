@@ -0,0 +1,29 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event emitted for each schema validation, it runs on the first request of the schema errors
+ * after the schema build is reported by {@link GraphQLSchemaBuildEvent}, so the event duration is the validation time.
+ */
+@Name("com.intellij.lang.jsgraphql.SchemaValidation")
+@Label("GraphQL Schema Validation")
+@Category("GraphQL")
+@Description("Validation of a built GraphQL schema")
+final class GraphQLSchemaValidationEvent extends jdk.jfr.Event {
+
+    @Label("Errors")
+    int errors;
+
+    @Label("Requester")
+    String requester;
+
+    void fill(int errors, @NotNull String requester) {
+        this.errors = errors;
+        this.requester = requester;
+    }
+}
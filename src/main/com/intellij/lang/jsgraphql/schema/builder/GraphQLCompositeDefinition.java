@@ -6,8 +6,10 @@ import com.intellij.lang.jsgraphql.types.language.SDLDefinition;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 public abstract class GraphQLCompositeDefinition<T extends SDLDefinition<T>> {
     protected final List<T> myDefinitions = new SmartList<>();
@@ -38,6 +40,11 @@ public abstract class GraphQLCompositeDefinition<T extends SDLDefinition<T>> {
             return null;
         }
 
+        if (myDefinitions.size() == 1 && !hasDuplicateMembers(myDefinitions.get(0))) {
+            // nothing to merge, so the definition is shared as is, e.g. with the registries of other scopes containing the same file
+            return myMergedDefinition = myDefinitions.get(0);
+        }
+
         return myMergedDefinition = mergeDefinitions();
     }
 
@@ -46,4 +53,24 @@ public abstract class GraphQLCompositeDefinition<T extends SDLDefinition<T>> {
      */
     @NotNull
     protected abstract T mergeDefinitions();
+
+    /**
+     * Merging a single definition still drops the members with the same name, so it's only skipped when there are no such members.
+     */
+    protected boolean hasDuplicateMembers(@NotNull T definition) {
+        return false;
+    }
+
+    protected static <N> boolean hasDuplicateKeys(@NotNull List<N> nodes, @NotNull Function<N, String> keyMapper) {
+        if (nodes.size() < 2) {
+            return false;
+        }
+        Set<String> keys = new HashSet<>();
+        for (N node : nodes) {
+            if (!keys.add(keyMapper.apply(node))) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -17,30 +17,41 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public final class GraphQLCompositeRegistry {
     private static final Logger LOG = Logger.getInstance(GraphQLCompositeRegistry.class);
 
-    private final Map<String, GraphQLCompositeDefinition<?>> myNamedCompositeDefinitions = new HashMap<>();
-    private final GraphQLSchemaTypeCompositeDefinition mySchemaCompositeDefinition = new GraphQLSchemaTypeCompositeDefinition();
+    /**
+     * The key of the schema definition and its extensions, which can't clash with a type name.
+     */
+    public static final String SCHEMA_DEFINITION_KEY = "";
+
+    // sorted, so the registry built incrementally lists the types in the same order as the one built from scratch
+    private final Map<String, GraphQLCompositeDefinition<?>> myNamedCompositeDefinitions = new TreeMap<>();
+    private GraphQLSchemaTypeCompositeDefinition mySchemaCompositeDefinition = new GraphQLSchemaTypeCompositeDefinition();
 
     public void merge(@NotNull TypeDefinitionRegistry source) throws GraphQLException {
+        forEachDefinition(source, this::addDefinition);
+    }
+
+    public static void forEachDefinition(@NotNull TypeDefinitionRegistry source, @NotNull Consumer<SDLDefinition<?>> consumer) {
         if (source.schemaDefinition().isPresent()) {
-            addTypeDefinition(source.schemaDefinition().get());
+            consumer.accept(source.schemaDefinition().get());
         }
 
-        source.types().values().forEach(this::addTypeDefinition);
-        source.getDirectiveDefinitions().values().forEach(this::addTypeDefinition);
-        source.scalars().values().forEach(this::addTypeDefinition);
+        source.types().values().forEach(definition -> consumer.accept(definition));
+        source.getDirectiveDefinitions().values().forEach(consumer);
+        source.scalars().values().forEach(consumer);
 
-        source.getSchemaExtensionDefinitions().forEach(this::addExtensionDefinition);
-        source.objectTypeExtensions().forEach((key, value) -> value.forEach(this::addExtensionDefinition));
-        source.interfaceTypeExtensions().forEach((key, value) -> value.forEach(this::addExtensionDefinition));
-        source.unionTypeExtensions().forEach((key, value) -> value.forEach(this::addExtensionDefinition));
-        source.enumTypeExtensions().forEach((key, value) -> value.forEach(this::addExtensionDefinition));
-        source.scalarTypeExtensions().forEach((key, value) -> value.forEach(this::addExtensionDefinition));
-        source.inputObjectTypeExtensions().forEach((key, value) -> value.forEach(this::addExtensionDefinition));
+        source.getSchemaExtensionDefinitions().forEach(consumer);
+        source.objectTypeExtensions().forEach((key, value) -> value.forEach(consumer));
+        source.interfaceTypeExtensions().forEach((key, value) -> value.forEach(consumer));
+        source.unionTypeExtensions().forEach((key, value) -> value.forEach(consumer));
+        source.enumTypeExtensions().forEach((key, value) -> value.forEach(consumer));
+        source.scalarTypeExtensions().forEach((key, value) -> value.forEach(consumer));
+        source.inputObjectTypeExtensions().forEach((key, value) -> value.forEach(consumer));
     }
 
     @NotNull
@@ -72,17 +83,34 @@ public final class GraphQLCompositeRegistry {
             return mySchemaCompositeDefinition;
         }
 
-        if (!(definition instanceof NamedNode)) {
+        String name = getDefinitionName(definition);
+        if (name == null) {
             return null;
         }
 
-        String name = ((NamedNode<?>) definition).getName();
-        if (StringUtil.isEmpty(name)) {
+        return myNamedCompositeDefinitions.computeIfAbsent(
+            name, n -> createCompositeDefinition(definition));
+    }
+
+    /**
+     * The definitions with the same key are merged into the same composite definition.
+     *
+     * @return the type or directive name, {@link #SCHEMA_DEFINITION_KEY} for the schema definition and its extensions,
+     * or null if the definition has no name
+     */
+    @Nullable
+    public static String getDefinitionKey(@NotNull SDLDefinition<?> definition) {
+        return definition instanceof SchemaDefinition ? SCHEMA_DEFINITION_KEY : getDefinitionName(definition);
+    }
+
+    @Nullable
+    private static String getDefinitionName(@NotNull SDLDefinition<?> definition) {
+        if (!(definition instanceof NamedNode)) {
             return null;
         }
 
-        return myNamedCompositeDefinitions.computeIfAbsent(
-            name, n -> createCompositeDefinition(definition));
+        String name = ((NamedNode<?>) definition).getName();
+        return StringUtil.isEmpty(name) ? null : name;
     }
 
     public void addTypeDefinition(@NotNull SDLDefinition<?> definition) {
@@ -161,6 +189,23 @@ public final class GraphQLCompositeRegistry {
         }
     }
 
+    /**
+     * Replaces the composite definition for the key with the one merged from the given definitions, e.g. after the files declaring it
+     * have changed. The first definition determines the kind of the composite definition and the definitions of other kinds are ignored,
+     * the same as when all the definitions are added one by one, so the result doesn't depend on the previous content of the registry.
+     *
+     * @param key         see {@link #getDefinitionKey(SDLDefinition)}
+     * @param definitions all the definitions with the key in the merge order, the composite definition is removed if empty
+     */
+    public void replaceDefinitions(@NotNull String key, @NotNull List<? extends SDLDefinition<?>> definitions) {
+        if (SCHEMA_DEFINITION_KEY.equals(key)) {
+            mySchemaCompositeDefinition = new GraphQLSchemaTypeCompositeDefinition();
+        } else {
+            myNamedCompositeDefinitions.remove(key);
+        }
+        definitions.forEach(this::addDefinition);
+    }
+
     @NotNull
     public TypeDefinitionRegistry buildTypeDefinitionRegistry() {
         TypeDefinitionRegistry registry = new TypeDefinitionRegistry();
@@ -14,6 +14,11 @@ import static com.intellij.lang.jsgraphql.schema.GraphQLTypeDefinitionUtil.*;
 public class GraphQLEnumTypeCompositeDefinition
     extends GraphQLExtendableCompositeDefinition<EnumTypeDefinition, EnumTypeExtensionDefinition> {
 
+    @Override
+    protected boolean hasDuplicateMembers(@NotNull EnumTypeDefinition definition) {
+        return hasDuplicateKeys(definition.getEnumValueDefinitions(), EnumValueDefinition::getName);
+    }
+
     @NotNull
     @Override
     protected EnumTypeDefinition mergeDefinitions() {
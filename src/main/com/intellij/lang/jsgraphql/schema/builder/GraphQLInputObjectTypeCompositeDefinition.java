@@ -14,6 +14,11 @@ import static com.intellij.lang.jsgraphql.schema.GraphQLTypeDefinitionUtil.*;
 public class GraphQLInputObjectTypeCompositeDefinition
     extends GraphQLExtendableCompositeDefinition<InputObjectTypeDefinition, InputObjectTypeExtensionDefinition> {
 
+    @Override
+    protected boolean hasDuplicateMembers(@NotNull InputObjectTypeDefinition definition) {
+        return hasDuplicateKeys(definition.getInputValueDefinitions(), InputValueDefinition::getName);
+    }
+
     @NotNull
     @Override
     protected InputObjectTypeDefinition mergeDefinitions() {
@@ -11,6 +11,11 @@ import static com.intellij.lang.jsgraphql.schema.GraphQLTypeDefinitionUtil.*;
 public class GraphQLInterfaceTypeCompositeDefinition
     extends GraphQLExtendableCompositeDefinition<InterfaceTypeDefinition, InterfaceTypeExtensionDefinition> {
 
+    @Override
+    protected boolean hasDuplicateMembers(@NotNull InterfaceTypeDefinition definition) {
+        return hasDuplicateKeys(definition.getFieldDefinitions(), FieldDefinition::getName);
+    }
+
     @NotNull
     @Override
     protected InterfaceTypeDefinition mergeDefinitions() {
@@ -9,6 +9,11 @@ import java.util.*;
 import static com.intellij.lang.jsgraphql.schema.GraphQLTypeDefinitionUtil.*;
 
 public class GraphQLObjectTypeCompositeDefinition extends GraphQLExtendableCompositeDefinition<ObjectTypeDefinition, ObjectTypeExtensionDefinition> {
+    @Override
+    protected boolean hasDuplicateMembers(@NotNull ObjectTypeDefinition definition) {
+        return hasDuplicateKeys(definition.getFieldDefinitions(), FieldDefinition::getName);
+    }
+
     @NotNull
     @Override
     protected ObjectTypeDefinition mergeDefinitions() {
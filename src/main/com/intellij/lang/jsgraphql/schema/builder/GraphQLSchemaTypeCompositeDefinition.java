@@ -14,6 +14,11 @@ import static com.intellij.lang.jsgraphql.schema.GraphQLTypeDefinitionUtil.*;
 public class GraphQLSchemaTypeCompositeDefinition
     extends GraphQLExtendableCompositeDefinition<SchemaDefinition, SchemaExtensionDefinition> {
 
+    @Override
+    protected boolean hasDuplicateMembers(@NotNull SchemaDefinition definition) {
+        return hasDuplicateKeys(definition.getOperationTypeDefinitions(), OperationTypeDefinition::getName);
+    }
+
     @NotNull
     @Override
     protected SchemaDefinition mergeDefinitions() {
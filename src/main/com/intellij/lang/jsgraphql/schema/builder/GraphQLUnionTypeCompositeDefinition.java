@@ -1,5 +1,6 @@
 package com.intellij.lang.jsgraphql.schema.builder;
 
+import com.intellij.lang.jsgraphql.types.language.AstPrinter;
 import com.intellij.lang.jsgraphql.types.language.Directive;
 import com.intellij.lang.jsgraphql.types.language.Type;
 import com.intellij.lang.jsgraphql.types.language.UnionTypeDefinition;
@@ -14,6 +15,11 @@ import static com.intellij.lang.jsgraphql.schema.GraphQLTypeDefinitionUtil.*;
 public class GraphQLUnionTypeCompositeDefinition
     extends GraphQLExtendableCompositeDefinition<UnionTypeDefinition, UnionTypeExtensionDefinition> {
 
+    @Override
+    protected boolean hasDuplicateMembers(@NotNull UnionTypeDefinition definition) {
+        return hasDuplicateKeys(definition.getMemberTypes(), AstPrinter::printAst);
+    }
+
     @NotNull
     @Override
     protected UnionTypeDefinition mergeDefinitions() {
@@ -18,6 +18,8 @@
 package com.intellij.lang.jsgraphql.types.language;
 
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.intellij.lang.injection.InjectedLanguageManager;
 import com.intellij.lang.jsgraphql.types.PublicApi;
 import com.intellij.openapi.util.ModificationTracker;
@@ -38,6 +40,9 @@ import java.util.Objects;
 @PublicApi
 public final class SourceLocation implements Serializable {
 
+    // every node of a file has its own location with the same file path
+    private static final Interner<String> SOURCE_NAME_INTERNER = Interners.newWeakInterner();
+
     private final int line;
     private final int column;
     private final String sourceName;
@@ -108,7 +113,7 @@ public final class SourceLocation implements Serializable {
         Location location = new Location(
             lineNumber + 1,
             column + 1,
-            virtualFile != null ? FileUtil.toSystemIndependentName(virtualFile.getPath()) : null,
+            virtualFile != null ? SOURCE_NAME_INTERNER.intern(FileUtil.toSystemIndependentName(virtualFile.getPath())) : null,
             offset
         );
         return CachedValueProvider.Result.create(location, containingFile, topLevelFile, document);
@@ -18,21 +18,77 @@
 package com.intellij.lang.jsgraphql.types.validation;
 
 
-import com.google.common.collect.ImmutableList;
 import com.intellij.lang.jsgraphql.types.Internal;
 import com.intellij.lang.jsgraphql.types.language.*;
 
 import java.util.*;
 
+/**
+ * Dispatches the AST nodes to the validation rules.
+ * <p>
+ * The rules overriding a check are looked up once per rule class, so a node is only passed to the rules interested in it,
+ * and the rules skipped inside fragment definitions are tracked with a bit set, which keeps the dispatch allocation free.
+ */
 @Internal
 public class RulesVisitor implements DocumentVisitor {
 
-    private final ImmutableList<AbstractRule> rules;
+    private enum Dispatch {
+        DOCUMENT("checkDocument", Document.class),
+        ARGUMENT("checkArgument", Argument.class),
+        TYPE_NAME("checkTypeName", TypeName.class),
+        VARIABLE_DEFINITION("checkVariableDefinition", VariableDefinition.class),
+        FIELD("checkField", Field.class),
+        INLINE_FRAGMENT("checkInlineFragment", InlineFragment.class),
+        DIRECTIVE("checkDirective", Directive.class, List.class),
+        FRAGMENT_SPREAD("checkFragmentSpread", FragmentSpread.class),
+        FRAGMENT_DEFINITION("checkFragmentDefinition", FragmentDefinition.class),
+        OPERATION_DEFINITION("checkOperationDefinition", OperationDefinition.class),
+        VARIABLE("checkVariable", VariableReference.class),
+        SELECTION_SET("checkSelectionSet", SelectionSet.class),
+        LEAVE_OPERATION_DEFINITION("leaveOperationDefinition", OperationDefinition.class),
+        LEAVE_SELECTION_SET("leaveSelectionSet", SelectionSet.class),
+        DOCUMENT_FINISHED("documentFinished", Document.class);
+
+        private static final Dispatch[] VALUES = values();
+
+        private final String methodName;
+        private final Class<?>[] parameterTypes;
+
+        Dispatch(String methodName, Class<?>... parameterTypes) {
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+        }
+    }
+
+    private static final ClassValue<Set<Dispatch>> OVERRIDDEN_DISPATCHES = new ClassValue<Set<Dispatch>>() {
+        @Override
+        protected Set<Dispatch> computeValue(Class<?> ruleClass) {
+            Set<Dispatch> dispatches = EnumSet.noneOf(Dispatch.class);
+            for (Dispatch dispatch : Dispatch.VALUES) {
+                try {
+                    if (ruleClass.getMethod(dispatch.methodName, dispatch.parameterTypes).getDeclaringClass() != AbstractRule.class) {
+                        dispatches.add(dispatch);
+                    }
+                } catch (NoSuchMethodException e) {
+                    dispatches.add(dispatch);
+                }
+            }
+            return dispatches;
+        }
+    };
+
+    private final AbstractRule[] rules;
     private final ValidationContext validationContext;
-    private boolean subVisitor;
+    private final boolean subVisitor;
+    /**
+     * The indices of the rules overriding a check, in the order of the rules
+     */
+    private final int[][] ruleIndicesByDispatch = new int[Dispatch.VALUES.length][];
     private final List<AbstractRule> rulesVisitingFragmentSpreads = new ArrayList<>();
-    private final Map<Node, List<AbstractRule>> rulesToSkipByUntilNode = new IdentityHashMap<>();
-    private final Set<AbstractRule> rulesToSkip = new LinkedHashSet<>();
+    private final BitSet rulesVisitingFragmentSpreadsBits = new BitSet();
+    private final Map<Node, BitSet> rulesToSkipByUntilNode = new IdentityHashMap<>();
+    private final BitSet rulesToSkip = new BitSet();
+    private RulesVisitor fragmentSpreadsVisitor;
 
     public RulesVisitor(ValidationContext validationContext, List<AbstractRule> rules) {
         this(validationContext, rules, false);
@@ -40,16 +96,35 @@ public class RulesVisitor implements DocumentVisitor {
 
     public RulesVisitor(ValidationContext validationContext, List<AbstractRule> rules, boolean subVisitor) {
         this.validationContext = validationContext;
+        this.rules = rules.toArray(new AbstractRule[0]);
         this.subVisitor = subVisitor;
-        this.rules = ImmutableList.copyOf(rules);
-        this.subVisitor = subVisitor;
+        buildDispatchTable();
         findRulesVisitingFragmentSpreads();
     }
 
-    private void findRulesVisitingFragmentSpreads() {
+    private void buildDispatchTable() {
+        int[] counts = new int[Dispatch.VALUES.length];
         for (AbstractRule rule : rules) {
-            if (rule.isVisitFragmentSpreads()) {
-                rulesVisitingFragmentSpreads.add(rule);
+            for (Dispatch dispatch : OVERRIDDEN_DISPATCHES.get(rule.getClass())) {
+                counts[dispatch.ordinal()]++;
+            }
+        }
+        for (Dispatch dispatch : Dispatch.VALUES) {
+            ruleIndicesByDispatch[dispatch.ordinal()] = new int[counts[dispatch.ordinal()]];
+            counts[dispatch.ordinal()] = 0;
+        }
+        for (int i = 0; i < rules.length; i++) {
+            for (Dispatch dispatch : OVERRIDDEN_DISPATCHES.get(rules[i].getClass())) {
+                ruleIndicesByDispatch[dispatch.ordinal()][counts[dispatch.ordinal()]++] = i;
+            }
+        }
+    }
+
+    private void findRulesVisitingFragmentSpreads() {
+        for (int i = 0; i < rules.length; i++) {
+            if (rules[i].isVisitFragmentSpreads()) {
+                rulesVisitingFragmentSpreads.add(rules[i]);
+                rulesVisitingFragmentSpreadsBits.set(i);
             }
         }
     }
@@ -57,131 +132,160 @@ public class RulesVisitor implements DocumentVisitor {
     @Override
     public void enter(Node node, List<Node> ancestors) {
         validationContext.getTraversalContext().enter(node, ancestors);
-        Set<AbstractRule> tmpRulesSet = new LinkedHashSet<>(this.rules);
-        tmpRulesSet.removeAll(rulesToSkip);
-        List<AbstractRule> rulesToConsider = new ArrayList<>(tmpRulesSet);
         if (node instanceof Document){
-            checkDocument((Document) node, rulesToConsider);
+            checkDocument((Document) node);
         } else if (node instanceof Argument) {
-            checkArgument((Argument) node, rulesToConsider);
+            checkArgument((Argument) node);
         } else if (node instanceof TypeName) {
-            checkTypeName((TypeName) node, rulesToConsider);
+            checkTypeName((TypeName) node);
         } else if (node instanceof VariableDefinition) {
-            checkVariableDefinition((VariableDefinition) node, rulesToConsider);
+            checkVariableDefinition((VariableDefinition) node);
         } else if (node instanceof Field) {
-            checkField((Field) node, rulesToConsider);
+            checkField((Field) node);
         } else if (node instanceof InlineFragment) {
-            checkInlineFragment((InlineFragment) node, rulesToConsider);
+            checkInlineFragment((InlineFragment) node);
         } else if (node instanceof Directive) {
-            checkDirective((Directive) node, ancestors, rulesToConsider);
+            checkDirective((Directive) node, ancestors);
         } else if (node instanceof FragmentSpread) {
-            checkFragmentSpread((FragmentSpread) node, rulesToConsider, ancestors);
+            checkFragmentSpread((FragmentSpread) node, ancestors);
         } else if (node instanceof FragmentDefinition) {
-            checkFragmentDefinition((FragmentDefinition) node, rulesToConsider);
+            checkFragmentDefinition((FragmentDefinition) node);
         } else if (node instanceof OperationDefinition) {
-            checkOperationDefinition((OperationDefinition) node, rulesToConsider);
+            checkOperationDefinition((OperationDefinition) node);
         } else if (node instanceof VariableReference) {
-            checkVariable((VariableReference) node, rulesToConsider);
+            checkVariable((VariableReference) node);
         } else if (node instanceof SelectionSet) {
-            checkSelectionSet((SelectionSet) node, rulesToConsider);
+            checkSelectionSet((SelectionSet) node);
         }
     }
 
-    private void checkDocument(Document node, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkDocument(node);
+    private int[] getRuleIndices(Dispatch dispatch) {
+        return ruleIndicesByDispatch[dispatch.ordinal()];
+    }
+
+    private void checkDocument(Document node) {
+        for (int index : getRuleIndices(Dispatch.DOCUMENT)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkDocument(node);
         }
     }
 
 
-    private void checkArgument(Argument node, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkArgument(node);
+    private void checkArgument(Argument node) {
+        for (int index : getRuleIndices(Dispatch.ARGUMENT)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkArgument(node);
         }
     }
 
-    private void checkTypeName(TypeName node, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkTypeName(node);
+    private void checkTypeName(TypeName node) {
+        for (int index : getRuleIndices(Dispatch.TYPE_NAME)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkTypeName(node);
         }
     }
 
 
-    private void checkVariableDefinition(VariableDefinition variableDefinition, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkVariableDefinition(variableDefinition);
+    private void checkVariableDefinition(VariableDefinition variableDefinition) {
+        for (int index : getRuleIndices(Dispatch.VARIABLE_DEFINITION)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkVariableDefinition(variableDefinition);
         }
     }
 
-    private void checkField(Field field, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkField(field);
+    private void checkField(Field field) {
+        for (int index : getRuleIndices(Dispatch.FIELD)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkField(field);
         }
     }
 
-    private void checkInlineFragment(InlineFragment inlineFragment, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkInlineFragment(inlineFragment);
+    private void checkInlineFragment(InlineFragment inlineFragment) {
+        for (int index : getRuleIndices(Dispatch.INLINE_FRAGMENT)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkInlineFragment(inlineFragment);
         }
     }
 
-    private void checkDirective(Directive directive, List<Node> ancestors, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkDirective(directive, ancestors);
+    private void checkDirective(Directive directive, List<Node> ancestors) {
+        for (int index : getRuleIndices(Dispatch.DIRECTIVE)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkDirective(directive, ancestors);
         }
     }
 
-    private void checkFragmentSpread(FragmentSpread fragmentSpread, List<AbstractRule> rules, List<Node> ancestors) {
-        for (AbstractRule rule : rules) {
-            rule.checkFragmentSpread(fragmentSpread);
+    private void checkFragmentSpread(FragmentSpread fragmentSpread, List<Node> ancestors) {
+        for (int index : getRuleIndices(Dispatch.FRAGMENT_SPREAD)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkFragmentSpread(fragmentSpread);
         }
-        List<AbstractRule> rulesVisitingFragmentSpreads = getRulesVisitingFragmentSpreads(rules);
-        if (rulesVisitingFragmentSpreads.size() > 0) {
+        RulesVisitor fragmentVisitor = getFragmentSpreadsVisitor();
+        if (fragmentVisitor != null) {
             FragmentDefinition fragment = validationContext.getFragment(fragmentSpread.getName());
             if (fragment != null && !ancestors.contains(fragment)) {
-                new LanguageTraversal(ancestors).traverse(fragment, new RulesVisitor(validationContext, rulesVisitingFragmentSpreads, true));
+                new LanguageTraversal(ancestors).traverse(fragment, fragmentVisitor);
             }
         }
     }
 
-    private List<AbstractRule> getRulesVisitingFragmentSpreads(List<AbstractRule> rules) {
+    /**
+     * A sub visitor only tracks the traversal in the shared validation context, so it's reused for all spreads
+     * visited by the same rules, a sub visitor of the same rules is the visitor itself.
+     */
+    private RulesVisitor getFragmentSpreadsVisitor() {
+        if (rulesVisitingFragmentSpreads.isEmpty()) {
+            return null;
+        }
+        if (!rulesToSkip.intersects(rulesVisitingFragmentSpreadsBits)) {
+            if (fragmentSpreadsVisitor == null) {
+                fragmentSpreadsVisitor = subVisitor && rulesVisitingFragmentSpreads.size() == rules.length
+                    ? this
+                    : new RulesVisitor(validationContext, rulesVisitingFragmentSpreads, true);
+            }
+            return fragmentSpreadsVisitor;
+        }
+
         List<AbstractRule> result = new ArrayList<>();
-        for (AbstractRule rule : rules) {
-            if (rule.isVisitFragmentSpreads()) result.add(rule);
+        for (int i = rulesVisitingFragmentSpreadsBits.nextSetBit(0); i >= 0; i = rulesVisitingFragmentSpreadsBits.nextSetBit(i + 1)) {
+            if (!rulesToSkip.get(i)) result.add(rules[i]);
         }
-        return result;
+        return result.isEmpty() ? null : new RulesVisitor(validationContext, result, true);
     }
 
 
-    private void checkFragmentDefinition(FragmentDefinition fragmentDefinition, List<AbstractRule> rules) {
+    private void checkFragmentDefinition(FragmentDefinition fragmentDefinition) {
         if (!subVisitor) {
-            rulesToSkipByUntilNode.put(fragmentDefinition, new ArrayList<>(rulesVisitingFragmentSpreads));
-            rulesToSkip.addAll(rulesVisitingFragmentSpreads);
+            rulesToSkipByUntilNode.put(fragmentDefinition, rulesVisitingFragmentSpreadsBits);
+            rulesToSkip.or(rulesVisitingFragmentSpreadsBits);
         }
 
 
-        for (AbstractRule rule : rules) {
-            if (!subVisitor && (rule.isVisitFragmentSpreads())) continue;
-            rule.checkFragmentDefinition(fragmentDefinition);
+        for (int index : getRuleIndices(Dispatch.FRAGMENT_DEFINITION)) {
+            // the rules visiting fragment spreads are skipped above unless this is a sub visitor
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkFragmentDefinition(fragmentDefinition);
         }
 
     }
 
-    private void checkOperationDefinition(OperationDefinition operationDefinition, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkOperationDefinition(operationDefinition);
+    private void checkOperationDefinition(OperationDefinition operationDefinition) {
+        for (int index : getRuleIndices(Dispatch.OPERATION_DEFINITION)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkOperationDefinition(operationDefinition);
         }
     }
 
-    private void checkSelectionSet(SelectionSet selectionSet, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkSelectionSet(selectionSet);
+    private void checkSelectionSet(SelectionSet selectionSet) {
+        for (int index : getRuleIndices(Dispatch.SELECTION_SET)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkSelectionSet(selectionSet);
         }
     }
 
-    private void checkVariable(VariableReference variableReference, List<AbstractRule> rules) {
-        for (AbstractRule rule : rules) {
-            rule.checkVariable(variableReference);
+    private void checkVariable(VariableReference variableReference) {
+        for (int index : getRuleIndices(Dispatch.VARIABLE)) {
+            if (rulesToSkip.get(index)) continue;
+            rules[index].checkVariable(variableReference);
         }
     }
 
@@ -198,29 +302,31 @@ public class RulesVisitor implements DocumentVisitor {
             leaveSelectionSet((SelectionSet) node);
         }
 
-        if (rulesToSkipByUntilNode.containsKey(node)) {
-            rulesToSkip.removeAll(rulesToSkipByUntilNode.get(node));
-            rulesToSkipByUntilNode.remove(node);
+        if (!rulesToSkipByUntilNode.isEmpty()) {
+            BitSet rulesToRestore = rulesToSkipByUntilNode.remove(node);
+            if (rulesToRestore != null) {
+                rulesToSkip.andNot(rulesToRestore);
+            }
         }
 
 
     }
 
     private void leaveSelectionSet(SelectionSet selectionSet) {
-        for (AbstractRule rule : rules) {
-            rule.leaveSelectionSet(selectionSet);
+        for (int index : getRuleIndices(Dispatch.LEAVE_SELECTION_SET)) {
+            rules[index].leaveSelectionSet(selectionSet);
         }
     }
 
     private void leaveOperationDefinition(OperationDefinition operationDefinition) {
-        for (AbstractRule rule : rules) {
-            rule.leaveOperationDefinition(operationDefinition);
+        for (int index : getRuleIndices(Dispatch.LEAVE_OPERATION_DEFINITION)) {
+            rules[index].leaveOperationDefinition(operationDefinition);
         }
     }
 
     private void documentFinished(Document document) {
-        for (AbstractRule rule : rules) {
-            rule.documentFinished(document);
+        for (int index : getRuleIndices(Dispatch.DOCUMENT_FINISHED)) {
+            rules[index].documentFinished(document);
         }
     }
 }
@@ -36,6 +36,10 @@ public class ValidationErrorCollector {
         return errors;
     }
 
+    public void clear() {
+        errors.clear();
+    }
+
     public boolean containsValidationError(ValidationErrorType validationErrorType) {
         return containsValidationError(validationErrorType, null);
     }
@@ -18,17 +18,28 @@
 package com.intellij.lang.jsgraphql.types.validation;
 
 
+import com.google.common.collect.ImmutableSet;
 import com.intellij.lang.jsgraphql.types.Internal;
+import com.intellij.lang.jsgraphql.types.language.Definition;
 import com.intellij.lang.jsgraphql.types.language.Document;
+import com.intellij.lang.jsgraphql.types.language.Node;
 import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
 import com.intellij.lang.jsgraphql.types.validation.rules.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Internal
 public class Validator {
 
+    /**
+     * The rules relating the top-level definitions of a document to each other, they only need the top-level definitions.
+     */
+    private static final Set<Class<? extends AbstractRule>> DOCUMENT_RULES = ImmutableSet.of(
+        ExecutableDefinitions.class, LoneAnonymousOperation.class, UniqueOperationNames.class, UniqueFragmentNames.class);
+
     public List<ValidationError> validateDocument(GraphQLSchema schema, Document document) {
         ValidationContext validationContext = new ValidationContext(schema, document);
 
@@ -41,6 +52,82 @@ public class Validator {
         return validationErrorCollector.getErrors();
     }
 
+    /**
+     * Validates a single top-level definition, the fragments it spreads are looked up in the whole document.
+     * <p>
+     * The rules relating the definitions to each other aren't run, see {@link #validateDocumentDefinitions}.
+     * Unused fragments aren't reported, because that depends on all operations of the document.
+     */
+    public List<ValidationError> validateDefinition(GraphQLSchema schema, Document document, Definition<?> definition) {
+        return createDefinitionValidator(schema, document).validate(definition);
+    }
+
+    /**
+     * Creates the validation context and the rules once for validating several definitions of the same document,
+     * see {@link #validateDefinition}.
+     */
+    public DefinitionValidator createDefinitionValidator(GraphQLSchema schema, Document document) {
+        return new DefinitionValidator(schema, document);
+    }
+
+    public final class DefinitionValidator {
+        private final Document document;
+        private final ValidationErrorCollector validationErrorCollector = new ValidationErrorCollector();
+        private final List<OverlappingFieldsCanBeMerged> overlappingFieldsRules = new ArrayList<>();
+        private final RulesVisitor rulesVisitor;
+
+        private DefinitionValidator(GraphQLSchema schema, Document document) {
+            this.document = document;
+            ValidationContext validationContext = new ValidationContext(schema, document);
+            List<AbstractRule> rules = new ArrayList<>();
+            for (AbstractRule rule : createRules(validationContext, validationErrorCollector)) {
+                if (!DOCUMENT_RULES.contains(rule.getClass()) && !(rule instanceof NoUnusedFragments)) {
+                    rules.add(rule);
+                }
+                if (rule instanceof OverlappingFieldsCanBeMerged) {
+                    overlappingFieldsRules.add((OverlappingFieldsCanBeMerged) rule);
+                }
+            }
+            rulesVisitor = new RulesVisitor(validationContext, rules);
+        }
+
+        public List<ValidationError> validate(Definition<?> definition) {
+            validationErrorCollector.clear();
+            overlappingFieldsRules.forEach(OverlappingFieldsCanBeMerged::resetCheckedFields);
+
+            List<Node> path = new ArrayList<>(Collections.singletonList(document));
+            new LanguageTraversal(path).traverse(definition, rulesVisitor);
+
+            return new ArrayList<>(validationErrorCollector.getErrors());
+        }
+    }
+
+    /**
+     * Runs the rules relating the top-level definitions to each other, e.g. unique operation and fragment names,
+     * the definitions are entered without visiting their content.
+     */
+    public List<ValidationError> validateDocumentDefinitions(GraphQLSchema schema, Document document) {
+        ValidationContext validationContext = new ValidationContext(schema, document);
+
+        ValidationErrorCollector validationErrorCollector = new ValidationErrorCollector();
+        List<AbstractRule> rules = new ArrayList<>();
+        for (AbstractRule rule : createRules(validationContext, validationErrorCollector)) {
+            if (DOCUMENT_RULES.contains(rule.getClass())) {
+                rules.add(rule);
+            }
+        }
+        RulesVisitor rulesVisitor = new RulesVisitor(validationContext, rules);
+        List<Node> path = Collections.singletonList(document);
+        rulesVisitor.enter(document, Collections.emptyList());
+        for (Definition<?> definition : document.getDefinitions()) {
+            rulesVisitor.enter(definition, path);
+            rulesVisitor.leave(definition, path);
+        }
+        rulesVisitor.leave(document, Collections.emptyList());
+
+        return validationErrorCollector.getErrors();
+    }
+
     public List<AbstractRule> createRules(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
         List<AbstractRule> rules = new ArrayList<>();
 
@@ -19,7 +19,6 @@ package com.intellij.lang.jsgraphql.types.validation.rules;
 
 
 import com.intellij.lang.jsgraphql.types.Internal;
-import com.intellij.lang.jsgraphql.types.language.Definition;
 import com.intellij.lang.jsgraphql.types.language.FragmentDefinition;
 import com.intellij.lang.jsgraphql.types.language.FragmentSpread;
 import com.intellij.lang.jsgraphql.types.language.Node;
@@ -38,17 +37,22 @@ public class NoFragmentCycles extends AbstractRule {
 
     public NoFragmentCycles(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
         super(validationContext, validationErrorCollector);
-        prepareFragmentMap();
     }
 
-    private void prepareFragmentMap() {
-        List<Definition> definitions = getValidationContext().getDocument().getDefinitions();
-        for (Definition definition : definitions) {
-            if (definition instanceof FragmentDefinition) {
-                FragmentDefinition fragmentDefinition = (FragmentDefinition) definition;
-                fragmentSpreads.put(fragmentDefinition.getName(), gatherSpreads(fragmentDefinition));
+    /**
+     * The spreads are gathered on demand, so validating a single definition doesn't visit all fragments of the document.
+     */
+    private List<FragmentSpread> getFragmentSpreads(String fragmentName) {
+        List<FragmentSpread> spreads = fragmentSpreads.get(fragmentName);
+        if (spreads == null) {
+            FragmentDefinition fragmentDefinition = getValidationContext().getFragment(fragmentName);
+            if (fragmentDefinition == null) {
+                return null;
             }
+            spreads = gatherSpreads(fragmentDefinition);
+            fragmentSpreads.put(fragmentName, spreads);
         }
+        return spreads;
     }
 
 
@@ -80,7 +84,7 @@ public class NoFragmentCycles extends AbstractRule {
     }
 
     private void detectCycleRecursive(String fragmentName, String initialName, List<FragmentSpread> spreadPath) {
-        List<FragmentSpread> fragmentSpreads = this.fragmentSpreads.get(fragmentName);
+        List<FragmentSpread> fragmentSpreads = getFragmentSpreads(fragmentName);
         if (fragmentSpreads == null) {
             // KnownFragmentNames will have picked this up.  Lets not NPE
             return;
@@ -45,6 +45,14 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
         super(validationContext, validationErrorCollector);
     }
 
+    /**
+     * The checked pairs are remembered for the whole document, a rule validating the top-level definitions one by one
+     * forgets them before each definition, so the errors of a definition don't depend on the definitions validated before it.
+     */
+    public void resetCheckedFields() {
+        alreadyChecked.clear();
+    }
+
     @Override
     public void leaveSelectionSet(SelectionSet selectionSet) {
         Map<String, List<FieldAndType>> fieldMap = new LinkedHashMap<>();
@@ -9,10 +9,15 @@ import com.intellij.lang.jsgraphql.psi.GraphQLDirectiveDefinition;
 import com.intellij.lang.jsgraphql.psi.GraphQLNamedTypeDefinition;
 import com.intellij.lang.jsgraphql.psi.GraphQLNamedTypeExtension;
 import com.intellij.lang.jsgraphql.psi.impl.GraphQLIdentifierImpl;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaChangeTracker;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiNamedElement;
 import com.intellij.testFramework.fixtures.BasePlatformTestCase;
 import org.jetbrains.annotations.NotNull;
@@ -103,4 +108,16 @@ public abstract class GraphQLTestCaseBase extends BasePlatformTestCase {
                                               @NotNull String expectedName) {
         assertNamedElement(GraphQLResolveUtil.findContainingDefinition(element), expectedClass, expectedName);
     }
+
+    protected void replaceFileText(@NotNull PsiFile file, @NotNull String text) {
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            PsiDocumentManager documentManager = PsiDocumentManager.getInstance(getProject());
+            Document document = documentManager.getDocument(file);
+            assertNotNull(document);
+            document.setText(text);
+            documentManager.commitDocument(document);
+        });
+        // schema change events are delivered asynchronously
+        GraphQLSchemaChangeTracker.getInstance(getProject()).waitForPendingChanges();
+    }
 }
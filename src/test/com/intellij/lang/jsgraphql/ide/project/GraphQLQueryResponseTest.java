@@ -0,0 +1,48 @@
+package com.intellij.lang.jsgraphql.ide.project;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+
+import java.io.IOException;
+
+public class GraphQLQueryResponseTest extends GraphQLTestCaseBase {
+
+    public void testPrettyPrintedResponse() throws IOException {
+        String json = "{\"data\":{\"id\":12345678901234567890,\"price\":1.50,\"name\":\"Größe\",\"tags\":[],\"empty\":null}}";
+        GraphQLQueryResponse response = GraphQLQueryResponse.read(new StringEntity(json, ContentType.APPLICATION_JSON), true);
+
+        assertEquals("{\n" +
+            "  \"data\": {\n" +
+            "    \"id\": 12345678901234567890,\n" +
+            "    \"price\": 1.50,\n" +
+            "    \"name\": \"Größe\",\n" +
+            "    \"tags\": [],\n" +
+            "    \"empty\": null\n" +
+            "  }\n" +
+            "}", response.getText());
+        assertEquals(json.getBytes(ContentType.APPLICATION_JSON.getCharset()).length, response.getSize());
+        assertEquals(Integer.valueOf(0), response.getErrorCount());
+    }
+
+    public void testErrorsCounted() {
+        GraphQLQueryResponse response = GraphQLQueryResponse.fromText(
+            "{\"data\":{\"errors\":[1,2,3]},\"errors\":[{\"message\":\"a\",\"locations\":[{\"line\":1}]},{\"message\":\"b\"}]}", false);
+        assertEquals(Integer.valueOf(2), response.getErrorCount());
+    }
+
+    public void testRawTextKeptWithoutPrettyPrint() {
+        String json = "{\"data\":{\"id\":1}}";
+        assertEquals(json, GraphQLQueryResponse.fromText(json, false).getText());
+    }
+
+    public void testNotJsonResponse() {
+        GraphQLQueryResponse response = GraphQLQueryResponse.fromText("<html>\r\nBad Gateway</html>", true);
+        assertEquals("<html>\nBad Gateway</html>", response.getText());
+        assertNull(response.getErrorCount());
+
+        assertNull(GraphQLQueryResponse.fromText("[1, 2]", true).getErrorCount());
+        assertNull(GraphQLQueryResponse.fromText("{\"data\": {}} trailing", true).getErrorCount());
+        assertNull(GraphQLQueryResponse.fromText("", true).getErrorCount());
+    }
+}
@@ -0,0 +1,33 @@
+package com.intellij.lang.jsgraphql.ide.project.graphqlconfig;
+
+import com.google.common.collect.Lists;
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.io.IOException;
+
+public class GraphQLConfigDirectoryTrieTest extends GraphQLTestCaseBase {
+
+    public void testNearestConfigDirectory() throws IOException {
+        VirtualFile root = myFixture.getTempDirFixture().findOrCreateDir("root");
+        VirtualFile nested = myFixture.getTempDirFixture().findOrCreateDir("root/nested");
+        VirtualFile queries = myFixture.getTempDirFixture().findOrCreateDir("root/nested/src/queries");
+        VirtualFile sibling = myFixture.getTempDirFixture().findOrCreateDir("root/nestedSibling");
+        VirtualFile other = myFixture.getTempDirFixture().findOrCreateDir("other");
+
+        GraphQLConfigDirectoryTrie trie = new GraphQLConfigDirectoryTrie();
+        trie.update(Lists.newArrayList(root, nested));
+
+        assertEquals(nested, trie.findNearest(queries));
+        assertEquals(nested, trie.findNearest(nested));
+        assertEquals(root, trie.findNearest(sibling));
+        assertNull(trie.findNearest(other));
+
+        // removing the nested config falls back to the parent config
+        trie.update(Lists.newArrayList(root));
+        assertEquals(root, trie.findNearest(queries));
+
+        trie.update(Lists.newArrayList());
+        assertNull(trie.findNearest(queries));
+    }
+}
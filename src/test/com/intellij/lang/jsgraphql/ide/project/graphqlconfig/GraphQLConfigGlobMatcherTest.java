@@ -0,0 +1,57 @@
+package com.intellij.lang.jsgraphql.ide.project.graphqlconfig;
+
+import com.google.common.collect.Lists;
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+public class GraphQLConfigGlobMatcherTest extends GraphQLTestCaseBase {
+
+    private static final List<String> GLOBS = Lists.newArrayList(
+        "schema.graphql",
+        "src/schema.graphql",
+        "*.graphql",
+        "**/*.graphql",
+        "src/**/*.{graphql,js}",
+        "src/queries/*.graphql",
+        "src/queries/**",
+        "src/q?eries/*.js",
+        "src/[qm]*/*.graphql",
+        "!src/generated/**",
+        "src/+(queries|mutations)/*.graphql",
+        "lib/**/.hidden/*.graphql"
+    );
+
+    private static final List<String> PATHS = Lists.newArrayList(
+        "schema.graphql",
+        "src/schema.graphql",
+        "src/queries/query.graphql",
+        "src/queries/nested/query.graphql",
+        "src/queries/query.js",
+        "src/mutations/mutation.graphql",
+        "src/generated/types.graphql",
+        "src/queriesExtra/query.graphql",
+        "lib/a/.hidden/types.graphql",
+        "lib/.graphql",
+        "README.md"
+    );
+
+    public void testCompiledGlobsMatchMinimatch() {
+        GraphQLConfigGlobMatcherImpl matcher = new GraphQLConfigGlobMatcherImpl();
+        for (String glob : GLOBS) {
+            Predicate<String> compiled = matcher.compile(Lists.newArrayList(glob));
+            for (String path : PATHS) {
+                assertEquals(glob + " vs " + path, matcher.matches(path, glob), compiled.test(path));
+            }
+        }
+    }
+
+    public void testCompiledGlobsMatchAny() {
+        Predicate<String> compiled = new GraphQLConfigGlobMatcherImpl().compile(Lists.newArrayList("src/queries/**", "*.js"));
+        assertTrue(compiled.test("src/queries/nested/query.graphql"));
+        assertTrue(compiled.test("lib/index.js"));
+        assertFalse(compiled.test("src/schema.graphql"));
+        assertFalse(new GraphQLConfigGlobMatcherImpl().compile(Lists.newArrayList()).test("schema.graphql"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.intellij.lang.jsgraphql.ide.validation;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
+import com.intellij.lang.jsgraphql.types.validation.ValidationError;
+import com.intellij.lang.jsgraphql.types.validation.ValidationErrorType;
+import com.intellij.lang.jsgraphql.types.validation.Validator;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public class GraphQLDocumentValidatorTest extends GraphQLTestCaseBase {
+
+    private static final String SCHEMA = "" +
+        "type Query { user(id: ID!): User users: [User] }\n" +
+        "type User { id: ID name: String friends(first: Int): [User] }\n";
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.addFileToProject("schema.graphql", SCHEMA);
+    }
+
+    public void testUnchangedDefinitionsReused() {
+        PsiFile file = myFixture.configureByText("query.graphql", "" +
+            "query First($unused: Int) { users { id } }\n" +
+            "query Second { user(id: 1) { friends { ...UserFields } } }\n" +
+            "fragment UserFields on User { friends(first: $first) { name } }\n");
+
+        List<ValidationError> errors = validate(file);
+        ValidationError unusedVariable = findError(errors, ValidationErrorType.UnusedVariable);
+        ValidationError undefinedVariable = findError(errors, ValidationErrorType.UndefinedVariable);
+        assertSameDescriptions(errors, validateDocument(file));
+
+        // edit the second operation, the first one is not revalidated
+        Document document = PsiDocumentManager.getInstance(getProject()).getDocument(file);
+        assertNotNull(document);
+        int offset = document.getText().indexOf("{ ...UserFields }");
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.insertString(offset + 1, " id"));
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+        errors = validate(file);
+        assertSame(unusedVariable, findError(errors, ValidationErrorType.UnusedVariable));
+        assertNotSame(undefinedVariable, findError(errors, ValidationErrorType.UndefinedVariable));
+        assertSameDescriptions(errors, validateDocument(file));
+
+        // a changed fragment revalidates the operations spreading it
+        int fragmentOffset = document.getText().indexOf("$first");
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.replaceString(fragmentOffset, fragmentOffset + "$first".length(), "$count"));
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+        errors = validate(file);
+        assertEquals("Undefined variable count", findError(errors, ValidationErrorType.UndefinedVariable).getDescription());
+        assertSameDescriptions(errors, validateDocument(file));
+    }
+
+    public void testDocumentRules() {
+        PsiFile file = myFixture.configureByText("query.graphql", "" +
+            "query { users { id } }\n" +
+            "query Named { users { id } }\n" +
+            "fragment UserFields on User { id }\n" +
+            "fragment UserFields on User { name }\n");
+
+        List<ValidationError> errors = validate(file);
+        assertNotNull(findError(errors, ValidationErrorType.LoneAnonymousOperationViolation));
+        assertNotNull(findError(errors, ValidationErrorType.DuplicateFragmentName));
+        assertSameDescriptions(errors, validateDocument(file));
+    }
+
+    public void testDefinitionsValidatedIndependently() {
+        PsiFile file = myFixture.configureByText("query.graphql", "" +
+            "query First { user(id: 1) { ...UserFields } }\n" +
+            "query Second { user(id: 1) { ...UserFields } }\n" +
+            "fragment UserFields on User { name: id name }\n");
+
+        // the rules are shared by the definitions, but the errors of one don't depend on the ones validated before it
+        com.intellij.lang.jsgraphql.types.language.Document document = ((GraphQLFile) file).getDocument();
+        Validator.DefinitionValidator validator = new Validator().createDefinitionValidator(getSchema(file), document);
+        assertNotNull(findError(validator.validate(document.getDefinitions().get(0)), ValidationErrorType.FieldsConflict));
+        assertNotNull(findError(validator.validate(document.getDefinitions().get(1)), ValidationErrorType.FieldsConflict));
+    }
+
+    @NotNull
+    private GraphQLSchema getSchema(@NotNull PsiFile file) {
+        return GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file).getSchema();
+    }
+
+    @NotNull
+    private List<ValidationError> validate(@NotNull PsiFile file) {
+        return GraphQLDocumentValidator.validate(getSchema(file), (GraphQLFile) file);
+    }
+
+    @NotNull
+    private List<ValidationError> validateDocument(@NotNull PsiFile file) {
+        return new Validator().validateDocument(getSchema(file), ((GraphQLFile) file).getDocument());
+    }
+
+    @NotNull
+    private static ValidationError findError(@NotNull List<ValidationError> errors, @NotNull ValidationErrorType errorType) {
+        ValidationError error = ContainerUtil.find(errors, e -> e.getValidationErrorType() == errorType);
+        assertNotNull(errorType.toString(), error);
+        return error;
+    }
+
+    /**
+     * Unused fragments are only reported by the whole document validation and aren't shown in the editor
+     */
+    private static void assertSameDescriptions(@NotNull List<ValidationError> errors, @NotNull List<ValidationError> expected) {
+        assertSameElements(
+            ContainerUtil.map(errors, ValidationError::getDescription),
+            ContainerUtil.mapNotNull(expected, e -> e.getValidationErrorType() != ValidationErrorType.UnusedFragment ? e.getDescription() : null));
+    }
+}
@@ -0,0 +1,102 @@
+package com.intellij.lang.jsgraphql.indexing;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLDefinitionIndex;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLDefinitionIndex.DefinitionKind;
+import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
+import com.intellij.lang.jsgraphql.psi.GraphQLIdentifier;
+import com.intellij.lang.jsgraphql.psi.GraphQLObjectTypeDefinition;
+import com.intellij.lang.jsgraphql.psi.GraphQLObjectTypeExtensionDefinition;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class GraphQLDefinitionIndexTest extends GraphQLTestCaseBase {
+
+    @Override
+    protected @NotNull String getBasePath() {
+        return "/indexing/definitions";
+    }
+
+    public void testDefinitionsIndexedWithOffsets() {
+        String text = "type User { id: ID }\n" +
+            "extend type User { name: String }\n" +
+            "directive @auth on FIELD_DEFINITION\n" +
+            "fragment UserFields on User { id }\n" +
+            "query UserQuery { user { id } }\n" +
+            "{ user { id } }";
+        PsiFile file = myFixture.configureByText("schema.graphql", text);
+
+        List<GraphQLDefinitionIndex.Entry> userEntries = FileBasedIndex.getInstance()
+            .getFileData(GraphQLDefinitionIndex.NAME, file.getVirtualFile(), getProject()).get("User");
+        assertEquals(List.of(
+            new GraphQLDefinitionIndex.Entry(DefinitionKind.OBJECT_TYPE, text.indexOf("User")),
+            new GraphQLDefinitionIndex.Entry(DefinitionKind.TYPE_EXTENSION, text.indexOf("User", text.indexOf("extend")))
+        ), userEntries);
+
+        assertSameElements(getKinds("auth"), DefinitionKind.DIRECTIVE);
+        assertSameElements(getKinds("UserFields"), DefinitionKind.FRAGMENT);
+        assertSameElements(getKinds("UserQuery"), DefinitionKind.OPERATION);
+        // fields aren't top-level definitions
+        assertEmpty(getKinds("id"));
+    }
+
+    public void testProcessDefinitionsFiltersByKind() {
+        PsiFile file = myFixture.configureByText("schema.graphql",
+            "type User { id: ID }\nextend type User { name: String }\ntype Query { user: User }");
+
+        List<GraphQLIdentifier> types = processDefinitions(file, "User", DefinitionKind.TYPES);
+        assertSize(1, types);
+        assertInstanceOf(types.get(0).getParent().getParent(), GraphQLObjectTypeDefinition.class);
+
+        List<GraphQLIdentifier> extensions = processDefinitions(file, "User", EnumSet.of(DefinitionKind.TYPE_EXTENSION));
+        assertSize(1, extensions);
+        assertInstanceOf(extensions.get(0).getParent().getParent(), GraphQLObjectTypeExtensionDefinition.class);
+
+        assertEmpty(processDefinitions(file, "User", EnumSet.of(DefinitionKind.DIRECTIVE)));
+    }
+
+    public void testOutdatedOffsetsProcessedOnce() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type User { id: ID }\nextend type User { name: String }");
+        Document document = PsiDocumentManager.getInstance(getProject()).getDocument(file);
+        assertNotNull(document);
+        // shifts the offset of the extension, the document isn't committed, so the PSI still has the previous text
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.insertString(document.getText().indexOf("extend"), "\n\n"));
+
+        List<GraphQLIdentifier> identifiers = processDefinitions(file, "User", EnumSet.allOf(DefinitionKind.class));
+        assertSize(2, identifiers);
+        assertSize(2, new HashSet<>(identifiers));
+    }
+
+    @NotNull
+    private List<DefinitionKind> getKinds(@NotNull String name) {
+        List<DefinitionKind> kinds = new ArrayList<>();
+        FileBasedIndex.getInstance().processValues(GraphQLDefinitionIndex.NAME, name, null, (file, entries) -> {
+            entries.forEach(entry -> kinds.add(entry.getKind()));
+            return true;
+        }, GlobalSearchScope.projectScope(getProject()));
+        return kinds;
+    }
+
+    @NotNull
+    private List<GraphQLIdentifier> processDefinitions(@NotNull PsiFile file,
+                                                       @NotNull String name,
+                                                       @NotNull Set<DefinitionKind> kinds) {
+        List<GraphQLIdentifier> identifiers = new ArrayList<>();
+        GraphQLPsiSearchHelper.getInstance(getProject()).processDefinitions(file, name, kinds, identifier -> {
+            identifiers.add(identifier);
+            return true;
+        });
+        return identifiers;
+    }
+}
@@ -0,0 +1,40 @@
+package com.intellij.lang.jsgraphql.indexing;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLFragmentNameIndex;
+import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
+import com.intellij.lang.jsgraphql.psi.GraphQLFragmentDefinition;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+public class GraphQLFragmentNameIndexTest extends GraphQLTestCaseBase {
+
+    @Override
+    protected @NotNull String getBasePath() {
+        return "/indexing/fragments";
+    }
+
+    public void testFragmentsIndexedWithTypeConditions() {
+        String text = "fragment UserFields on User { id }\nfragment Incomplete\nquery { user { ...UserFields } }";
+        PsiFile file = myFixture.configureByText("fragments.graphql", text);
+
+        Map<String, List<GraphQLFragmentNameIndex.FragmentEntry>> data = FileBasedIndex.getInstance()
+            .getFileData(GraphQLFragmentNameIndex.NAME, file.getVirtualFile(), getProject());
+        assertEquals(List.of(new GraphQLFragmentNameIndex.FragmentEntry(text.indexOf("UserFields"), "User", false)), data.get("UserFields"));
+        assertEquals(List.of(new GraphQLFragmentNameIndex.FragmentEntry(text.indexOf("Incomplete"), "", false)), data.get("Incomplete"));
+
+        Map<String, String> fragments = new HashMap<>();
+        GraphQLPsiSearchHelper.getInstance(getProject()).processKnownFragments(file, (name, typeCondition) -> {
+            fragments.put(name, typeCondition);
+            return true;
+        });
+        assertEquals(Map.of("UserFields", "User", "Incomplete", ""), fragments);
+
+        List<GraphQLFragmentDefinition> definitions = GraphQLPsiSearchHelper.getInstance(getProject()).getKnownFragmentDefinitions(file);
+        assertSameElements(ContainerUtil.map(definitions, GraphQLFragmentDefinition::getName), "UserFields", "Incomplete");
+    }
+}
@@ -0,0 +1,43 @@
+package com.intellij.lang.jsgraphql.indexing;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLIdentifierIndex;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLIdentifierIndex.IdentifierKind;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+
+public class GraphQLIdentifierIndexTest extends GraphQLTestCaseBase {
+
+    @Override
+    protected @NotNull String getBasePath() {
+        return "/indexing/identifiers";
+    }
+
+    public void testDefinitionsAndReferencesDistinguished() {
+        PsiFile file = myFixture.configureByText("schema.graphql",
+            "interface Node { id: ID! }\n" +
+            "type User implements Node { id: ID! status: Status @auth }\n" +
+            "enum Status { ACTIVE }\n" +
+            "directive @auth on FIELD_DEFINITION\n" +
+            "query Users($status: Status = ACTIVE) { user: users(status: $status) { id ...UserFields } }\n" +
+            "fragment UserFields on User { status }");
+
+        Map<String, Set<IdentifierKind>> data = FileBasedIndex.getInstance()
+            .getFileData(GraphQLIdentifierIndex.NAME, file.getVirtualFile(), getProject());
+
+        assertSameElements(data.get("Node"), IdentifierKind.TYPE_DEFINITION_NAME, IdentifierKind.TYPE_NAME);
+        assertSameElements(data.get("id"), IdentifierKind.FIELD_DEFINITION_NAME, IdentifierKind.FIELD_NAME);
+        assertSameElements(data.get("status"), IdentifierKind.FIELD_DEFINITION_NAME, IdentifierKind.ARGUMENT_NAME, IdentifierKind.FIELD_NAME);
+        assertSameElements(data.get("ACTIVE"), IdentifierKind.ENUM_VALUE_DEFINITION_NAME, IdentifierKind.ENUM_VALUE_NAME);
+        assertSameElements(data.get("auth"), IdentifierKind.DIRECTIVE_NAME, IdentifierKind.DIRECTIVE_DEFINITION_NAME);
+        assertSameElements(data.get("user"), IdentifierKind.FIELD_ALIAS_NAME);
+        assertSameElements(data.get("UserFields"), IdentifierKind.FRAGMENT_SPREAD_NAME, IdentifierKind.FRAGMENT_DEFINITION_NAME);
+        assertSameElements(data.get("Users"), IdentifierKind.OPERATION_DEFINITION_NAME);
+        assertTrue(IdentifierKind.TYPE_DEFINITION_NAME.isDefinition());
+        assertFalse(IdentifierKind.TYPE_NAME.isDefinition());
+    }
+}
@@ -0,0 +1,60 @@
+package com.intellij.lang.jsgraphql.indexing;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
+import com.intellij.lang.jsgraphql.psi.GraphQLIdentifier;
+import com.intellij.lang.jsgraphql.psi.GraphQLObjectTypeExtensionDefinition;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.searches.DefinitionsScopedSearch;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class GraphQLImplementationIndexTest extends GraphQLTestCaseBase {
+
+    private static final String SCHEMA = "interface Node { id: ID! }\n" +
+        "interface Entity implements Node { id: ID! }\n" +
+        "type User implements Entity & Node { id: ID! }\n" +
+        "type Admin { id: ID! }\n" +
+        "extend type Admin implements Node\n" +
+        "type Post { id: ID! }\n" +
+        "union Result = User | Admin\n" +
+        "extend union Result = Post\n";
+
+    @Override
+    protected @NotNull String getBasePath() {
+        return "/indexing/implementations";
+    }
+
+    public void testImplementationsOfInterface() {
+        PsiFile file = myFixture.configureByText("schema.graphql", SCHEMA);
+
+        List<GraphQLIdentifier> implementations = new ArrayList<>();
+        GraphQLPsiSearchHelper.getInstance(getProject()).processImplementations(file, "Node", implementations::add);
+        assertSameElements(ContainerUtil.map(implementations, GraphQLIdentifier::getText), "Entity", "User", "Admin");
+
+        GraphQLIdentifier admin = ContainerUtil.find(implementations, identifier -> "Admin".equals(identifier.getText()));
+        assertNotNull(PsiTreeUtil.getParentOfType(admin, GraphQLObjectTypeExtensionDefinition.class));
+    }
+
+    public void testUnionMembersIncludeExtensions() {
+        PsiFile file = myFixture.configureByText("schema.graphql", SCHEMA);
+
+        List<String> members = new ArrayList<>();
+        GraphQLPsiSearchHelper.getInstance(getProject()).processUnionMembers(file, "Result", members::add);
+        assertSameElements(members, "User", "Admin", "Post");
+    }
+
+    public void testDefinitionsSearch() {
+        myFixture.configureByText("schema.graphql", SCHEMA.replace("interface Entity", "interface <caret>Entity"));
+
+        PsiElement entity = myFixture.getFile().findElementAt(myFixture.getCaretOffset()).getParent();
+        Collection<PsiElement> implementations = DefinitionsScopedSearch.search(entity).findAll();
+        assertSameElements(ContainerUtil.map(implementations, PsiElement::getText), "User");
+    }
+}
@@ -0,0 +1,51 @@
+package com.intellij.lang.jsgraphql.indexing;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLFragmentNameIndex;
+import com.intellij.lang.jsgraphql.ide.indexing.GraphQLIndexUtil;
+import com.intellij.lang.jsgraphql.ide.search.GraphQLPsiSearchHelper;
+import com.intellij.lang.jsgraphql.psi.GraphQLFragmentDefinition;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.FileContentImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class GraphQLIndexInjectionsTest extends GraphQLTestCaseBase {
+
+    private static final String TEXT = "import gql from 'graphql-tag';\n" +
+        "const FRAGMENT = gql`fragment UserFields on User { id }`;\n" +
+        "const QUERY = gql`query Users { users { ...UserFields } }`;\n";
+
+    @Override
+    protected @NotNull String getBasePath() {
+        return "/indexing/injections";
+    }
+
+    public void testInjectionsParsedOncePerFile() throws IOException {
+        PsiFile file = myFixture.configureByText("queries.js", TEXT);
+
+        FileContent content = FileContentImpl.createByFile(file.getVirtualFile(), getProject());
+        List<GraphQLIndexUtil.Injection> injections = GraphQLIndexUtil.getInjections(content);
+        assertSize(2, injections);
+        assertSame(injections, GraphQLIndexUtil.getInjections(content));
+        assertEquals(TEXT.indexOf("`fragment"), injections.get(0).getHost().getTextRange().getStartOffset());
+    }
+
+    public void testInjectedFragmentsIndexedWithHostOffset() {
+        PsiFile file = myFixture.configureByText("queries.js", TEXT);
+
+        Map<String, List<GraphQLFragmentNameIndex.FragmentEntry>> data = FileBasedIndex.getInstance()
+            .getFileData(GraphQLFragmentNameIndex.NAME, file.getVirtualFile(), getProject());
+        assertEquals(List.of(new GraphQLFragmentNameIndex.FragmentEntry(TEXT.indexOf("`fragment"), "User", true)),
+            data.get("UserFields"));
+
+        List<GraphQLFragmentDefinition> definitions = GraphQLPsiSearchHelper.getInstance(getProject()).getKnownFragmentDefinitions(file);
+        assertSameElements(ContainerUtil.map(definitions, GraphQLFragmentDefinition::getName), "UserFields");
+    }
+}
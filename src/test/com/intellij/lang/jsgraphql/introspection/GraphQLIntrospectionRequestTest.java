@@ -0,0 +1,152 @@
+package com.intellij.lang.jsgraphql.introspection;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.ide.introspection.GraphQLIntrospectionService;
+import com.intellij.lang.jsgraphql.ide.introspection.GraphQLIntrospectionService.IntrospectionResponse;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.util.TimeoutUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Verifies the introspection requests against a local stub server
+ */
+public class GraphQLIntrospectionRequestTest extends GraphQLTestCaseBase {
+
+    private static final String SCHEMA_JSON = "{\"data\":{\"__schema\":{\"types\":[]}}}";
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer myServer;
+    // filled on the threads of the server
+    private final List<String> myAcceptEncodings = ContainerUtil.createConcurrentList();
+    private final List<String> myIfNoneMatches = ContainerUtil.createConcurrentList();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        myServer.createContext("/graphql", this::handle);
+        myServer.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            myServer.stop(0);
+        } catch (Throwable e) {
+            addSuppressedException(e);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testCompressedAndConditionalRequests() throws Exception {
+        String url = "http://localhost:" + myServer.getAddress().getPort() + "/graphql";
+        try (CloseableHttpClient httpClient = GraphQLIntrospectionService.getInstance(getProject()).createHttpClient(url, null)) {
+            IntrospectionResponse response = GraphQLIntrospectionService.executeIntrospectionRequest(httpClient, createRequest(url), null);
+            assertFalse(response.isNotModified());
+            assertEquals(SCHEMA_JSON, response.getBody());
+            assertEquals(ETAG, response.getETag());
+
+            response = GraphQLIntrospectionService.executeIntrospectionRequest(httpClient, createRequest(url), response.getETag());
+            assertTrue(response.isNotModified());
+            assertEquals(ETAG, response.getETag());
+        }
+
+        assertSize(2, myAcceptEncodings);
+        assertTrue(myAcceptEncodings.get(0), myAcceptEncodings.get(0).contains("gzip"));
+        assertNull(myIfNoneMatches.get(0));
+        assertEquals(ETAG, myIfNoneMatches.get(1));
+    }
+
+    public void testConcurrentIntrospectionsLimited() throws Exception {
+        GraphQLIntrospectionService service = GraphQLIntrospectionService.getInstance(getProject());
+        int permits = Math.max(1, Registry.intValue("graphql.introspection.parallelism"));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(permits);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < permits + 2; i++) {
+            futures.add(ApplicationManager.getApplication().executeOnPooledThread(() ->
+                service.runWithIntrospectionPermit(new EmptyProgressIndicator(), () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    started.countDown();
+                    assertTrue(finish.await(10, TimeUnit.SECONDS));
+                    running.decrementAndGet();
+                    return null;
+                })));
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        TimeoutUtil.sleep(200);
+        assertEquals(permits, running.get());
+
+        // a canceled introspection doesn't wait for a permit
+        EmptyProgressIndicator canceledIndicator = new EmptyProgressIndicator();
+        canceledIndicator.cancel();
+        Future<?> canceled = ApplicationManager.getApplication().executeOnPooledThread(() ->
+            service.runWithIntrospectionPermit(canceledIndicator, () -> null));
+        try {
+            canceled.get(10, TimeUnit.SECONDS);
+            fail("The introspection isn't canceled");
+        } catch (ExecutionException e) {
+            assertInstanceOf(e.getCause(), ProcessCanceledException.class);
+        }
+
+        finish.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(permits, maxRunning.get());
+    }
+
+    @NotNull
+    private static HttpPost createRequest(@NotNull String url) {
+        HttpPost request = new HttpPost(url);
+        request.setEntity(new StringEntity("{\"query\":\"{ __schema { types { name } } }\"}", ContentType.APPLICATION_JSON));
+        return request;
+    }
+
+    private void handle(@NotNull HttpExchange exchange) throws IOException {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        myAcceptEncodings.add(String.valueOf(acceptEncoding));
+        myIfNoneMatches.add(ifNoneMatch);
+        exchange.getRequestBody().readAllBytes();
+
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        if (ETAG.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream outputStream = new GZIPOutputStream(exchange.getResponseBody())) {
+            outputStream.write(SCHEMA_JSON.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
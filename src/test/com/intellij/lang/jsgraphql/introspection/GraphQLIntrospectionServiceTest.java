@@ -1,14 +1,28 @@
 package com.intellij.lang.jsgraphql.introspection;
 
 import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.ide.introspection.GraphQLIntrospectionFilesManager;
+import com.intellij.lang.jsgraphql.ide.introspection.GraphQLIntrospectionResultToSchema;
 import com.intellij.lang.jsgraphql.ide.introspection.GraphQLIntrospectionService;
+import com.intellij.lang.jsgraphql.psi.GraphQLElementFactory;
+import com.intellij.lang.jsgraphql.schema.GraphQLKnownTypes;
+import com.intellij.lang.jsgraphql.types.language.*;
+import com.intellij.lang.jsgraphql.types.schema.idl.ScalarInfo;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.Assert;
 
 import java.io.IOException;
-import java.util.Objects;
+import java.io.StringReader;
+import java.util.*;
 
 public class GraphQLIntrospectionServiceTest extends GraphQLTestCaseBase {
 
@@ -46,7 +60,7 @@ public class GraphQLIntrospectionServiceTest extends GraphQLTestCaseBase {
 
     public void testGithubSchema() {
         // test only for being successful, file comparison doesn't give a meaningful result for files of this size
-        assertNoThrowable(() -> new GraphQLIntrospectionService(getProject())
+        assertNoThrowable(() -> GraphQLIntrospectionService.getInstance(getProject())
             .printIntrospectionAsGraphQL(Objects.requireNonNull(readSchemaJson("githubSchema.json")))
         );
     }
@@ -63,10 +77,158 @@ public class GraphQLIntrospectionServiceTest extends GraphQLTestCaseBase {
         doTest("schemaWithCustomRootTypes.json", "schemaWithCustomRootTypes.graphql");
     }
 
+    public void testStreamedIntrospectionDocument() throws IOException {
+        Document expected = GraphQLElementFactory.createFile(getProject(), loadText("schema.graphql")).getDocument();
+        Document document = readDocument("schema.json");
+        assertSameElements(getDefinitionNames(document), getDefinitionNames(expected));
+
+        assertSameElements(getDefinitionNames(readDocument("schemaWithEmptyErrors.json")), getDefinitionNames(expected));
+        assertThrows(IllegalArgumentException.class, () -> readDocument("schemaWithErrors.json"));
+    }
+
+    public void testStreamedIntrospectionDocumentWithCustomRootTypes() throws IOException {
+        Document expected = GraphQLElementFactory.createFile(getProject(), loadText("schemaWithCustomRootTypes.graphql")).getDocument();
+        Document document = readDocument("schemaWithCustomRootTypes.json");
+        assertSameElements(getDefinitionNames(document), getDefinitionNames(expected));
+        assertSize(1, document.getDefinitionsOfType(SchemaDefinition.class));
+    }
+
+    public void testStreamedIntrospectionMatchesMapConversion() throws IOException {
+        for (String path : List.of("schema.json", "schemaWithNullFields.json", "schemaWithRepeatableDirectives.json",
+            "schemaWithUndefinedDirectives.json", "githubSchema.json")) {
+            Document expected = new GraphQLIntrospectionResultToSchema(getProject()).createSchemaDefinition(readSchemaData(path));
+            Set<String> expectedSignatures = getMemberSignatures(expected);
+            assertFalse(path, expectedSignatures.isEmpty());
+            assertEquals(path, expectedSignatures, getMemberSignatures(readDocument(path)));
+        }
+    }
+
+    public void testStreamedIntrospectionSourceName() {
+        VirtualFile file = myFixture.copyFileToProject("schemaWithRepeatableDirectives.json");
+        PsiFile psiFile = PsiManager.getInstance(getProject()).findFile(file);
+        assertNotNull(psiFile);
+
+        Document document = GraphQLIntrospectionFilesManager.getOrCreateIntrospectionDocument(psiFile);
+        assertNotEmpty(document.getDefinitions());
+        List<Node<?>> nodes = new ArrayList<>();
+        collectNodes(document, nodes);
+        for (Node<?> node : nodes) {
+            SourceLocation sourceLocation = node.getSourceLocation();
+            assertNotNull(node.toString(), sourceLocation);
+            assertEquals(node.toString(), file.getPath(), sourceLocation.getSourceName());
+        }
+    }
+
+    public void testUnchangedSchemaNotRewritten() {
+        VirtualFile configFile = myFixture.addFileToProject(".graphqlconfig", "{\"schemaPath\": \"schema.graphql\"}").getVirtualFile();
+        GraphQLIntrospectionService service = GraphQLIntrospectionService.getInstance(getProject());
+        String url = "http://localhost/graphql";
+
+        assertTrue(service.updateIntrospectionOutputFile(url, "type Query { id: ID }", configFile, "schema.graphql", null));
+        VirtualFile outputFile = configFile.getParent().findChild("schema.graphql");
+        assertNotNull(outputFile);
+        com.intellij.openapi.editor.Document document = FileDocumentManager.getInstance().getDocument(outputFile);
+        assertNotNull(document);
+        long modificationStamp = document.getModificationStamp();
+
+        assertFalse(service.updateIntrospectionOutputFile(url, "type Query { id: ID }", configFile, "schema.graphql", null));
+        assertEquals(modificationStamp, document.getModificationStamp());
+
+        // a local change isn't kept
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.setText("type Query { name: String }"));
+        assertTrue(service.updateIntrospectionOutputFile(url, "type Query { id: ID }", configFile, "schema.graphql", null));
+        assertTrue(document.getText(), document.getText().contains("id: ID"));
+
+        assertTrue(service.updateIntrospectionOutputFile(url, "type Query { id: ID! }", configFile, "schema.graphql", null));
+        assertTrue(document.getText(), document.getText().contains("id: ID!"));
+    }
+
+    @NotNull
+    private Document readDocument(@NotNull String path) throws IOException {
+        return new GraphQLIntrospectionResultToSchema(getProject()).createSchemaDefinition(new StringReader(loadText(path)), true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private Map<String, Object> readSchemaData(@NotNull String path) throws IOException {
+        Map<String, Object> introspection = GraphQLIntrospectionService.parseIntrospectionJson(loadText(path));
+        return introspection.containsKey("data") ? (Map<String, Object>) introspection.get("data") : introspection;
+    }
+
+    /**
+     * The fields, arguments, enum values and directives of the definitions read by the streaming conversion,
+     * which skips the introspection types, the specified scalars and the default directives.
+     */
+    @NotNull
+    private static Set<String> getMemberSignatures(@NotNull Document document) {
+        Set<String> signatures = new HashSet<>();
+        for (Definition<?> definition : document.getDefinitions()) {
+            String name = definition instanceof NamedNode ? ((NamedNode<?>) definition).getName() : null;
+            if (name == null || name.startsWith("__") || ScalarInfo.isGraphqlSpecifiedScalar(name)) {
+                continue;
+            }
+            if (definition instanceof ImplementingTypeDefinition) {
+                for (FieldDefinition field : ((ImplementingTypeDefinition<?>) definition).getFieldDefinitions()) {
+                    signatures.add(name + "." + field.getName() + getArgumentsSignature(field.getInputValueDefinitions()) +
+                        ": " + AstPrinter.printAst(field.getType()) + getDirectivesSignature(field.getDirectives()));
+                }
+            } else if (definition instanceof InputObjectTypeDefinition) {
+                for (InputValueDefinition field : ((InputObjectTypeDefinition) definition).getInputValueDefinitions()) {
+                    signatures.add(name + "." + getArgumentSignature(field));
+                }
+            } else if (definition instanceof EnumTypeDefinition) {
+                for (EnumValueDefinition value : ((EnumTypeDefinition) definition).getEnumValueDefinitions()) {
+                    signatures.add(name + "." + value.getName() + getDirectivesSignature(value.getDirectives()));
+                }
+            } else if (definition instanceof DirectiveDefinition && !GraphQLKnownTypes.DEFAULT_DIRECTIVES.contains(name)) {
+                DirectiveDefinition directive = (DirectiveDefinition) definition;
+                signatures.add("@" + name + getArgumentsSignature(directive.getInputValueDefinitions()) +
+                    (directive.isRepeatable() ? " repeatable" : "") + " on " +
+                    StringUtil.join(directive.getDirectiveLocations(), DirectiveLocation::getName, " | "));
+            }
+        }
+        return signatures;
+    }
+
+    @NotNull
+    private static String getArgumentsSignature(@NotNull List<InputValueDefinition> arguments) {
+        return arguments.isEmpty() ? "" : "(" + StringUtil.join(arguments, GraphQLIntrospectionServiceTest::getArgumentSignature, ", ") + ")";
+    }
+
+    @NotNull
+    private static String getArgumentSignature(@NotNull InputValueDefinition argument) {
+        return argument.getName() + ": " + AstPrinter.printAst(argument.getType()) +
+            (argument.getDefaultValue() != null ? " = " + AstPrinter.printAst(argument.getDefaultValue()) : "");
+    }
+
+    @NotNull
+    private static String getDirectivesSignature(@NotNull List<Directive> directives) {
+        return directives.isEmpty() ? "" : " " + StringUtil.join(directives, AstPrinter::printAst, " ");
+    }
+
+    private static void collectNodes(@NotNull Node<?> node, @NotNull List<Node<?>> nodes) {
+        for (Node<?> child : node.getChildren()) {
+            // the default values are parsed from the SDL literals
+            if (child instanceof Value) continue;
+            nodes.add(child);
+            collectNodes(child, nodes);
+        }
+    }
+
+    @NotNull
+    private static List<String> getDefinitionNames(@NotNull Document document) {
+        return ContainerUtil.mapNotNull(document.getDefinitions(), definition -> definition instanceof NamedNode ? ((NamedNode<?>) definition).getName() : null);
+    }
+
+    @NotNull
+    private String loadText(@NotNull String path) throws IOException {
+        return VfsUtilCore.loadText(myFixture.copyFileToProject(path));
+    }
+
     private void doTest(@NotNull String source, @NotNull String expected) {
         myFixture.configureByText(
             "result.graphql",
-            new GraphQLIntrospectionService(getProject()).printIntrospectionAsGraphQL(Objects.requireNonNull(readSchemaJson(source)))
+            GraphQLIntrospectionService.getInstance(getProject()).printIntrospectionAsGraphQL(Objects.requireNonNull(readSchemaJson(source)))
         );
         myFixture.checkResultByFile(expected);
     }
@@ -0,0 +1,51 @@
+package com.intellij.lang.jsgraphql.psi;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaUtil;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLType;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+public class GraphQLTypeScopeTest extends GraphQLTestCaseBase {
+
+    public void testNestedSelectionTypeScopes() {
+        PsiFile schema = myFixture.addFileToProject("schema.graphql", "" +
+            "type Query { user: User }\n" +
+            "type User { id: ID friends(filter: Filter): [User] }\n" +
+            "input Filter { name: NameFilter }\n" +
+            "input NameFilter { prefix: String }\n");
+        myFixture.configureByText("query.graphql", "" +
+            "query { user { friends { friends { ... on User { friends(filter: {name: {prefix: \"a\"}}) { i<caret>d } } } } } }");
+
+        GraphQLField field = getFieldAtCaret();
+        assertEquals("ID", getTypeName(field));
+        assertSame(field.getTypeScope(), field.getTypeScope());
+
+        GraphQLObjectField objectField = PsiTreeUtil.findChildOfType(myFixture.getFile(), GraphQLObjectField.class);
+        assertNotNull(objectField);
+        assertEquals("NameFilter", getTypeName(objectField));
+
+        // a schema change isn't served from the cache
+        replaceFileText(schema, "" +
+            "type Query { user: User }\n" +
+            "type User { id: String friends(filter: Filter): [User] }\n" +
+            "input Filter { name: NameFilter }\n" +
+            "input NameFilter { prefix: String }\n");
+        assertEquals("String", getTypeName(getFieldAtCaret()));
+    }
+
+    @NotNull
+    private GraphQLField getFieldAtCaret() {
+        GraphQLField field = PsiTreeUtil.getParentOfType(myFixture.getFile().findElementAt(myFixture.getCaretOffset()), GraphQLField.class);
+        assertNotNull(field);
+        return field;
+    }
+
+    @NotNull
+    private static String getTypeName(@NotNull GraphQLTypeScopeProvider typeScopeProvider) {
+        GraphQLType typeScope = typeScopeProvider.getTypeScope();
+        assertNotNull(typeScope);
+        return GraphQLSchemaUtil.getTypeName(typeScope);
+    }
+}
@@ -96,6 +96,14 @@ public class GraphQLOperationsResolveTest extends GraphQLResolveTestCaseBase {
         doResolveWithOffsetTest(GraphQLInputValueDefinition.class, "street");
     }
 
+    public void testInputValueExtension() {
+        doResolveWithOffsetTest(GraphQLInputValueDefinition.class, "email");
+    }
+
+    public void testEnumValueExtension() {
+        doResolveWithOffsetTest(GraphQLEnumValueDefinition.class, "GUEST");
+    }
+
     public void testGithubQueries() {
         myFixture.copyFileToProject(GITHUB_SCHEMA);
         doHighlightingTest();
@@ -0,0 +1,119 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.psi.GraphQLFieldDefinition;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.TimeoutUtil;
+import com.intellij.util.ui.UIUtil;
+import org.jetbrains.annotations.NotNull;
+
+public class GraphQLSchemaChangeTrackerTest extends GraphQLTestCaseBase {
+
+    @Override
+    protected @NotNull String getBasePath() {
+        return "/schema/changes";
+    }
+
+    public void testCommentsAndFormattingIgnored() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "\"Root\" type Query { id: ID }");
+        GraphQLSchemaChangeTracker.getInstance(getProject()).waitForPendingChanges();
+        // the build stores the signatures of the loaded files, so even the first edit is compared with them
+        GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file);
+        long modificationCount = getModificationCount();
+
+        replaceFileText(file, "\"Root\"\ntype Query {\n  # identifier\n  id: ID\n}\n");
+        assertEquals(modificationCount, getModificationCount());
+
+        replaceFileText(file, "type Query { id: ID name: String }");
+        assertTrue(getModificationCount() > modificationCount);
+    }
+
+    public void testDescriptionChangeDetected() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "\"Root\" type Query { id: ID }");
+        GraphQLSchemaChangeTracker.getInstance(getProject()).waitForPendingChanges();
+        GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file);
+        long modificationCount = getModificationCount();
+
+        // the descriptions are shown in the documentation, so the schema is rebuilt
+        replaceFileText(file, "\"Root type\" type Query { id: ID }");
+        assertTrue(getModificationCount() > modificationCount);
+        assertEquals("Root type",
+            GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file).getSchema().getQueryType().getDescription());
+    }
+
+    public void testReplacedElementsDetected() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        GraphQLSchemaChangeTracker.getInstance(getProject()).waitForPendingChanges();
+        GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file);
+        long modificationCount = getModificationCount();
+
+        // the text is the same, but the element the schema node points to is invalid
+        GraphQLFieldDefinition fieldDefinition = PsiTreeUtil.findChildOfType(file, GraphQLFieldDefinition.class);
+        assertNotNull(fieldDefinition);
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            fieldDefinition.replace(fieldDefinition.copy());
+        });
+        GraphQLSchemaChangeTracker.getInstance(getProject()).waitForPendingChanges();
+
+        assertTrue(getModificationCount() > modificationCount);
+        assertEquals("invalidated elements of schema.graphql", GraphQLSchemaChangeTracker.getInstance(getProject()).getLastChangeCause());
+        PsiElement element = GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file)
+            .getSchema().getQueryType().getFieldDefinition("id").getDefinition().getElement();
+        assertNotNull(element);
+        assertTrue(element.isValid());
+    }
+
+    public void testChangeCauseReportedInBuildMetrics() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        replaceFileText(file, "type Query { id: ID name: String }");
+
+        GraphQLSchemaBuildMetrics metrics = GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file).getBuildMetrics();
+        assertEquals("structural change of schema.graphql", metrics.getInvalidationCause());
+        assertEquals(1, metrics.getFilesCount());
+    }
+
+    public void testChangesCoalescedIntoSingleNotification() {
+        myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        GraphQLSchemaChangeTracker tracker = GraphQLSchemaChangeTracker.getInstance(getProject());
+        tracker.waitForPendingChanges();
+
+        long modificationCount = getModificationCount();
+        long suppressedEventsCount = tracker.getSuppressedEventsCount();
+        for (int i = 0; i < 5; i++) {
+            tracker.schemaChanged("change " + i);
+        }
+        tracker.waitForPendingChanges();
+
+        assertEquals(modificationCount + 1, getModificationCount());
+        assertEquals(suppressedEventsCount + 4, tracker.getSuppressedEventsCount());
+        assertEquals("change 0, change 1, change 2 and 2 more", tracker.getLastChangeCause());
+    }
+
+    public void testChangesDebouncedUntilQuiet() {
+        myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        GraphQLSchemaChangeTracker tracker = GraphQLSchemaChangeTracker.getInstance(getProject());
+        tracker.waitForPendingChanges();
+
+        int delay = 500;
+        tracker.setDebounceDelay(delay, getTestRootDisposable());
+        long modificationCount = getModificationCount();
+        for (int i = 0; i < 5; i++) {
+            // each change comes before the delay of the previous one elapses, so the batch is postponed again
+            TimeoutUtil.sleep(delay - 100);
+            UIUtil.dispatchAllInvocationEvents();
+            tracker.schemaChanged("change " + i);
+        }
+        assertEquals(modificationCount, getModificationCount());
+
+        tracker.waitForPendingChanges();
+        assertEquals(modificationCount + 1, getModificationCount());
+        assertEquals("change 0, change 1, change 2 and 2 more", tracker.getLastChangeCause());
+    }
+
+    private long getModificationCount() {
+        return GraphQLSchemaChangeTracker.getInstance(getProject()).getSchemaModificationTracker().getModificationCount();
+    }
+}
@@ -48,6 +48,26 @@ public class GraphQLSchemaConfigTest extends GraphQLTestCaseBase {
         doTestCompletion("completionSchemas/schema-two/query-two.graphql", Lists.newArrayList("fieldTwo", "__typename"), files);
     }
 
+    public void testSchemaSharedByScope() {
+        PsiFile[] files = myFixture.configureByFiles(
+            "completionSchemas/schema-one/.graphqlconfig",
+            "completionSchemas/schema-one/schema-one.graphql",
+            "completionSchemas/schema-two/.graphqlconfig",
+            "completionSchemas/schema-two/schema-two.graphql",
+            "completionSchemas/schema-one/query-one.graphql",
+            "completionSchemas/schema-two/query-two.graphql"
+        );
+        loadConfiguration();
+
+        GraphQLSchemaProvider schemaProvider = GraphQLSchemaProvider.getInstance(getProject());
+        GraphQLSchemaInfo schemaOne = schemaProvider.getSchemaInfo(findFile(files, "schema-one/schema-one.graphql"));
+        assertSame(schemaOne, schemaProvider.getSchemaInfo(findFile(files, "schema-one/query-one.graphql")));
+
+        GraphQLSchemaInfo schemaTwo = schemaProvider.getSchemaInfo(findFile(files, "schema-two/query-two.graphql"));
+        assertNotSame(schemaOne, schemaTwo);
+        assertSame(schemaTwo, schemaProvider.getSchemaInfo(findFile(files, "schema-two/schema-two.graphql")));
+    }
+
     public void testExcludeFilesAndDirectories() {
         test("Types3.graphql", "TheOnlyType");
     }
@@ -69,6 +89,16 @@ public class GraphQLSchemaConfigTest extends GraphQLTestCaseBase {
         assertSameElements(types, expectedTypes);
     }
 
+    @NotNull
+    private static PsiFile findFile(PsiFile @NotNull [] files, @NotNull String path) {
+        for (PsiFile file : files) {
+            if (file.getVirtualFile().getPath().endsWith(path)) {
+                return file;
+            }
+        }
+        throw new AssertionError("File not found: " + path);
+    }
+
     private void doTestCompletion(String sourceFile, List<String> expectedCompletions, PsiFile @NotNull [] files) {
         for (PsiFile file : files) {
             if (file.getVirtualFile().getPath().endsWith(sourceFile)) {
@@ -0,0 +1,30 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.types.GraphQLError;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.ContainerUtil;
+
+import java.util.List;
+
+public class GraphQLSchemaErrorsTest extends GraphQLTestCaseBase {
+
+    public void testErrorsGroupedByFile() {
+        PsiFile first = myFixture.addFileToProject("first.graphql", "type Query { first: FirstUnknown }");
+        PsiFile second = myFixture.addFileToProject("second.graphql", "type Other { second: SecondUnknown }");
+        PsiFile valid = myFixture.addFileToProject("valid.graphql", "type Valid { id: ID }");
+
+        GraphQLSchemaInfo schemaInfo = GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(first);
+        List<GraphQLError> errors = schemaInfo.getErrors(getProject());
+        assertSame(errors, schemaInfo.getErrors(getProject()));
+
+        List<GraphQLError> firstErrors = schemaInfo.getErrors(getProject(), first);
+        List<GraphQLError> secondErrors = schemaInfo.getErrors(getProject(), second);
+        assertTrue(ContainerUtil.exists(firstErrors, error -> error.getMessage().contains("FirstUnknown")));
+        assertFalse(ContainerUtil.exists(firstErrors, error -> error.getMessage().contains("SecondUnknown")));
+        assertTrue(ContainerUtil.exists(secondErrors, error -> error.getMessage().contains("SecondUnknown")));
+        assertFalse(ContainerUtil.exists(secondErrors, error -> error.getMessage().contains("FirstUnknown")));
+        assertEmpty(schemaInfo.getErrors(getProject(), valid));
+        assertTrue(errors.containsAll(firstErrors) && errors.containsAll(secondErrors));
+    }
+}
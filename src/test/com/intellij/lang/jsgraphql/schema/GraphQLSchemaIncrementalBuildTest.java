@@ -0,0 +1,146 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.types.language.ObjectTypeDefinition;
+import com.intellij.lang.jsgraphql.types.language.TypeName;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLInputObjectType;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLObjectType;
+import com.intellij.lang.jsgraphql.types.schema.GraphQLSchema;
+import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class GraphQLSchemaIncrementalBuildTest extends GraphQLTestCaseBase {
+
+    @Override
+    protected @NotNull String getBasePath() {
+        return "/schema/incremental";
+    }
+
+    public void testChangedFileIsMergedAgain() {
+        myFixture.addFileToProject("query.graphql", "type Query { user: User }");
+        PsiFile userFile = myFixture.configureByText("user.graphql", "type User { id: ID }");
+
+        GraphQLObjectType user = getSchema(userFile).getObjectType("User");
+        assertNotNull(user);
+        assertNotNull(user.getFieldDefinition("id"));
+
+        replaceFileText(userFile, "type User { name: String }");
+
+        GraphQLSchema schema = getSchema(userFile);
+        user = schema.getObjectType("User");
+        assertNotNull(user);
+        assertNull(user.getFieldDefinition("id"));
+        assertNotNull(user.getFieldDefinition("name"));
+        assertNotNull(schema.getQueryType().getFieldDefinition("user"));
+    }
+
+    public void testRemovedDefinitionIsRetracted() {
+        myFixture.addFileToProject("query.graphql", "type Query { id: ID }");
+        PsiFile typesFile = myFixture.configureByText("types.graphql", "type User { id: ID } extend type Query { user: User }");
+
+        GraphQLSchema schema = getSchema(typesFile);
+        assertNotNull(schema.getObjectType("User"));
+        assertNotNull(schema.getQueryType().getFieldDefinition("user"));
+
+        replaceFileText(typesFile, "input User { id: ID }");
+
+        schema = getSchema(typesFile);
+        assertInstanceOf(schema.getType("User"), GraphQLInputObjectType.class);
+        assertNull(schema.getQueryType().getFieldDefinition("user"));
+        assertNotNull(schema.getQueryType().getFieldDefinition("id"));
+    }
+
+    public void testKindChangedWithinFile() {
+        myFixture.addFileToProject("query.graphql", "type Query { id: ID }");
+        PsiFile typesFile = myFixture.configureByText("types.graphql", "type Foo { id: ID }");
+        assertInstanceOf(getSchema(typesFile).getType("Foo"), GraphQLObjectType.class);
+
+        replaceFileText(typesFile, "input Foo { name: String }");
+        GraphQLInputObjectType foo = assertInstanceOf(getSchema(typesFile).getType("Foo"), GraphQLInputObjectType.class);
+        assertNotNull(foo.getFieldDefinition("name"));
+
+        replaceFileText(typesFile, "type Foo { id: ID }");
+        assertInstanceOf(getSchema(typesFile).getType("Foo"), GraphQLObjectType.class);
+    }
+
+    public void testKindChangedAcrossFiles() {
+        myFixture.addFileToProject("query.graphql", "type Query { id: ID }");
+        PsiFile firstFile = myFixture.addFileToProject("a.graphql", "type Foo { id: ID }");
+        PsiFile secondFile = myFixture.addFileToProject("b.graphql", "input Foo { name: String }");
+        // the first definition in the file order wins, the same as in a build from scratch
+        assertInstanceOf(getSchema(firstFile).getType("Foo"), GraphQLObjectType.class);
+
+        replaceFileText(firstFile, "type Bar { id: ID }");
+        GraphQLInputObjectType foo = assertInstanceOf(getSchema(firstFile).getType("Foo"), GraphQLInputObjectType.class);
+        assertNotNull(foo.getFieldDefinition("name"));
+        assertNotNull(getSchema(firstFile).getType("Bar"));
+
+        replaceFileText(firstFile, "type Foo { id: ID }");
+        assertInstanceOf(getSchema(firstFile).getType("Foo"), GraphQLObjectType.class);
+
+        replaceFileText(secondFile, "type Baz { id: ID }");
+        assertInstanceOf(getSchema(firstFile).getType("Foo"), GraphQLObjectType.class);
+        assertNotNull(getSchema(firstFile).getType("Baz"));
+    }
+
+    public void testMergeOrderIndependentOfChanges() {
+        PsiFile firstFile = myFixture.addFileToProject("a.graphql", "extend type Query { a: ID }");
+        myFixture.addFileToProject("q.graphql", "type Query { q: ID }");
+        myFixture.addFileToProject("z.graphql", "extend type Query { z: ID }");
+        assertEquals(List.of("a", "z"), getQueryExtensionFieldNames(firstFile));
+
+        // the changed file is merged at its position in the file order, not after the unchanged files
+        replaceFileText(firstFile, "extend type Query { a2: ID }");
+        assertEquals(List.of("a2", "z"), getQueryExtensionFieldNames(firstFile));
+    }
+
+    @NotNull
+    private List<String> getQueryExtensionFieldNames(@NotNull PsiFile file) {
+        TypeDefinitionRegistry registry = GraphQLSchemaProvider.getInstance(getProject()).getRegistryInfo(file).getTypeDefinitionRegistry();
+        return ContainerUtil.map(registry.objectTypeExtensions().get("Query"), extension -> extension.getFieldDefinitions().get(0).getName());
+    }
+
+    public void testManyFilesLoadedConcurrently() {
+        PsiFile queryFile = myFixture.configureByText("query.graphql", "type Query { id: ID }");
+        for (int i = 0; i < 40; i++) {
+            myFixture.addFileToProject("extension" + i + ".graphql", "extend type Query { field" + i + ": Int }");
+        }
+
+        GraphQLObjectType query = getSchema(queryFile).getQueryType();
+        List<String> expectedOrder = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            assertNotNull(query.getFieldDefinition("field" + i));
+            expectedOrder.add("field" + i);
+        }
+
+        // the files loaded concurrently are merged in the file path order
+        expectedOrder.sort(Comparator.comparing(name -> "extension" + name.substring("field".length()) + ".graphql"));
+        assertEquals(expectedOrder, getQueryExtensionFieldNames(queryFile));
+    }
+
+    public void testSingleDefinitionsSharedWithDocuments() {
+        GraphQLFile queryFile = (GraphQLFile) myFixture.addFileToProject("query.graphql", "type Query { user: User }");
+        GraphQLFile userFile = (GraphQLFile) myFixture.configureByText("user.graphql", "type User { id: ID }");
+
+        TypeDefinitionRegistry registry = GraphQLSchemaProvider.getInstance(getProject())
+            .getRegistryInfo(userFile).getTypeDefinitionRegistry();
+        ObjectTypeDefinition user = registry.getType("User", ObjectTypeDefinition.class).orElse(null);
+        assertSame(userFile.getDocument().getDefinitions().get(0), user);
+
+        ObjectTypeDefinition query = (ObjectTypeDefinition) queryFile.getDocument().getDefinitions().get(0);
+        TypeName userReference = (TypeName) query.getFieldDefinitions().get(0).getType();
+        assertSame(user.getName(), userReference.getName());
+    }
+
+    @NotNull
+    private GraphQLSchema getSchema(@NotNull PsiFile file) {
+        return GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file).getSchema();
+    }
+}
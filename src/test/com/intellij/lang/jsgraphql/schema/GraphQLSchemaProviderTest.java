@@ -0,0 +1,155 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.psi.GraphQLIdentifier;
+import com.intellij.openapi.application.impl.NonBlockingReadActionImpl;
+import com.intellij.openapi.project.DumbServiceImpl;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiReference;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.util.ui.UIUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class GraphQLSchemaProviderTest extends GraphQLTestCaseBase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        getSchemaProvider().setBackgroundBuildEnabled(true, getTestRootDisposable());
+        GraphQLSchemaSnapshotStorage.getInstance(getProject()).setSnapshotsDir(
+            FileUtil.createTempDirectory("graphql-schema-snapshots", null, true).toPath(), getTestRootDisposable());
+    }
+
+    public void testFirstSchemaBuiltInBackground() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+
+        assertNull(getSchemaProvider().getSchemaInfoIfBuilt(file));
+
+        waitForScheduledBuilds();
+        GraphQLSchemaInfo schemaInfo = getSchemaProvider().getSchemaInfoIfBuilt(file);
+        assertNotNull(schemaInfo);
+        assertNotNull(schemaInfo.getSchema().getQueryType().getFieldDefinition("id"));
+        assertSame(schemaInfo, getSchemaProvider().getSchemaInfo(file));
+    }
+
+    public void testFirstSchemaBuiltOnRequest() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+
+        // an empty schema is never served instead of the actual one
+        GraphQLSchemaInfo schemaInfo = getSchemaProvider().getSchemaInfo(file);
+        assertNotNull(schemaInfo.getSchema().getQueryType().getFieldDefinition("id"));
+        assertSame(schemaInfo, getSchemaProvider().getSchemaInfoIfBuilt(file));
+    }
+
+    public void testOutdatedSchemaServedWhileRebuilding() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        getSchemaProvider().getSchemaInfo(file);
+        waitForScheduledBuilds();
+        GraphQLSchemaInfo schemaInfo = getSchemaProvider().getSchemaInfo(file);
+
+        replaceFileText(file, "type Query { id: ID name: String }");
+        assertSame(schemaInfo, getSchemaProvider().getSchemaInfo(file));
+
+        waitForScheduledBuilds();
+        GraphQLSchemaInfo rebuiltSchemaInfo = getSchemaProvider().getSchemaInfo(file);
+        assertNotSame(schemaInfo, rebuiltSchemaInfo);
+        assertNotNull(rebuiltSchemaInfo.getSchema().getQueryType().getFieldDefinition("name"));
+    }
+
+    public void testUpToDateSchemaBuiltOnRequest() {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        getSchemaProvider().getSchemaInfo(file);
+        waitForScheduledBuilds();
+
+        replaceFileText(file, "type Query { id: ID name: String }");
+        GraphQLSchemaInfo schemaInfo = getSchemaProvider().getUpToDateSchemaInfo(file);
+        assertNotNull(schemaInfo.getSchema().getQueryType().getFieldDefinition("name"));
+        // the outdated one is replaced by the schema built on the request
+        assertSame(schemaInfo, getSchemaProvider().getSchemaInfo(file));
+    }
+
+    public void testSnapshotServedUntilSchemaBuilt() throws IOException {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        GraphQLSchemaSnapshotStorage storage = GraphQLSchemaSnapshotStorage.getInstance(getProject());
+        assertTrue(storage.save(storage.getSnapshotKey(file), getSchemaProvider().getRegistryInfo(file).getTypeDefinitionRegistry()));
+        replaceFileText(file, "type Query { name: String }");
+
+        DumbServiceImpl dumbService = DumbServiceImpl.getInstance(getProject());
+        dumbService.setDumb(true);
+        try {
+            // the build waits for the smart mode, but the snapshot doesn't
+            assertNull(getSchemaProvider().getSchemaInfoIfBuilt(file));
+            PlatformTestUtil.waitWithEventsDispatching("The snapshot isn't loaded",
+                () -> getSchemaProvider().getSchemaInfoIfBuilt(file) != null, 10);
+            GraphQLSchemaInfo snapshotSchemaInfo = getSchemaProvider().getSchemaInfo(file);
+            assertNotNull(snapshotSchemaInfo.getSchema().getQueryType().getFieldDefinition("id"));
+        } finally {
+            dumbService.setDumb(false);
+        }
+
+        waitForScheduledBuilds();
+        GraphQLSchemaInfo schemaInfo = getSchemaProvider().getSchemaInfo(file);
+        assertNotNull(schemaInfo.getSchema().getQueryType().getFieldDefinition("name"));
+        assertNull(schemaInfo.getSchema().getQueryType().getFieldDefinition("id"));
+    }
+
+    public void testSnapshotDefinitionsResolvedToPhysicalFiles() throws IOException {
+        PsiFile schemaFile = myFixture.addFileToProject("schema.graphql", "type Query { user: User } type User { id: ID }");
+        PsiFile file = myFixture.configureByText("query.graphql", "query { user { i<caret>d } }");
+        GraphQLSchemaSnapshotStorage storage = GraphQLSchemaSnapshotStorage.getInstance(getProject());
+        assertTrue(storage.save(storage.getSnapshotKey(file), getSchemaProvider().getRegistryInfo(file).getTypeDefinitionRegistry()));
+
+        DumbServiceImpl dumbService = DumbServiceImpl.getInstance(getProject());
+        dumbService.setDumb(true);
+        try {
+            assertNull(getSchemaProvider().getSchemaInfoIfBuilt(file));
+            PlatformTestUtil.waitWithEventsDispatching("The snapshot isn't loaded",
+                () -> getSchemaProvider().getSchemaInfoIfBuilt(file) != null, 10);
+        } finally {
+            dumbService.setDumb(false);
+        }
+
+        // the built schema is published on the EDT, so the snapshot is still served here
+        PsiReference reference = file.findReferenceAt(myFixture.getCaretOffset());
+        assertNotNull(reference);
+        PsiElement target = reference.resolve();
+        assertInstanceOf(target, GraphQLIdentifier.class);
+        assertEquals(schemaFile, target.getContainingFile());
+        assertTrue(target.getContainingFile().isPhysical());
+
+        waitForScheduledBuilds();
+    }
+
+    public void testRegistryPhasesReportedOnce() {
+        GraphQLSchemaBuildMetrics registryMetrics = new GraphQLSchemaBuildMetrics("test");
+        registryMetrics.setFilesCount(2);
+        registryMetrics.setIndexScanNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        registryMetrics.setMergeNanos(TimeUnit.MILLISECONDS.toNanos(3));
+
+        GraphQLSchemaBuildMetrics metrics = registryMetrics.copy();
+        assertEquals(5, metrics.getIndexScanMillis());
+        assertEquals(3, metrics.getMergeMillis());
+
+        // a schema built from the cached registry didn't spend any time on it
+        GraphQLSchemaBuildMetrics cachedMetrics = registryMetrics.copy();
+        assertEquals(2, cachedMetrics.getFilesCount());
+        assertEquals(0, cachedMetrics.getIndexScanMillis());
+        assertEquals(0, cachedMetrics.getMergeMillis());
+        assertEquals("test", cachedMetrics.getInvalidationCause());
+    }
+
+    private static void waitForScheduledBuilds() {
+        NonBlockingReadActionImpl.waitForAsyncTaskCompletion();
+        UIUtil.dispatchAllInvocationEvents();
+    }
+
+    @NotNull
+    private GraphQLSchemaProviderImpl getSchemaProvider() {
+        return (GraphQLSchemaProviderImpl) GraphQLSchemaProvider.getInstance(getProject());
+    }
+}
@@ -0,0 +1,123 @@
+package com.intellij.lang.jsgraphql.schema;
+
+import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.types.language.AstPrinter;
+import com.intellij.lang.jsgraphql.types.language.FieldDefinition;
+import com.intellij.lang.jsgraphql.types.language.InputObjectTypeDefinition;
+import com.intellij.lang.jsgraphql.types.language.ObjectTypeDefinition;
+import com.intellij.lang.jsgraphql.types.schema.idl.TypeDefinitionRegistry;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+public class GraphQLSchemaSnapshotStorageTest extends GraphQLTestCaseBase {
+
+    private Path mySnapshotsDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mySnapshotsDir = FileUtil.createTempDirectory("graphql-schema-snapshots", null, true).toPath();
+        GraphQLSchemaSnapshotStorage.getInstance(getProject()).setSnapshotsDir(mySnapshotsDir, getTestRootDisposable());
+    }
+
+    @Override
+    protected @NotNull String getBasePath() {
+        return "/schema/snapshot";
+    }
+
+    public void testSnapshotRoundTrip() throws IOException {
+        PsiFile file = myFixture.configureByText("schema.graphql", "" +
+            "\"The user\" type User { id: ID! friends(first: Int = 10, filter: Filter = {name: \"a\", tags: [A, B]}): [User!] }\n" +
+            "extend type User { name: String @deprecated(reason: \"No longer used\") }\n" +
+            "input Filter { name: String tags: [Tag!] }\n" +
+            "enum Tag { A B }\n" +
+            "type Query { user: User }\n" +
+            "scalar Date\n");
+        GraphQLSchemaSnapshotStorage storage = GraphQLSchemaSnapshotStorage.getInstance(getProject());
+        String key = storage.getSnapshotKey(file);
+        TypeDefinitionRegistry registry = GraphQLSchemaProvider.getInstance(getProject())
+            .getRegistryInfo(file).getTypeDefinitionRegistry();
+
+        assertTrue(storage.save(key, registry));
+        assertFalse(storage.save(key, registry));
+
+        TypeDefinitionRegistry loaded = storage.load(key);
+        assertNotNull(loaded);
+        ObjectTypeDefinition user = loaded.getType("User", ObjectTypeDefinition.class).orElse(null);
+        assertNotNull(user);
+        assertEquals("The user", user.getDescription().getContent());
+        // nothing points to the PSI of a snapshot
+        assertNull(user.getElement());
+
+        FieldDefinition friends = user.getFieldDefinitions().get(1);
+        assertEquals("[User!]", AstPrinter.printAst(friends.getType()));
+        assertSize(2, friends.getInputValueDefinitions());
+        assertEquals("10", AstPrinter.printAst(friends.getInputValueDefinitions().get(0).getDefaultValue()));
+        assertEquals("{name: \"a\", tags: [A, B]}", AstPrinter.printAst(friends.getInputValueDefinitions().get(1).getDefaultValue()));
+
+        assertSize(1, loaded.objectTypeExtensions().get("User"));
+        assertEquals("deprecated", loaded.objectTypeExtensions().get("User").get(0)
+            .getFieldDefinitions().get(0).getDirectives().get(0).getName());
+        assertTrue(loaded.getType("Filter", InputObjectTypeDefinition.class).isPresent());
+        assertTrue(loaded.scalars().containsKey("Date"));
+        assertTrue(loaded.getType("Query").isPresent());
+    }
+
+    public void testStaleSnapshotsPruned() throws IOException {
+        Path previousFormat = Files.createFile(mySnapshotsDir.resolve("previous.graphql"));
+        Path stale = Files.createFile(mySnapshotsDir.resolve("stale.snapshot"));
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(60)));
+        Path recent = Files.createFile(mySnapshotsDir.resolve("recent.snapshot"));
+
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        GraphQLSchemaSnapshotStorage storage = GraphQLSchemaSnapshotStorage.getInstance(getProject());
+        assertTrue(storage.save(storage.getSnapshotKey(file),
+            GraphQLSchemaProvider.getInstance(getProject()).getRegistryInfo(file).getTypeDefinitionRegistry()));
+
+        assertFalse(Files.exists(previousFormat));
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(recent));
+        assertNotNull(storage.load(storage.getSnapshotKey(file)));
+    }
+
+    public void testIncompleteArgumentsSkipped() throws IOException {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID @deprecated(reason: ) }");
+        GraphQLSchemaSnapshotStorage storage = GraphQLSchemaSnapshotStorage.getInstance(getProject());
+        String key = storage.getSnapshotKey(file);
+        assertTrue(storage.save(key,
+            GraphQLSchemaProvider.getInstance(getProject()).getRegistryInfo(file).getTypeDefinitionRegistry()));
+
+        TypeDefinitionRegistry loaded = storage.load(key);
+        assertNotNull(loaded);
+        ObjectTypeDefinition query = loaded.getType("Query", ObjectTypeDefinition.class).orElse(null);
+        assertNotNull(query);
+        assertEmpty(query.getFieldDefinitions().get(0).getDirectives().get(0).getArguments());
+    }
+
+    public void testScheduledSavesCoalesced() throws Exception {
+        PsiFile file = myFixture.configureByText("schema.graphql", "type Query { id: ID }");
+        GraphQLSchemaSnapshotStorage storage = GraphQLSchemaSnapshotStorage.getInstance(getProject());
+        String key = storage.getSnapshotKey(file);
+        TypeDefinitionRegistry registry = GraphQLSchemaProvider.getInstance(getProject()).getRegistryInfo(file).getTypeDefinitionRegistry();
+
+        replaceFileText(file, "type Query { name: String }");
+        TypeDefinitionRegistry latestRegistry =
+            GraphQLSchemaProvider.getInstance(getProject()).getRegistryInfo(file).getTypeDefinitionRegistry();
+        storage.scheduleSave(key, registry);
+        storage.scheduleSave(key, latestRegistry);
+        storage.waitForPendingSaves();
+
+        TypeDefinitionRegistry loaded = storage.load(key);
+        assertNotNull(loaded);
+        ObjectTypeDefinition query = loaded.getType("Query", ObjectTypeDefinition.class).orElse(null);
+        assertNotNull(query);
+        assertEquals("name", query.getFieldDefinitions().get(0).getName());
+    }
+}
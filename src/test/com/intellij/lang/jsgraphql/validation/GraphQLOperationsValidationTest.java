@@ -1,8 +1,18 @@
 package com.intellij.lang.jsgraphql.validation;
 
 import com.intellij.lang.jsgraphql.GraphQLTestCaseBase;
+import com.intellij.lang.jsgraphql.psi.GraphQLFile;
+import com.intellij.lang.jsgraphql.schema.GraphQLSchemaProvider;
+import com.intellij.lang.jsgraphql.types.validation.ValidationError;
+import com.intellij.lang.jsgraphql.types.validation.ValidationErrorType;
+import com.intellij.lang.jsgraphql.types.validation.Validator;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.EnumSet;
+import java.util.List;
+
 public class GraphQLOperationsValidationTest extends GraphQLTestCaseBase {
     @Override
     protected @NotNull String getBasePath() {
@@ -27,4 +37,22 @@ public class GraphQLOperationsValidationTest extends GraphQLTestCaseBase {
         doHighlightingTest();
     }
 
+    public void testVariablesInFragmentSpreads() {
+        PsiFile file = myFixture.configureByText("query.graphql", "" +
+            "type Query { user(id: ID!): User }\n" +
+            "type User { id: ID name: String friends(first: Int): [User] }\n" +
+            "query Q($id: ID!, $unused: Int) { user(id: $id) { ...UserFields } }\n" +
+            "fragment UserFields on User { friends(first: $first) { ...FriendFields } }\n" +
+            "fragment FriendFields on User { name friends(first: $depth) { id } }\n");
+
+        List<ValidationError> errors = new Validator().validateDocument(
+            GraphQLSchemaProvider.getInstance(getProject()).getSchemaInfo(file).getSchema(), ((GraphQLFile) file).getDocument());
+        EnumSet<ValidationErrorType> variableErrorTypes = EnumSet.of(ValidationErrorType.UndefinedVariable, ValidationErrorType.UnusedVariable);
+
+        // the variables of fragments are validated once per operation spreading them, including the nested spreads
+        assertSameElements(
+            ContainerUtil.mapNotNull(errors, error -> variableErrorTypes.contains(error.getValidationErrorType()) ? error.getDescription() : null),
+            "Undefined variable first", "Undefined variable depth", "Unused variable unused");
+    }
+
 }